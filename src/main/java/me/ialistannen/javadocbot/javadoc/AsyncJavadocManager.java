@@ -0,0 +1,333 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocElement;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage;
+import me.ialistannen.javadocbot.util.JsoupUtil;
+import org.jsoup.nodes.Document;
+
+/**
+ * A non-blocking view on a {@link JavadocManager}.
+ * <p>
+ * All methods that may involve a web request run on the configured {@link Executor} and return a
+ * {@link CompletableFuture}. Lookups that only touch the index complete immediately.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * AsyncJavadocManager async = new AsyncJavadocManager(manager);
+ * async.getMethodsWithNameAndParam(javadocClass, "toLowerCase")
+ *     .thenAccept(methods -> reply(methods));
+ * }</pre>
+ */
+public class AsyncJavadocManager {
+
+  private final JavadocManager manager;
+  private final Executor executor;
+
+  /**
+   * Uses a cached thread pool, as most of the work is waiting for the web.
+   *
+   * @param manager The {@link JavadocManager} to delegate to
+   */
+  public AsyncJavadocManager(JavadocManager manager) {
+    this(
+        manager,
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                .setNameFormat("javadoc-async-%d")
+                .setDaemon(true)
+                .build()
+        )
+    );
+  }
+
+  /**
+   * @param manager The {@link JavadocManager} to delegate to
+   * @param executor The {@link Executor} to run the blocking work on
+   */
+  public AsyncJavadocManager(JavadocManager manager, Executor executor) {
+    this.manager = Objects.requireNonNull(manager, "manager can not be null!");
+    this.executor = Objects.requireNonNull(executor, "executor can not be null!");
+  }
+
+  /**
+   * @param name The name of the class
+   * @return All classes ending in that name
+   * @see JavadocManager#getClassEndingIn(String)
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<List<JavadocClass>> getClassEndingIn(String name) {
+    return CompletableFuture.completedFuture(manager.getClassEndingIn(name));
+  }
+
+  /**
+   * @param name The name of the class
+   * @return All classes with exactly that name
+   * @see JavadocManager#getClassesExact(String)
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<List<JavadocClass>> getClassesExact(String name) {
+    return CompletableFuture.completedFuture(manager.getClassesExact(name));
+  }
+
+  /**
+   * @param name The fully qualified name of the package
+   * @return The package, if any
+   * @see JavadocManager#getPackage(String)
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<Optional<Package>> getPackage(String name) {
+    return CompletableFuture.completedFuture(manager.getPackage(name));
+  }
+
+  /**
+   * Returns all methods of the class.
+   * <p>
+   * If the methods are not cached yet, the page of the class and the pages of all classes it
+   * inherits methods from are fetched concurrently.
+   *
+   * @param javadocClass The class to get the methods for
+   * @return All methods of the class
+   * @see JavadocManager#getAllMethods(JavadocClass)
+   */
+  @SuppressWarnings("WeakerAccess")
+  public CompletableFuture<List<JavadocMethod>> getAllMethods(JavadocClass javadocClass) {
+    return prefetchClassPages(javadocClass)
+        .thenApplyAsync(ignored -> manager.getAllMethods(javadocClass), executor);
+  }
+
+  /**
+   * @param javadocClass The class to get it for
+   * @param name The name of the method. Can contain parameters in the `(paramClass)` notation
+   * @return All matching methods
+   * @see JavadocManager#getMethodsWithNameAndParam(JavadocClass, String)
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<List<JavadocMethod>> getMethodsWithNameAndParam(
+      JavadocClass javadocClass, String name) {
+    return prefetchClassPages(javadocClass, manager.parseQuery("#" + name))
+        .thenApplyAsync(
+            ignored -> manager.getMethodsWithNameAndParam(javadocClass, name), executor
+        );
+  }
+
+  /**
+   * @param javadocClass The class to get it for
+   * @param name The name of the method. Parameters are ignored.
+   * @return All methods with that name
+   * @see JavadocManager#getMethodsWithName(JavadocClass, String)
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<List<JavadocMethod>> getMethodsWithName(JavadocClass javadocClass,
+      String name) {
+    JavadocQuery query = manager.parseQuery("#" + manager.parseQuery("#" + name).getMemberName());
+    return prefetchClassPages(javadocClass, query)
+        .thenApplyAsync(ignored -> manager.getMethodsWithName(javadocClass, name), executor);
+  }
+
+  /**
+   * Resolves many queries at once, e.g. all references in a chat message.
+   * <p>
+   * Equal queries are resolved once and the pages needed by all of them are deduplicated. The
+   * distinct pages (and the pages of their supertypes) are fetched concurrently and the method
+   * tables are built in parallel, so the whole batch takes about as long as its slowest page.
+   * <p>
+   * A query that fails does not fail the batch, its result carries the error instead.
+   *
+   * @param queries The queries, see {@link JavadocQuery}
+   * @return The results, in the order of the queries
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<List<QueryResult>> resolveAll(List<String> queries) {
+    List<JavadocQuery> parsed = new ArrayList<>(queries.size());
+    Map<String, JavadocClass> classesToLoad = new LinkedHashMap<>();
+    for (String query : queries) {
+      JavadocQuery javadocQuery = manager.parseQuery(query);
+      parsed.add(javadocQuery);
+      if (!javadocQuery.hasMember()) {
+        continue;
+      }
+      for (JavadocClass javadocClass : manager.findClasses(javadocQuery)) {
+        if (manager.needsClassPage(javadocClass, javadocQuery)) {
+          classesToLoad.putIfAbsent(javadocClass.getUrl(), javadocClass);
+        }
+      }
+    }
+
+    return prefetchClassPages(classesToLoad.values())
+        .thenCompose(ignored -> CompletableFuture.allOf(
+            classesToLoad.values().stream()
+                // failures are reported by the query needing it
+                .map(javadocClass -> supply(() -> manager.getAllMethods(javadocClass))
+                    .exceptionally(throwable -> null))
+                .toArray(CompletableFuture<?>[]::new)
+        ))
+        .thenApplyAsync(ignored -> {
+          Map<JavadocQuery, QueryResult> resolved = new HashMap<>();
+          List<QueryResult> results = new ArrayList<>(parsed.size());
+          for (JavadocQuery query : parsed) {
+            results.add(resolved.computeIfAbsent(query, this::resolve));
+          }
+          return results;
+        }, executor);
+  }
+
+  private QueryResult resolve(JavadocQuery query) {
+    List<JavadocClass> classes = manager.findClasses(query);
+    try {
+      return new QueryResult(query, classes, manager.findMethods(query), null);
+    } catch (RuntimeException e) {
+      return new QueryResult(query, classes, Collections.emptyList(), e);
+    }
+  }
+
+  /**
+   * Loads the description of a class, method or package.
+   *
+   * @param element The element to get it for
+   * @return The description of the element
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<String> getDescription(JavadocElement element) {
+    return supply(element::getDescription);
+  }
+
+  /**
+   * @param javadocClass The class to get it for
+   * @return The declaration of the class
+   * @see JavadocClass#getDeclaration()
+   */
+  @SuppressWarnings("unused")
+  public CompletableFuture<String> getDeclaration(JavadocClass javadocClass) {
+    return supply(javadocClass::getDeclaration);
+  }
+
+  /**
+   * @return The wrapped {@link JavadocManager}
+   */
+  @SuppressWarnings("unused")
+  public JavadocManager getManager() {
+    return manager;
+  }
+
+  /**
+   * Fetches the page of the class and then, concurrently, the pages of all classes it inherits
+   * methods from. They end up in the document cache, so parsing the methods needs no further
+   * request. Nothing is fetched if the methods of the class are cached, and pages whose snapshot
+   * is cached or stored are not fetched either.
+   * <p>
+   * Failures are ignored, the following blocking call will report them.
+   *
+   * @param javadocClass The class to fetch the pages for
+   * @return A future completing once all pages are fetched
+   */
+  private CompletableFuture<Void> prefetchClassPages(JavadocClass javadocClass) {
+    return prefetchClassPages(Collections.singletonList(javadocClass));
+  }
+
+  /**
+   * Like {@link #prefetchClassPages(JavadocClass)}, but only if the pages are needed to resolve
+   * the member of the query.
+   *
+   * @param javadocClass The class to fetch the pages for
+   * @param query The query naming a member of the class
+   * @return A future completing once all pages are fetched
+   */
+  private CompletableFuture<Void> prefetchClassPages(JavadocClass javadocClass,
+      JavadocQuery query) {
+    if (!manager.needsClassPage(javadocClass, query)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return prefetchClassPages(javadocClass);
+  }
+
+  /**
+   * Fetches the pages of all classes and the pages of the classes they inherit methods from,
+   * concurrently. Every page is fetched at most once, even if many classes share a supertype.
+   * <p>
+   * Failures are ignored, the following blocking call will report them.
+   *
+   * @param classes The classes to fetch the pages for
+   * @return A future completing once all pages are fetched
+   */
+  private CompletableFuture<Void> prefetchClassPages(Collection<JavadocClass> classes) {
+    List<JavadocClass> needed = new ArrayList<>(classes.size());
+    for (JavadocClass javadocClass : classes) {
+      if (manager.needsClassPage(javadocClass)) {
+        needed.add(javadocClass);
+      }
+    }
+    return fetchAll(needed, new ConcurrentHashMap<>(), true);
+  }
+
+  /**
+   * @param classes The classes to fetch
+   * @param requested The URLs of all pages requested so far. New ones are added.
+   * @param withSupertypes Whether to fetch the pages of the classes they inherit methods from too
+   * @return A future completing once all pages are fetched, never exceptionally
+   */
+  private CompletableFuture<Void> fetchAll(Collection<JavadocClass> classes,
+      Map<String, Boolean> requested, boolean withSupertypes) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>(classes.size());
+    for (JavadocClass javadocClass : classes) {
+      if (requested.putIfAbsent(javadocClass.getUrl(), true) != null) {
+        continue;
+      }
+      futures.add(
+          supply(() -> manager.getClassPageParser().getStoredPage(javadocClass))
+              .thenCompose(stored -> stored.isPresent()
+                  ? fetchSupertypes(stored.get(), requested, withSupertypes)
+                  : fetchWithSupertypes(javadocClass, requested, withSupertypes))
+              .exceptionally(throwable -> null)
+      );
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private CompletableFuture<Void> fetchSupertypes(ClassPage classPage,
+      Map<String, Boolean> requested, boolean withSupertypes) {
+    if (!withSupertypes) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return fetchAll(manager.getMethodParser().getInheritedFrom(classPage), requested, false);
+  }
+
+  private CompletableFuture<Void> fetchWithSupertypes(JavadocClass javadocClass,
+      Map<String, Boolean> requested, boolean withSupertypes) {
+    CompletableFuture<Document> page = fetch(javadocClass);
+    if (!withSupertypes) {
+      return page.thenApply(document -> null);
+    }
+    return page.thenCompose(document -> fetchAll(
+        manager.getMethodParser().getInheritedFrom(document), requested, false
+    ));
+  }
+
+  private CompletableFuture<Document> fetch(JavadocClass javadocClass) {
+    JavadocSettings settings = manager.getSettings();
+    return JsoupUtil.parseUrlAsync(
+        javadocClass.getUrl(), settings.getPageSource(), settings.getDocumentCache(), executor
+    );
+  }
+
+  private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+    return CompletableFuture.supplyAsync(supplier, executor);
+  }
+}
@@ -0,0 +1,80 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+
+/**
+ * An immutable lookup index over all classes, built once per {@link JavadocManager#index()}.
+ * <p>
+ * Classes are bucketed by their lower cased name and their fully qualified names are computed
+ * up front, so a suffix lookup only looks at the classes with a matching name.
+ */
+class ClassIndex {
+
+  private final ImmutableListMultimap<String, IndexedClass> byLowerCaseName;
+
+  /**
+   * @param classes All classes to index
+   */
+  ClassIndex(Collection<JavadocClass> classes) {
+    ImmutableListMultimap.Builder<String, IndexedClass> builder = ImmutableListMultimap.builder();
+    for (JavadocClass javadocClass : classes) {
+      builder.put(toKey(javadocClass.getName()), new IndexedClass(javadocClass));
+    }
+    byLowerCaseName = builder.build();
+  }
+
+  /**
+   * Returns all classes whose fully qualified name ends in the given name and whose name matches
+   * a dot separated suffix of it (ignoring case).
+   * <p>
+   * Nested classes are named like {@code Map.Entry}, so for {@code util.Map.Entry} the buckets
+   * {@code entry}, {@code map.entry} and {@code util.map.entry} are looked at.
+   *
+   * @param name The name of the class. May be (partially) qualified.
+   * @return All matching classes
+   */
+  List<JavadocClass> getClassEndingIn(String name) {
+    String key = toKey(name);
+    List<JavadocClass> result = null;
+
+    int dot = key.length();
+    while (dot >= 0) {
+      dot = key.lastIndexOf('.', dot - 1);
+      ImmutableList<IndexedClass> candidates = byLowerCaseName.get(key.substring(dot + 1));
+      for (IndexedClass candidate : candidates) {
+        if (candidate.qualifiedName.endsWith(name)) {
+          if (result == null) {
+            result = new ArrayList<>(candidates.size());
+          }
+          result.add(candidate.javadocClass);
+        }
+      }
+    }
+    return result == null ? Collections.emptyList() : result;
+  }
+
+  private static String toKey(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * A class with its precomputed fully qualified name
+   */
+  private static class IndexedClass {
+
+    private final JavadocClass javadocClass;
+    private final String qualifiedName;
+
+    IndexedClass(JavadocClass javadocClass) {
+      this.javadocClass = javadocClass;
+      this.qualifiedName = javadocClass.getParentPackage().getName() + "." + javadocClass.getName();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+
+/**
+ * An immutable prefix index for autocompletion, built once per {@link JavadocManager#index()}.
+ * <p>
+ * The keys are kept in a sorted array, so the keys starting with a prefix form a single range
+ * found by binary search. Every entry gets a rank up front (popularity, then length, then name)
+ * and a segment tree over the ranks yields the best entry of any range in {@code O(log n)}. The
+ * top {@code k} completions are taken from a small queue of ranges, so only the returned entries
+ * are ever looked at, no matter how many keys share the prefix.
+ */
+class CompletionIndex {
+
+  /**
+   * An index without any entries
+   */
+  static final CompletionIndex EMPTY = new CompletionIndex(
+      Collections.emptyList(), Collections.emptyList(), AtomicLongMap.create()
+  );
+
+  private final Section classes;
+  private final Section members;
+
+  /**
+   * @param classes The classes to complete
+   * @param memberNames The member names to complete
+   * @param popularity How often classes (by qualified name) and members (by name) were looked up
+   */
+  CompletionIndex(Collection<JavadocClass> classes, Collection<String> memberNames,
+      AtomicLongMap<String> popularity) {
+    Map<String, String> classKeys = new HashMap<>();
+    for (JavadocClass javadocClass : classes) {
+      String qualifiedName = qualifiedName(javadocClass);
+      String name = javadocClass.getName();
+      // the simple name (also of nested classes, "Entry" for "Map.Entry") and the qualified name
+      // complete to the qualified one
+      int dot = -1;
+      do {
+        classKeys.put(toKey(name.substring(dot + 1)) + '\0' + qualifiedName, qualifiedName);
+        dot = name.indexOf('.', dot + 1);
+      } while (dot >= 0);
+      classKeys.put(toKey(qualifiedName) + '\0' + qualifiedName, qualifiedName);
+    }
+    Map<String, String> memberKeys = new HashMap<>();
+    for (String memberName : memberNames) {
+      memberKeys.put(toKey(memberName) + '\0' + memberName, memberName);
+    }
+
+    this.classes = new Section(classKeys, popularity);
+    this.members = new Section(memberKeys, popularity);
+  }
+
+  /**
+   * @param prefix The prefix of the simple or qualified class name, case insensitive
+   * @param limit The maximum amount of completions
+   * @return The qualified names of the best matching classes, best first
+   */
+  List<String> completeClass(String prefix, int limit) {
+    return classes.complete(toKey(prefix), limit);
+  }
+
+  /**
+   * @param prefix The prefix of the member name, case insensitive
+   * @param limit The maximum amount of completions
+   * @return The best matching member names, best first
+   */
+  List<String> completeMember(String prefix, int limit) {
+    return members.complete(toKey(prefix), limit);
+  }
+
+  /**
+   * @param javadocClass The class
+   * @return The fully qualified name of the class
+   */
+  static String qualifiedName(JavadocClass javadocClass) {
+    return javadocClass.getParentPackage().getName() + "." + javadocClass.getName();
+  }
+
+  private static String toKey(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * The sorted keys of one kind of entry, with the segment tree over their ranks
+   */
+  private static class Section {
+
+    // sorted keys of the form "<lower case key>\0<value>", so equal keys stay distinct
+    private final String[] keys;
+    private final String[] values;
+    private final int[] ranks;
+    // tree[size + i] = i, tree[i] = the better of its two children
+    private final int[] tree;
+
+    Section(Map<String, String> entries, AtomicLongMap<String> popularity) {
+      keys = entries.keySet().toArray(new String[0]);
+      Arrays.sort(keys);
+      values = new String[keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        values[i] = entries.get(keys[i]);
+      }
+
+      Integer[] byRank = new Integer[keys.length];
+      for (int i = 0; i < byRank.length; i++) {
+        byRank[i] = i;
+      }
+      Arrays.sort(byRank, Comparator
+          .comparingLong((Integer index) -> -popularity.get(values[index]))
+          .thenComparingInt(index -> values[index].length())
+          .thenComparing(index -> values[index]));
+      ranks = new int[keys.length];
+      for (int rank = 0; rank < byRank.length; rank++) {
+        ranks[byRank[rank]] = rank;
+      }
+
+      int size = keys.length;
+      tree = new int[2 * size];
+      for (int i = 0; i < size; i++) {
+        tree[size + i] = i;
+      }
+      for (int i = size - 1; i > 0; i--) {
+        tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+      }
+    }
+
+    List<String> complete(String prefix, int limit) {
+      int from = lowerBound(prefix);
+      int to = lowerBound(prefix + '\uFFFF');
+      if (from >= to || limit <= 0) {
+        return Collections.emptyList();
+      }
+
+      List<String> result = new ArrayList<>(Math.min(limit, to - from));
+      // ranges [from, to) ordered by the rank of their best entry
+      PriorityQueue<int[]> ranges = new PriorityQueue<>(
+          Math.min(2 * limit, to - from), Comparator.comparingInt(range -> ranks[range[2]])
+      );
+      ranges.add(new int[]{from, to, best(from, to)});
+
+      while (result.size() < limit && !ranges.isEmpty()) {
+        int[] range = ranges.poll();
+        int best = range[2];
+        if (!result.contains(values[best])) {
+          result.add(values[best]);
+        }
+        if (range[0] < best) {
+          ranges.add(new int[]{range[0], best, best(range[0], best)});
+        }
+        if (best + 1 < range[1]) {
+          ranges.add(new int[]{best + 1, range[1], best(best + 1, range[1])});
+        }
+      }
+      return result;
+    }
+
+    /**
+     * @return The index of the best ranked entry in [from, to)
+     */
+    private int best(int from, int to) {
+      int best = -1;
+      for (from += keys.length, to += keys.length; from < to; from >>= 1, to >>= 1) {
+        if ((from & 1) == 1) {
+          best = better(best, tree[from++]);
+        }
+        if ((to & 1) == 1) {
+          best = better(best, tree[--to]);
+        }
+      }
+      return best;
+    }
+
+    private int better(int first, int second) {
+      if (first < 0) {
+        return second;
+      }
+      return ranks[first] <= ranks[second] ? first : second;
+    }
+
+    private int lowerBound(String key) {
+      int index = Arrays.binarySearch(keys, key);
+      return index < 0 ? -index - 1 : index;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package me.ialistannen.javadocbot.javadoc;
+
+/**
+ * Listens to the progress of a crawl.
+ */
+@FunctionalInterface
+public interface CrawlListener {
+
+  /**
+   * Called after each class was processed. May be called from different threads.
+   *
+   * @param progress The current {@link CrawlProgress}
+   */
+  void onProgress(CrawlProgress progress);
+}
@@ -0,0 +1,59 @@
+package me.ialistannen.javadocbot.javadoc;
+
+/**
+ * The progress of a crawl started with {@link JavadocManager#crawl(int, int, CrawlListener)}
+ */
+public class CrawlProgress {
+
+  private final int processed;
+  private final int failed;
+  private final int total;
+
+  /**
+   * @param processed The amount of classes that were processed, including the failed ones
+   * @param failed The amount of classes that could not be crawled
+   * @param total The total amount of classes
+   */
+  CrawlProgress(int processed, int failed, int total) {
+    this.processed = processed;
+    this.failed = failed;
+    this.total = total;
+  }
+
+  /**
+   * @return The amount of classes that were processed, including the failed ones
+   */
+  public int getProcessed() {
+    return processed;
+  }
+
+  /**
+   * @return The amount of classes that could not be crawled
+   */
+  public int getFailed() {
+    return failed;
+  }
+
+  /**
+   * @return The total amount of classes
+   */
+  public int getTotal() {
+    return total;
+  }
+
+  /**
+   * @return True if all classes were processed
+   */
+  public boolean isDone() {
+    return processed >= total;
+  }
+
+  @Override
+  public String toString() {
+    return "CrawlProgress{" +
+        "processed=" + processed +
+        ", failed=" + failed +
+        ", total=" + total +
+        '}';
+  }
+}
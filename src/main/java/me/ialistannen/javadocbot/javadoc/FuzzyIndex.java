@@ -0,0 +1,273 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+
+/**
+ * An immutable index of near matches for misspelled class and member names ("did you mean").
+ * <p>
+ * The lower cased names are stored in BK-trees, one per name length. A lookup only searches the
+ * trees whose length is within the allowed distance and only descends into the children whose
+ * distance to the node is within it too (triangle inequality), so it looks at a small fraction of
+ * the names.
+ */
+class FuzzyIndex {
+
+  /**
+   * An index without any entries
+   */
+  static final FuzzyIndex EMPTY = new FuzzyIndex(
+      Collections.emptyList(), Collections.emptyList()
+  );
+
+  private final Tree classes;
+  private final Tree members;
+
+  /**
+   * @param classes The classes to suggest
+   * @param memberNames The member names to suggest
+   */
+  FuzzyIndex(Collection<JavadocClass> classes, Collection<String> memberNames) {
+    ImmutableListMultimap.Builder<String, String> classNames = ImmutableListMultimap.builder();
+    for (JavadocClass javadocClass : classes) {
+      String name = javadocClass.getName();
+      // nested classes are found by their own name, "Entry" for "Map.Entry"
+      String simpleName = name.substring(name.lastIndexOf('.') + 1);
+      classNames.put(toKey(simpleName), CompletionIndex.qualifiedName(javadocClass));
+    }
+    ImmutableListMultimap.Builder<String, String> members = ImmutableListMultimap.builder();
+    for (String memberName : memberNames) {
+      members.put(toKey(memberName), memberName);
+    }
+
+    this.classes = new Tree(classNames.build());
+    this.members = new Tree(members.build());
+  }
+
+  /**
+   * @param name The (misspelled) name of the class. Only the part after the last dot is used.
+   * @param limit The maximum amount of suggestions
+   * @param popularity The popularity of the qualified names, to break ties
+   * @return The qualified names of the closest classes, closest first
+   */
+  List<String> suggestClass(String name, int limit, AtomicLongMap<String> popularity) {
+    return classes.suggest(toKey(name.substring(name.lastIndexOf('.') + 1)), limit, popularity);
+  }
+
+  /**
+   * @param name The (misspelled) name of the member
+   * @param limit The maximum amount of suggestions
+   * @param popularity The popularity of the names, to break ties
+   * @return The closest member names, closest first
+   */
+  List<String> suggestMember(String name, int limit, AtomicLongMap<String> popularity) {
+    return members.suggest(toKey(name), limit, popularity);
+  }
+
+  /**
+   * @param length The length of the name
+   * @return The maximum edit distance of a suggestion
+   */
+  private static int maxDistance(int length) {
+    return length <= 4 ? 1 : length <= 8 ? 2 : 3;
+  }
+
+  /**
+   * Computes the Levenshtein distance, giving up once it exceeds the bound.
+   *
+   * @param first The first String
+   * @param second The second String
+   * @param bound The maximum distance of interest
+   * @return The distance or {@code bound + 1} if it is larger than the bound
+   */
+  private static int distance(String first, String second, int bound) {
+    if (Math.abs(first.length() - second.length()) > bound) {
+      return bound + 1;
+    }
+    int[] previous = new int[second.length() + 1];
+    int[] current = new int[second.length() + 1];
+    for (int j = 0; j <= second.length(); j++) {
+      previous[j] = j;
+    }
+
+    for (int i = 1; i <= first.length(); i++) {
+      current[0] = i;
+      int rowMinimum = i;
+      char firstChar = first.charAt(i - 1);
+      for (int j = 1; j <= second.length(); j++) {
+        int cost = firstChar == second.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(
+            Math.min(current[j - 1] + 1, previous[j] + 1),
+            previous[j - 1] + cost
+        );
+        rowMinimum = Math.min(rowMinimum, current[j]);
+      }
+      if (rowMinimum > bound) {
+        return bound + 1;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return Math.min(previous[second.length()], bound + 1);
+  }
+
+  private static int distance(String first, String second) {
+    return distance(first, second, Integer.MAX_VALUE - 1);
+  }
+
+  private static String toKey(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * BK-trees over the keys, with the values of each key
+   */
+  private static class Tree {
+
+    private final ImmutableListMultimap<String, String> values;
+    // one tree per key length, as only lengths within the bound can match at all
+    private final Node[] roots;
+
+    Tree(ImmutableListMultimap<String, String> values) {
+      this.values = values;
+
+      int maxLength = 0;
+      for (String key : values.keySet()) {
+        maxLength = Math.max(maxLength, key.length());
+      }
+      this.roots = new Node[maxLength + 1];
+      for (String key : values.keySet()) {
+        if (roots[key.length()] == null) {
+          roots[key.length()] = new Node(key);
+        } else {
+          roots[key.length()].add(key);
+        }
+      }
+    }
+
+    List<String> suggest(String key, int limit, AtomicLongMap<String> popularity) {
+      if (limit <= 0 || key.isEmpty()) {
+        return Collections.emptyList();
+      }
+      int bound = maxDistance(key.length());
+
+      List<Node> pending = new ArrayList<>();
+      int minLength = Math.max(0, key.length() - bound);
+      int maxLength = Math.min(roots.length - 1, key.length() + bound);
+      for (int length = minLength; length <= maxLength; length++) {
+        if (roots[length] != null) {
+          pending.add(roots[length]);
+        }
+      }
+
+      List<Match> matches = new ArrayList<>();
+      while (!pending.isEmpty()) {
+        Node node = pending.remove(pending.size() - 1);
+        // the exact distance is needed to pick the children to visit, but only while it is small
+        // enough for any child to be within the bound
+        int distance = distance(key, node.key, node.maxChildDistance + bound);
+        if (distance <= bound) {
+          for (String value : values.get(node.key)) {
+            matches.add(new Match(value, distance, popularity.get(value)));
+          }
+        }
+        for (int i = 0; i < node.childCount; i++) {
+          if (Math.abs(node.distances[i] - distance) <= bound) {
+            pending.add(node.children[i]);
+          }
+        }
+      }
+
+      matches.sort(Comparator
+          .comparingInt((Match match) -> match.distance)
+          .thenComparingLong(match -> -match.popularity)
+          .thenComparingInt(match -> match.value.length())
+          .thenComparing(match -> match.value));
+
+      Set<String> result = new LinkedHashSet<>();
+      for (Match match : matches) {
+        if (result.size() >= limit) {
+          break;
+        }
+        result.add(match.value);
+      }
+      return new ArrayList<>(result);
+    }
+  }
+
+  /**
+   * A node of the BK-tree. Children are stored in parallel arrays, keyed by their distance.
+   */
+  private static class Node {
+
+    private final String key;
+    private int[] distances = new int[0];
+    private Node[] children = new Node[0];
+    private int childCount;
+    private int maxChildDistance;
+
+    Node(String key) {
+      this.key = key;
+    }
+
+    void add(String newKey) {
+      Node node = this;
+      while (true) {
+        int distance = distance(newKey, node.key);
+        Node child = node.getChild(distance);
+        if (child == null) {
+          node.addChild(distance, new Node(newKey));
+          return;
+        }
+        node = child;
+      }
+    }
+
+    private Node getChild(int distance) {
+      for (int i = 0; i < childCount; i++) {
+        if (distances[i] == distance) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    private void addChild(int distance, Node child) {
+      if (childCount == distances.length) {
+        distances = Arrays.copyOf(distances, Math.max(2, childCount * 2));
+        children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+      }
+      distances[childCount] = distance;
+      children[childCount] = child;
+      childCount++;
+      maxChildDistance = Math.max(maxChildDistance, distance);
+    }
+  }
+
+  /**
+   * A suggestion with its distance
+   */
+  private static class Match {
+
+    private final String value;
+    private final int distance;
+    private final long popularity;
+
+    Match(String value, int distance, long popularity) {
+      this.value = value;
+      this.distance = distance;
+      this.popularity = popularity;
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.base.Strings;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compact binary snapshot of the index (all packages and classes), used to skip the parsing of
+ * the overview pages on startup.
+ * <p>
+ * Format: magic, version, timestamp, base url, packages (name, url, short description), classes
+ * (package name, name, url). Strings are stored as a length prefixed UTF-8 byte sequence.
+ */
+class IndexSnapshot {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IndexSnapshot.class);
+
+  private static final int MAGIC = 0x4A444958; // "JDIX"
+  private static final int VERSION = 1;
+
+  private final List<PackageEntry> packages;
+  private final List<ClassEntry> classes;
+
+  private IndexSnapshot(List<PackageEntry> packages, List<ClassEntry> classes) {
+    this.packages = Collections.unmodifiableList(packages);
+    this.classes = Collections.unmodifiableList(classes);
+  }
+
+  /**
+   * @return All packages in the snapshot
+   */
+  List<PackageEntry> getPackages() {
+    return packages;
+  }
+
+  /**
+   * @return All classes in the snapshot
+   */
+  List<ClassEntry> getClasses() {
+    return classes;
+  }
+
+  /**
+   * Writes a snapshot. The file is replaced atomically, so concurrent readers never see a partial
+   * snapshot.
+   *
+   * @param file The file to write it to
+   * @param baseUrl The base url of the indexed javadoc
+   * @param packages All packages
+   * @param classes All classes
+   * @throws IOException if an error occurred while writing
+   */
+  static void write(Path file, String baseUrl, Collection<Package> packages,
+      Collection<JavadocClass> classes) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+    try {
+      try (OutputStream fileStream = Files.newOutputStream(tempFile);
+          DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileStream))) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(System.currentTimeMillis());
+        writeString(output, baseUrl);
+
+        output.writeInt(packages.size());
+        for (Package aPackage : packages) {
+          writeString(output, aPackage.getName());
+          writeString(output, aPackage.getUrl());
+          writeString(output, Strings.nullToEmpty(aPackage.getShortDescription()));
+        }
+
+        output.writeInt(classes.size());
+        for (JavadocClass javadocClass : classes) {
+          writeString(output, javadocClass.getParentPackage().getName());
+          writeString(output, javadocClass.getName());
+          writeString(output, javadocClass.getUrl());
+        }
+      }
+      Files.move(
+          tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+      );
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Reads a snapshot, if it exists and is still valid.
+   *
+   * @param file The file to read it from
+   * @param baseUrl The base url the snapshot must have been created for
+   * @param maxAgeMillis The maximum age of the snapshot in milliseconds
+   * @return The snapshot or an empty optional if it is missing, stale or corrupted
+   */
+  static Optional<IndexSnapshot> read(Path file, String baseUrl, long maxAgeMillis) {
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        LOGGER.info("Ignoring index snapshot with an unknown format: {}", file);
+        return Optional.empty();
+      }
+      long timestamp = buffer.getLong();
+      if (System.currentTimeMillis() - timestamp > maxAgeMillis) {
+        LOGGER.info("Ignoring stale index snapshot: {}", file);
+        return Optional.empty();
+      }
+      if (!readString(buffer).equals(baseUrl)) {
+        LOGGER.info("Ignoring index snapshot for a different base url: {}", file);
+        return Optional.empty();
+      }
+
+      int packageCount = buffer.getInt();
+      List<PackageEntry> packages = new ArrayList<>(packageCount);
+      for (int i = 0; i < packageCount; i++) {
+        packages.add(new PackageEntry(readString(buffer), readString(buffer), readString(buffer)));
+      }
+
+      int classCount = buffer.getInt();
+      List<ClassEntry> classes = new ArrayList<>(classCount);
+      for (int i = 0; i < classCount; i++) {
+        classes.add(new ClassEntry(readString(buffer), readString(buffer), readString(buffer)));
+      }
+
+      return Optional.of(new IndexSnapshot(packages, classes));
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      LOGGER.warn("Couldn't read the index snapshot", e);
+      return Optional.empty();
+    }
+  }
+
+  private static void writeString(DataOutputStream output, String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid string length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * A package in the snapshot
+   */
+  static class PackageEntry {
+
+    private final String name;
+    private final String url;
+    private final String shortDescription;
+
+    private PackageEntry(String name, String url, String shortDescription) {
+      this.name = name;
+      this.url = url;
+      this.shortDescription = shortDescription;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    String getUrl() {
+      return url;
+    }
+
+    String getShortDescription() {
+      return shortDescription;
+    }
+  }
+
+  /**
+   * A class in the snapshot
+   */
+  static class ClassEntry {
+
+    private final String packageName;
+    private final String name;
+    private final String url;
+
+    private ClassEntry(String packageName, String name, String url) {
+      this.packageName = packageName;
+      this.name = name;
+      this.url = url;
+    }
+
+    String getPackageName() {
+      return packageName;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    String getUrl() {
+      return url;
+    }
+  }
+}
@@ -0,0 +1,320 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPageParser;
+import me.ialistannen.javadocbot.javadoc.parsing.MethodParser;
+import me.ialistannen.javadocbot.javadoc.source.PageContent;
+import me.ialistannen.javadocbot.util.JsoupUtil;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Crawls all class pages ahead of time, so no query needs to wait for the web.
+ * <p>
+ * The crawl is a pipeline of three stages, connected by bounded queues:
+ * <ol>
+ * <li><em>fetch</em>: Reads the raw pages from the {@link JavadocSettings#getPageSource()}.
+ * I/O bound, so it can use many threads.</li>
+ * <li><em>parse</em>: Parses the raw pages to {@link Document}s.</li>
+ * <li><em>convert</em>: Takes a {@link ClassPage} snapshot of the page in a single pass and
+ * preloads the declaration and description of the class.</li>
+ * <li><em>methods</em>: Builds the methods of the class, including the inherited ones. It runs on
+ * the fetch threads once the other stages are done, as the pages of the supertypes are needed.
+ * Most of them were crawled by then, a missing one is fetched on the fetch thread.</li>
+ * </ol>
+ * The parse and convert stages are CPU bound and each use the configured amount of CPU threads.
+ * Classes whose page is stored in the class cache directory skip the fetch and parse work and go
+ * to the convert stage directly. A class counts as processed once its methods are built.
+ * <p>
+ * A class failing in any stage is counted as failed and the crawl carries on, so a single broken
+ * page or a throwing {@link CrawlListener} never stalls the pipeline.
+ */
+class JavadocCrawler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JavadocCrawler.class);
+
+  /**
+   * The queue capacity per consuming thread
+   */
+  private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+  private static final CrawlItem END = new CrawlItem(null);
+
+  private final JavadocSettings settings;
+  private final ClassPageParser classPageParser;
+  private final MethodParser methodParser;
+  private final BiConsumer<JavadocClass, List<JavadocMethod>> methodConsumer;
+
+  /**
+   * @param settings The {@link JavadocSettings} to use
+   * @param classPageParser The {@link ClassPageParser} to use
+   * @param methodParser The {@link MethodParser} to use
+   * @param methodConsumer Receives the parsed methods of each class
+   */
+  JavadocCrawler(JavadocSettings settings, ClassPageParser classPageParser,
+      MethodParser methodParser, BiConsumer<JavadocClass, List<JavadocMethod>> methodConsumer) {
+    this.settings = settings;
+    this.classPageParser = classPageParser;
+    this.methodParser = methodParser;
+    this.methodConsumer = methodConsumer;
+  }
+
+  /**
+   * Crawls the given classes and blocks until all of them are processed.
+   *
+   * @param classes The classes to crawl
+   * @param fetchThreads The amount of threads fetching pages
+   * @param cpuThreads The amount of threads for each of the CPU bound stages
+   * @param listener The {@link CrawlListener} to notify
+   * @return The final {@link CrawlProgress}
+   * @throws InterruptedException if the thread was interrupted while waiting. The crawl is
+   * cancelled in that case.
+   */
+  CrawlProgress crawl(Collection<JavadocClass> classes, int fetchThreads, int cpuThreads,
+      CrawlListener listener) throws InterruptedException {
+    if (fetchThreads < 1 || cpuThreads < 1) {
+      throw new IllegalArgumentException("You need at least one thread per stage");
+    }
+
+    Crawl crawl = new Crawl(classes, cpuThreads, listener);
+
+    ExecutorService fetchPool = Executors.newFixedThreadPool(fetchThreads, threadFactory("fetch"));
+    ExecutorService parsePool = Executors.newFixedThreadPool(cpuThreads, threadFactory("parse"));
+    ExecutorService convertPool = Executors.newFixedThreadPool(
+        cpuThreads, threadFactory("convert")
+    );
+
+    try {
+      CountDownLatch fetchDone = startFetchStage(fetchPool, fetchThreads, crawl);
+      CountDownLatch parseDone = startStage(parsePool, cpuThreads, crawl, crawl.fetched,
+          item -> {
+            item.document = JsoupUtil.parse(item.content, item.javadocClass.getUrl());
+            item.content = null;
+            crawl.parsed.put(item);
+          }
+      );
+      CountDownLatch convertDone = startStage(convertPool, cpuThreads, crawl, crawl.parsed,
+          item -> {
+            convert(item);
+            crawl.converted.put(item);
+          }
+      );
+
+      fetchDone.await();
+      signalEnd(crawl.fetched, cpuThreads);
+      parseDone.await();
+      signalEnd(crawl.parsed, cpuThreads);
+      convertDone.await();
+
+      // all crawled pages are known now, so the supertypes rarely need to be fetched
+      signalEnd(crawl.converted, fetchThreads);
+      CountDownLatch methodsDone = startStage(fetchPool, fetchThreads, crawl, crawl.converted,
+          item -> {
+            JavadocClass javadocClass = item.javadocClass;
+            methodConsumer.accept(javadocClass, methodParser.getMethods(javadocClass));
+            crawl.succeeded();
+          }
+      );
+      methodsDone.await();
+    } finally {
+      fetchPool.shutdownNow();
+      parsePool.shutdownNow();
+      convertPool.shutdownNow();
+    }
+
+    return crawl.getProgress();
+  }
+
+  private CountDownLatch startFetchStage(ExecutorService pool, int threads, Crawl crawl) {
+    CountDownLatch done = new CountDownLatch(threads);
+    for (int i = 0; i < threads; i++) {
+      pool.execute(() -> {
+        try {
+          JavadocClass javadocClass;
+          while ((javadocClass = crawl.pending.poll()) != null) {
+            CrawlItem item = new CrawlItem(javadocClass);
+            try {
+              fetch(item, crawl);
+            } catch (InterruptedException e) {
+              throw e;
+            } catch (Throwable e) {
+              crawl.failed(item, e);
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    return done;
+  }
+
+  private CountDownLatch startStage(ExecutorService pool, int threads, Crawl crawl,
+      BlockingQueue<CrawlItem> input, Stage stage) {
+    CountDownLatch done = new CountDownLatch(threads);
+    for (int i = 0; i < threads; i++) {
+      pool.execute(() -> {
+        try {
+          CrawlItem item;
+          while ((item = input.take()) != END) {
+            try {
+              stage.process(item);
+            } catch (InterruptedException e) {
+              throw e;
+            } catch (Throwable e) {
+              // a dead worker would leave the upstream stage blocked on a full queue
+              crawl.failed(item, e);
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    return done;
+  }
+
+  private void fetch(CrawlItem item, Crawl crawl) throws IOException, InterruptedException {
+    Optional<ClassPage> stored = classPageParser.getStoredPage(item.javadocClass);
+    if (stored.isPresent()) {
+      item.page = stored.get();
+      crawl.parsed.put(item);
+      return;
+    }
+    item.content = settings.getPageSource().read(item.javadocClass.getUrl());
+    crawl.fetched.put(item);
+  }
+
+  private void convert(CrawlItem item) {
+    JavadocClass javadocClass = item.javadocClass;
+    ClassPage classPage = item.page != null
+        ? item.page
+        : classPageParser.parse(javadocClass, item.document);
+    item.document = null;
+    item.page = null;
+
+    javadocClass.preload(
+        classPage.getDeclarationOrNull(), classPage.getSignatureOrNull(),
+        classPage.getDescriptionOrNull()
+    );
+  }
+
+  private static void signalEnd(BlockingQueue<CrawlItem> queue, int consumers)
+      throws InterruptedException {
+    for (int i = 0; i < consumers; i++) {
+      queue.put(END);
+    }
+  }
+
+  /**
+   * Names the crawl threads and makes them daemons, so a crawl never blocks a shutdown.
+   *
+   * @param stage The name of the stage
+   * @return A {@link ThreadFactory} for the stage
+   */
+  private static ThreadFactory threadFactory(String stage) {
+    return new ThreadFactoryBuilder()
+        .setNameFormat("javadoc-crawl-" + stage + "-%d")
+        .setDaemon(true)
+        .build();
+  }
+
+  /**
+   * A stage processing one item
+   */
+  @FunctionalInterface
+  private interface Stage {
+
+    /**
+     * @param item The item to process
+     * @throws InterruptedException if interrupted while passing it on to the next stage
+     */
+    void process(CrawlItem item) throws InterruptedException;
+  }
+
+  /**
+   * The state of a single crawl
+   */
+  private static class Crawl {
+
+    private final Queue<JavadocClass> pending;
+    private final BlockingQueue<CrawlItem> fetched;
+    private final BlockingQueue<CrawlItem> parsed;
+    // unbounded, as its consumers only start once the convert stage is done
+    private final BlockingQueue<CrawlItem> converted = new LinkedBlockingQueue<>();
+    private final int total;
+    private final CrawlListener listener;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    Crawl(Collection<JavadocClass> classes, int cpuThreads, CrawlListener listener) {
+      this.pending = new ConcurrentLinkedQueue<>(classes);
+      this.fetched = new ArrayBlockingQueue<>(cpuThreads * QUEUE_CAPACITY_PER_THREAD);
+      this.parsed = new ArrayBlockingQueue<>(cpuThreads * QUEUE_CAPACITY_PER_THREAD);
+      this.total = classes.size();
+      this.listener = listener;
+    }
+
+    void succeeded() {
+      notifyListener(new CrawlProgress(processed.incrementAndGet(), failed.get(), total));
+    }
+
+    void failed(CrawlItem item, Throwable e) {
+      LOGGER.debug("Couldn't crawl " + item.javadocClass.getUrl(), e);
+      int failedCount = failed.incrementAndGet();
+      notifyListener(new CrawlProgress(processed.incrementAndGet(), failedCount, total));
+    }
+
+    private void notifyListener(CrawlProgress progress) {
+      try {
+        listener.onProgress(progress);
+      } catch (Throwable e) {
+        LOGGER.warn("The crawl listener threw an exception", e);
+      }
+    }
+
+    CrawlProgress getProgress() {
+      return new CrawlProgress(processed.get(), failed.get(), total);
+    }
+  }
+
+  /**
+   * A class passing through the stages
+   */
+  private static class CrawlItem {
+
+    private final JavadocClass javadocClass;
+    private PageContent content;
+    private Document document;
+    // set instead of the content and document if the page was stored
+    private ClassPage page;
+
+    CrawlItem(JavadocClass javadocClass) {
+      this.javadocClass = javadocClass;
+    }
+  }
+}
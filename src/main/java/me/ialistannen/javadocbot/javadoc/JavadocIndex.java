@@ -0,0 +1,206 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+
+/**
+ * One immutable generation of the index.
+ * <p>
+ * A generation is built completely before it is published by the {@link JavadocManager}, so
+ * readers always see a consistent index and never need to lock.
+ */
+class JavadocIndex {
+
+  /**
+   * An empty index, used before {@link JavadocManager#index()} was called
+   */
+  static final JavadocIndex EMPTY = new Builder().build();
+
+  private static final double MEMBER_NAME_FALSE_POSITIVES = 0.01;
+
+  private final ImmutableMap<String, Package> packages;
+  private final ImmutableSetMultimap<String, JavadocClass> classes;
+  private final ImmutableList<JavadocClass> allClasses;
+  private final ClassIndex classIndex;
+  private final ImmutableMap<String, MethodIndex> declaredMethods;
+  private final ImmutableSet<String> declaredMemberNames;
+  // null if the members are not known up front
+  private final BloomFilter<CharSequence> memberNames;
+
+  private JavadocIndex(Builder builder) {
+    this.packages = ImmutableMap.copyOf(builder.packages);
+
+    ImmutableSetMultimap.Builder<String, JavadocClass> classesBuilder = ImmutableSetMultimap
+        .builder();
+    for (JavadocClass javadocClass : builder.classes.values()) {
+      classesBuilder.put(javadocClass.getName(), javadocClass);
+    }
+    this.classes = classesBuilder.build();
+    this.allClasses = ImmutableList.copyOf(classes.values());
+    this.classIndex = new ClassIndex(allClasses);
+
+    ImmutableMap.Builder<String, MethodIndex> declaredMethodsBuilder = ImmutableMap.builder();
+    for (Entry<String, Collection<JavadocMethod>> entry : builder.declaredMethods.asMap()
+        .entrySet()) {
+      declaredMethodsBuilder.put(entry.getKey(), new MethodIndex(entry.getValue()));
+    }
+    this.declaredMethods = declaredMethodsBuilder.build();
+
+    ImmutableSet.Builder<String> declaredMemberNamesBuilder = ImmutableSet.builder();
+    for (JavadocMethod method : builder.declaredMethods.values()) {
+      declaredMemberNamesBuilder.add(method.getName());
+    }
+    this.declaredMemberNames = declaredMemberNamesBuilder.build();
+
+    if (declaredMemberNames.isEmpty()) {
+      this.memberNames = null;
+    } else {
+      this.memberNames = BloomFilter.create(
+          Funnels.stringFunnel(), declaredMemberNames.size(), MEMBER_NAME_FALSE_POSITIVES
+      );
+      for (String name : declaredMemberNames) {
+        memberNames.put(name);
+      }
+    }
+  }
+
+  /**
+   * @param name The fully qualified name of the package
+   * @return The package or null if not found
+   */
+  Package getPackage(String name) {
+    return packages.get(name);
+  }
+
+  /**
+   * @return All packages
+   */
+  ImmutableList<Package> getPackages() {
+    return packages.values().asList();
+  }
+
+  /**
+   * @param name The name of the class
+   * @return All classes with exactly that name
+   */
+  ImmutableList<JavadocClass> getClassesExact(String name) {
+    return classes.get(name).asList();
+  }
+
+  /**
+   * @return All classes
+   */
+  ImmutableList<JavadocClass> getClasses() {
+    return allClasses;
+  }
+
+  /**
+   * @return The {@link ClassIndex} for suffix lookups
+   */
+  ClassIndex getClassIndex() {
+    return classIndex;
+  }
+
+  /**
+   * @param javadocClass The class
+   * @return The declared methods of the class if known from the search index, an empty index
+   * otherwise
+   */
+  MethodIndex getDeclaredMethods(JavadocClass javadocClass) {
+    return declaredMethods.getOrDefault(javadocClass.getUrl(), MethodIndex.EMPTY);
+  }
+
+  /**
+   * @return The declared methods of all classes, if known from the search index
+   */
+  ImmutableCollection<MethodIndex> getAllDeclaredMethods() {
+    return declaredMethods.values();
+  }
+
+  /**
+   * @return The names of all declared methods, if known from the search index
+   */
+  ImmutableSet<String> getDeclaredMemberNames() {
+    return declaredMemberNames;
+  }
+
+  /**
+   * Checks whether any class could have a member with the given name. Inherited methods are only
+   * resolved against indexed classes, so a name no indexed class declares can not be found at all.
+   *
+   * @param name The name of the member
+   * @return False if no class has a member with that name. True if one might, or if the members
+   * are not known up front.
+   */
+  boolean mightContainMember(String name) {
+    return memberNames == null || memberNames.mightContain(name);
+  }
+
+  /**
+   * A mutable builder for a generation. Not thread safe.
+   */
+  static class Builder {
+
+    private final Map<String, Package> packages = new HashMap<>();
+    // keyed by the url, as a class has no stable hash code
+    private final Map<String, JavadocClass> classes = new LinkedHashMap<>();
+    private ImmutableListMultimap<String, JavadocMethod> declaredMethods = ImmutableListMultimap
+        .of();
+
+    /**
+     * @param aPackage The package to add
+     * @return This builder
+     */
+    Builder addPackage(Package aPackage) {
+      packages.put(aPackage.getName(), aPackage);
+      return this;
+    }
+
+    /**
+     * @param name The fully qualified name of the package
+     * @return The added package or null if not found
+     */
+    Package getPackage(String name) {
+      return packages.get(name);
+    }
+
+    /**
+     * @param javadocClass The class to add
+     * @return This builder
+     */
+    Builder addClass(JavadocClass javadocClass) {
+      classes.put(javadocClass.getUrl(), javadocClass);
+      return this;
+    }
+
+    /**
+     * @param declaredMethods The declared methods, keyed by the url of their class
+     * @return This builder
+     */
+    Builder setDeclaredMethods(ImmutableListMultimap<String, JavadocMethod> declaredMethods) {
+      this.declaredMethods = declaredMethods;
+      return this;
+    }
+
+    /**
+     * @return The built {@link JavadocIndex}
+     */
+    JavadocIndex build() {
+      return new JavadocIndex(this);
+    }
+  }
+}
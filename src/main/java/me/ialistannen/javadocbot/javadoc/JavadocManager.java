@@ -1,43 +1,75 @@
 package me.ialistannen.javadocbot.javadoc;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.AtomicLongMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import me.ialistannen.javadocbot.javadoc.IndexSnapshot.ClassEntry;
+import me.ialistannen.javadocbot.javadoc.IndexSnapshot.PackageEntry;
 import me.ialistannen.javadocbot.javadoc.model.ClassNameCollection;
 import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocElement;
 import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
 import me.ialistannen.javadocbot.javadoc.model.Package;
 import me.ialistannen.javadocbot.javadoc.parsing.AllClassParser;
 import me.ialistannen.javadocbot.javadoc.parsing.AllPackageParser;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPageParser;
 import me.ialistannen.javadocbot.javadoc.parsing.ClassParser;
 import me.ialistannen.javadocbot.javadoc.parsing.MethodParser;
 import me.ialistannen.javadocbot.javadoc.parsing.PackageParser;
-import me.ialistannen.javadocbot.util.ArrayUtil;
-import me.ialistannen.javadocbot.util.ListUtil;
-import me.ialistannen.javadocbot.util.Pair;
+import me.ialistannen.javadocbot.javadoc.parsing.SearchIndexParser;
+import me.ialistannen.javadocbot.javadoc.parsing.SearchIndexParser.SearchIndex;
+import me.ialistannen.javadocbot.javadoc.parsing.TypeHierarchy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Manages the retrieval of Javadoc
+ * <p>
+ * This class is thread safe.
  */
 public class JavadocManager {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(JavadocManager.class);
+
+  private static final long NEGATIVE_CACHE_SIZE = 10_000;
+
   private JavadocSettings settings;
 
   private PackageParser packageParser;
+  private ClassPageParser classPageParser;
   private ClassParser classParser;
   private MethodParser methodParser;
 
-  private Map<String, Package> packageMap = new HashMap<>();
-  private Multimap<String, JavadocClass> classMap = HashMultimap.create();
+  private final AtomicReference<Generation> generation;
+  private final AtomicReference<CompletionIndex> completions = new AtomicReference<>(
+      CompletionIndex.EMPTY
+  );
+  private final AtomicReference<FuzzyIndex> suggestions = new AtomicReference<>(FuzzyIndex.EMPTY);
+  // lookups per qualified class name and member name, used to rank completions
+  private final AtomicLongMap<String> popularity = AtomicLongMap.create();
+
+  // keyed by the url of the class, as a class has no stable hash code
+  private final Cache<String, MethodIndex> methodCache;
+  private final LoadingCache<String, JavadocQuery> queryCache;
+  // "<class url>#<member name>" of lookups that found nothing
+  private final Cache<String, Boolean> missingMembers;
 
   /**
    * Uses the default {@link JavadocSettings}
@@ -52,33 +84,198 @@ public class JavadocManager {
   public JavadocManager(JavadocSettings settings) {
     this.settings = settings;
     packageParser = new PackageParser(this.settings);
-    classParser = new ClassParser(this.settings);
-    methodParser = new MethodParser(this.settings, this);
+    classPageParser = new ClassPageParser(this.settings);
+    classParser = new ClassParser(classPageParser);
+    methodParser = new MethodParser(this.settings, this, classPageParser);
+    generation = new AtomicReference<>(new Generation(
+        JavadocIndex.EMPTY, new TextIndex(settings.getTextIndexMaxDocuments()), new MemberIndex()
+    ));
+
+    methodCache = CacheBuilder.newBuilder()
+        .maximumSize(settings.getMethodCacheSize())
+        .build();
+    queryCache = CacheBuilder.newBuilder()
+        .maximumSize(settings.getQueryCacheSize())
+        .build(new CacheLoader<String, JavadocQuery>() {
+          @Override
+          public JavadocQuery load(String query) {
+            return JavadocQuery.parse(query);
+          }
+        });
+    missingMembers = CacheBuilder.newBuilder()
+        .maximumSize(NEGATIVE_CACHE_SIZE)
+        .expireAfterWrite(settings.getNegativeCacheTtlMillis(), TimeUnit.MILLISECONDS)
+        .build();
   }
 
   /**
    * Indexes all classes
+   * <p>
+   * If an index snapshot file is set in the {@link JavadocSettings}, the index is loaded from it.
+   * If the snapshot is missing or stale, the javadoc is indexed and a new snapshot is written.
+   * <p>
+   * If {@link JavadocSettings#isUseSearchIndex()} is set, the search index files are read instead.
+   * <p>
+   * The new index is built off to the side and then published atomically. Queries running in the
+   * meantime keep using the previous index, so you can safely re-index while serving requests.
+   * The cached methods and class pages belong to the previous index and are dropped.
    */
   @SuppressWarnings({"unused", "WeakerAccess"})
   public void index() {
-    AllClassParser allClassParser = new AllClassParser();
-    AllPackageParser allPackageParser = new AllPackageParser(packageParser);
+    JavadocIndex.Builder builder = new JavadocIndex.Builder();
+    boolean writeSnapshot = false;
+
+    Path snapshotFile = settings.getIndexSnapshotFile();
+    if (settings.isUseSearchIndex()) {
+      indexFromSearchIndex(builder);
+    } else if (snapshotFile == null) {
+      indexLive(builder);
+    } else {
+      Optional<IndexSnapshot> snapshot = IndexSnapshot.read(
+          snapshotFile, settings.getBaseUrl(), settings.getIndexSnapshotMaxAgeMillis()
+      );
+      if (snapshot.isPresent()) {
+        indexFromSnapshot(builder, snapshot.get());
+      } else {
+        indexLive(builder);
+        writeSnapshot = true;
+      }
+    }
+
+    JavadocIndex javadocIndex = builder.build();
+    if (writeSnapshot) {
+      writeSnapshot(snapshotFile, javadocIndex);
+    }
+    generation.set(newGeneration(javadocIndex));
+    // the cached methods and pages refer to the classes of the previous index
+    methodCache.invalidateAll();
+    classPageParser.invalidateAll();
+    methodParser.invalidateAll();
+    missingMembers.invalidateAll();
+    refreshCompletions();
+  }
+
+  /**
+   * Builds the full text and member index with what the new index knows up front. Methods loaded
+   * later are added as they are loaded.
+   *
+   * @param javadocIndex The index to take the packages and declared methods from
+   * @return The new {@link Generation}
+   */
+  private Generation newGeneration(JavadocIndex javadocIndex) {
+    TextIndex newTextIndex = new TextIndex(settings.getTextIndexMaxDocuments());
+    MemberIndex newMemberIndex = new MemberIndex();
+    for (Package aPackage : javadocIndex.getPackages()) {
+      newTextIndex.add(aPackage, aPackage.getShortDescription());
+    }
+    // their summaries are only known once the pages of their classes are loaded
+    for (MethodIndex methodIndex : javadocIndex.getAllDeclaredMethods()) {
+      newMemberIndex.addAll(methodIndex.getMethods());
+    }
+    return new Generation(javadocIndex, newTextIndex, newMemberIndex);
+  }
+
+  /**
+   * Adds the summaries and declared methods of freshly loaded methods, unless a re-index replaced
+   * the generation they were loaded for in the meantime.
+   *
+   * @param loadedFor The {@link Generation} that was current when the load started
+   * @param methods The methods
+   * @return False if the generation is no longer current and nothing was added
+   */
+  private boolean addMethods(Generation loadedFor, Collection<JavadocMethod> methods) {
+    if (generation.get() != loadedFor) {
+      return false;
+    }
+    for (JavadocMethod method : methods) {
+      loadedFor.textIndex.add(method, method.getShortDescription());
+    }
+    loadedFor.memberIndex.addAll(methods);
+    return true;
+  }
+
+  /**
+   * Indexes all classes by parsing the overview pages
+   *
+   * @param builder The {@link JavadocIndex.Builder} to add them to
+   */
+  private void indexLive(JavadocIndex.Builder builder) {
+    AllClassParser allClassParser = new AllClassParser(settings.getPageSource());
+    AllPackageParser allPackageParser = new AllPackageParser(
+        packageParser, settings.getPageSource()
+    );
     ClassNameCollection allClasses = allClassParser.parse(settings.getBaseUrl());
 
     for (Package aPackage : allPackageParser.parse(settings.getBaseUrl())) {
-      packageMap.put(aPackage.getName(), aPackage);
+      builder.addPackage(aPackage);
     }
 
     for (Entry<String, Collection<String>> entry : allClasses) {
       for (String classUrl : entry.getValue()) {
         String packageName = packageParser.getNameFromLink(classUrl);
-        Package aPackage = packageMap.get(packageName);
-        JavadocClass javadocClass = classParser.parse(aPackage, entry.getKey(), classUrl);
-        classMap.put(javadocClass.getName(), javadocClass);
+        Package aPackage = builder.getPackage(packageName);
+        builder.addClass(classParser.parse(aPackage, entry.getKey(), classUrl));
       }
     }
   }
 
+  /**
+   * Indexes all classes and their declared methods using the search index files
+   *
+   * @param builder The {@link JavadocIndex.Builder} to add them to
+   */
+  private void indexFromSearchIndex(JavadocIndex.Builder builder) {
+    SearchIndex searchIndex = new SearchIndexParser(
+        settings, packageParser, classParser, methodParser
+    ).parse(settings.getBaseUrl());
+
+    for (Package aPackage : searchIndex.getPackages()) {
+      builder.addPackage(aPackage);
+    }
+    for (JavadocClass javadocClass : searchIndex.getClasses()) {
+      builder.addClass(javadocClass);
+    }
+    builder.setDeclaredMethods(searchIndex.getMethods());
+  }
+
+  /**
+   * Indexes all classes using the data of a snapshot
+   *
+   * @param builder The {@link JavadocIndex.Builder} to add them to
+   * @param snapshot The {@link IndexSnapshot} to read it from
+   */
+  private void indexFromSnapshot(JavadocIndex.Builder builder, IndexSnapshot snapshot) {
+    for (PackageEntry entry : snapshot.getPackages()) {
+      Package aPackage = new Package(
+          entry.getName(), entry.getUrl(), entry.getShortDescription(), packageParser
+      );
+      builder.addPackage(aPackage);
+    }
+
+    for (ClassEntry entry : snapshot.getClasses()) {
+      Package aPackage = builder.getPackage(entry.getPackageName());
+      builder.addClass(classParser.parse(aPackage, entry.getName(), entry.getUrl()));
+    }
+  }
+
+  /**
+   * Writes the current index to a snapshot. Failures are only logged, as the index itself is
+   * fine.
+   *
+   * @param snapshotFile The file to write the snapshot to
+   * @param javadocIndex The index to write
+   */
+  private void writeSnapshot(Path snapshotFile, JavadocIndex javadocIndex) {
+    try {
+      IndexSnapshot.write(
+          snapshotFile, settings.getBaseUrl(),
+          javadocIndex.getPackages(), javadocIndex.getClasses()
+      );
+    } catch (IOException e) {
+      LOGGER.warn("Couldn't write the index snapshot", e);
+    }
+  }
+
   /**
    * Returns all classes with the exact given name.
    * <p>
@@ -89,7 +286,7 @@ public class JavadocManager {
    */
   @SuppressWarnings("unused")
   public List<JavadocClass> getClassesExact(String name) {
-    return new ArrayList<>(classMap.get(name));
+    return new ArrayList<>(generation.get().index.getClassesExact(name));
   }
 
   /**
@@ -101,14 +298,7 @@ public class JavadocManager {
    * @return Any class ending in that sequence, including package names
    */
   public List<JavadocClass> getClassEndingIn(String name) {
-    String className = ArrayUtil.getLast(name.split("\\."));
-    return getAllClasses().stream()
-        .filter(javadocClass -> javadocClass.getName().equalsIgnoreCase(className))
-        .filter(javadocClass ->
-            (javadocClass.getParentPackage().getName() + "." + javadocClass.getName())
-                .endsWith(name)
-        )
-        .collect(Collectors.toList());
+    return generation.get().index.getClassIndex().getClassEndingIn(name);
   }
 
   /**
@@ -118,7 +308,7 @@ public class JavadocManager {
    */
   @SuppressWarnings("WeakerAccess")
   public List<JavadocClass> getAllClasses() {
-    return new ArrayList<>(classMap.values());
+    return new ArrayList<>(generation.get().index.getClasses());
   }
 
   /**
@@ -129,7 +319,7 @@ public class JavadocManager {
    */
   @SuppressWarnings("unused")
   public Optional<Package> getPackage(String name) {
-    return Optional.ofNullable(packageMap.get(name));
+    return Optional.ofNullable(generation.get().index.getPackage(name));
   }
 
   /**
@@ -139,7 +329,7 @@ public class JavadocManager {
    */
   @SuppressWarnings("unused")
   public List<Package> getAllPackages() {
-    return new ArrayList<>(packageMap.values());
+    return new ArrayList<>(generation.get().index.getPackages());
   }
 
   /**
@@ -151,22 +341,8 @@ public class JavadocManager {
    */
   @SuppressWarnings("WeakerAccess")
   public List<JavadocMethod> getMethodsWithNameAndParam(JavadocClass javadocClass, String name) {
-    Collection<String> parameters = getParameters(name);
-    String methodName = name.replaceAll("\\(.+\\)", "");
-    List<JavadocMethod> methodsWithName = getAllMethods(javadocClass).stream()
-        .filter(javadocMethod -> javadocMethod.getName().equals(methodName))
-        .collect(Collectors.toList());
-
-    Optional<JavadocMethod> exactMatch = findExactMatch(methodsWithName, parameters);
-
-    return exactMatch.map(Arrays::asList).orElse(methodsWithName);
-  }
-
-  private Optional<JavadocMethod> findExactMatch(Collection<JavadocMethod> methods,
-      Collection<String> parameters) {
-    return methods.stream()
-        .filter(javadocMethod -> hasMatchingParameters(parameters, javadocMethod))
-        .findAny();
+    // without parameters an overload without any is preferred
+    return findMethods(javadocClass, parseQuery("#" + name), true);
   }
 
   /**
@@ -178,18 +354,430 @@ public class JavadocManager {
    */
   @SuppressWarnings("unused")
   public List<JavadocMethod> getMethodsWithName(JavadocClass javadocClass, String name) {
-    return getMethodsWithNameAndParam(javadocClass, name.replaceAll("\\(.+\\)", ""));
+    return getMethodsWithNameAndParam(javadocClass, parseQuery("#" + name).getMemberName());
+  }
+
+  /**
+   * Parses a query like {@code java.util.Map.Entry#comparingByKey()}. Recently parsed queries are
+   * cached, so repeating a query costs a single lookup.
+   *
+   * @param query The query to parse
+   * @return The parsed {@link JavadocQuery}
+   * @see JavadocQuery
+   */
+  @SuppressWarnings("WeakerAccess")
+  public JavadocQuery parseQuery(String query) {
+    return queryCache.getUnchecked(Objects.requireNonNull(query, "query can not be null!"));
+  }
+
+  /**
+   * Returns all classes matching the class part of the query.
+   *
+   * @param query The {@link JavadocQuery} to execute
+   * @return All matching classes. Empty if the query names no class.
+   * @see #getClassEndingIn(String)
+   */
+  @SuppressWarnings("WeakerAccess")
+  public List<JavadocClass> findClasses(JavadocQuery query) {
+    if (!query.hasClass()) {
+      return Collections.emptyList();
+    }
+    List<JavadocClass> classes = generation.get().index.getClassIndex()
+        .getClassEndingIn(query.getClassName());
+    for (JavadocClass javadocClass : classes) {
+      popularity.incrementAndGet(CompletionIndex.qualifiedName(javadocClass));
+    }
+    return classes;
+  }
+
+  /**
+   * Returns all methods matching the query, in all matching classes.
+   * <p>
+   * If the query has a parameter list, only the overload matching it is returned per class, if
+   * there is one. Otherwise all overloads are returned.
+   * <p>
+   * A query without a class, like {@code #computeIfAbsent}, is answered from a global index of
+   * the declared methods of all classes with a single lookup. That index knows all methods if the
+   * search index is used. Otherwise it knows the methods of the classes that were crawled or
+   * whose methods were loaded so far, so {@link #crawl(int, int, CrawlListener)} first.
+   * <p>
+   * With the search index, declared methods and their overloads are resolved without fetching the
+   * class page. Their declaration and summary are loaded from it when first needed, only for the
+   * methods returned. Overloads inherited from a supertype are only found if the query names
+   * parameters no declared overload matches, or once the methods of the class are loaded.
+   *
+   * @param query The {@link JavadocQuery} to execute
+   * @return All matching methods. Empty if the query names no member.
+   */
+  @SuppressWarnings("WeakerAccess")
+  public List<JavadocMethod> findMethods(JavadocQuery query) {
+    if (!query.hasMember()) {
+      return Collections.emptyList();
+    }
+    List<JavadocMethod> result = new ArrayList<>();
+    if (query.hasClass()) {
+      for (JavadocClass javadocClass : findClasses(query)) {
+        result.addAll(findMethods(javadocClass, query, query.hasParameterList()));
+      }
+    } else {
+      result.addAll(generation.get().memberIndex.find(query));
+    }
+    if (!result.isEmpty()) {
+      popularity.incrementAndGet(query.getMemberName());
+    }
+    return result;
+  }
+
+  /**
+   * Returns the methods returning the given type, in all classes, without any web request.
+   * <p>
+   * The same methods as for class-less queries are known, see {@link #findMethods(JavadocQuery)}.
+   * Only the type itself matches, neither its subtypes nor arrays of it.
+   *
+   * @param type The type, e.g. {@code Stream} or {@code java.util.stream.Stream<T>}. The package
+   * and type arguments are ignored.
+   * @return All known methods returning the type
+   */
+  @SuppressWarnings("unused")
+  public List<JavadocMethod> findMethodsReturning(String type) {
+    Objects.requireNonNull(type, "type can not be null!");
+    return generation.get().memberIndex.findReturning(type);
+  }
+
+  /**
+   * Returns the methods with a parameter of the given type, in all classes, without any web
+   * request.
+   *
+   * @param type The type, e.g. {@code Collection}. The package and type arguments are ignored.
+   * @return All known methods accepting the type
+   * @see #findMethodsReturning(String)
+   */
+  @SuppressWarnings("unused")
+  public List<JavadocMethod> findMethodsAccepting(String type) {
+    Objects.requireNonNull(type, "type can not be null!");
+    return generation.get().memberIndex.findAccepting(type);
+  }
+
+  /**
+   * Completes a class name, e.g. for autocompletion while the user is typing.
+   * <p>
+   * This only reads an immutable prefix index and is cheap enough to be called on every
+   * keystroke. Completions are ranked by how often the class was looked up using
+   * {@link #findClasses(JavadocQuery)} or {@link #findMethods(JavadocQuery)}, then by length.
+   *
+   * @param prefix The prefix of the simple or qualified name, case insensitive
+   * @param limit The maximum amount of completions
+   * @return The qualified names of the best matching classes, best first
+   * @see #refreshCompletions()
+   */
+  @SuppressWarnings("unused")
+  public List<String> completeClass(String prefix, int limit) {
+    return completions.get().completeClass(prefix, limit);
+  }
+
+  /**
+   * Completes a member name, e.g. for autocompletion while the user is typing.
+   * <p>
+   * Member names are known up front if the search index is used. Otherwise only those of classes
+   * whose methods were loaded when the completions were last refreshed are known.
+   *
+   * @param prefix The prefix of the member name, case insensitive
+   * @param limit The maximum amount of completions
+   * @return The best matching member names, best first
+   * @see #completeClass(String, int)
+   */
+  @SuppressWarnings("unused")
+  public List<String> completeMember(String prefix, int limit) {
+    return completions.get().completeMember(prefix, limit);
+  }
+
+  /**
+   * Suggests classes with a name similar to the given one, e.g. because the user misspelled it
+   * and {@link #getClassEndingIn(String)} found nothing.
+   * <p>
+   * Only names within a small edit distance (depending on the length) are suggested. Case is
+   * ignored, so {@code Hashmap} suggests {@code java.util.HashMap} first.
+   *
+   * @param name The name of the class. Only the part after the last dot is used.
+   * @param limit The maximum amount of suggestions
+   * @return The qualified names of the closest classes, closest first
+   */
+  @SuppressWarnings("unused")
+  public List<String> suggestClasses(String name, int limit) {
+    return suggestions.get().suggestClass(name, limit, popularity);
+  }
+
+  /**
+   * Suggests member names similar to the given one, e.g. because the user misspelled it.
+   * <p>
+   * The same member names as for {@link #completeMember(String, int)} are known.
+   *
+   * @param name The name of the member
+   * @param limit The maximum amount of suggestions
+   * @return The closest member names, closest first
+   * @see #suggestClasses(String, int)
+   */
+  @SuppressWarnings("unused")
+  public List<String> suggestMembers(String name, int limit) {
+    return suggestions.get().suggestMember(name, limit, popularity);
+  }
+
+  /**
+   * Rebuilds the completion and suggestion indices, so they reflect the current popularity of
+   * classes and members and include the members of all classes whose methods were loaded by now.
+   * <p>
+   * This is done by {@link #index()} and {@link #crawl(int, int, CrawlListener)}. Call it
+   * periodically if you want the ranking to follow the lookups in between.
+   */
+  @SuppressWarnings("WeakerAccess")
+  public void refreshCompletions() {
+    JavadocIndex javadocIndex = generation.get().index;
+    Set<String> memberNames = new HashSet<>(javadocIndex.getDeclaredMemberNames());
+    for (MethodIndex methodIndex : methodCache.asMap().values()) {
+      memberNames.addAll(methodIndex.getNames());
+    }
+    completions.set(new CompletionIndex(javadocIndex.getClasses(), memberNames, popularity));
+    suggestions.set(new FuzzyIndex(javadocIndex.getClasses(), memberNames));
+  }
+
+  /**
+   * Searches the summaries of packages, methods and classes for the given words, e.g.
+   * {@code "base64 encoder"}. Results are ranked with BM25, so rare words weigh more.
+   * <p>
+   * Package summaries are known after {@link #index()} if the overview pages are parsed. Method
+   * summaries become known as the methods of their class are loaded. Class summaries (the first
+   * sentence of the description) only become known by {@link #crawl(int, int, CrawlListener)}.
+   *
+   * @param text The words to search for. Case and formatting are ignored.
+   * @param limit The maximum amount of results
+   * @return The matching {@link Package}s, {@link JavadocClass}es and {@link JavadocMethod}s,
+   * best first
+   */
+  @SuppressWarnings("unused")
+  public List<JavadocElement> searchSummaries(String text, int limit) {
+    Objects.requireNonNull(text, "text can not be null!");
+    return generation.get().textIndex.search(text, limit);
+  }
+
+  /**
+   * Parses and executes a query.
+   *
+   * @param query The query, like {@code String#format(String, Object...)}
+   * @return All matching methods
+   * @see #parseQuery(String)
+   * @see #findMethods(JavadocQuery)
+   */
+  @SuppressWarnings("unused")
+  public List<JavadocMethod> findMethods(String query) {
+    return findMethods(parseQuery(query));
+  }
+
+  /**
+   * @param javadocClass The class to search in
+   * @param query The query
+   * @param matchParameters Whether to return only the overload matching the parameters, if any
+   * @return The matching methods
+   */
+  private List<JavadocMethod> findMethods(JavadocClass javadocClass, JavadocQuery query,
+      boolean matchParameters) {
+    String methodName = query.getMemberName();
+    if (isKnownMiss(javadocClass, methodName)) {
+      return new ArrayList<>();
+    }
+
+    MethodIndex methodIndex = methodCache.getIfPresent(javadocClass.getUrl());
+    if (methodIndex == null) {
+      List<JavadocMethod> declared = findDeclaredMethods(javadocClass, query, matchParameters);
+      if (!declared.isEmpty()) {
+        return new ArrayList<>(declared);
+      }
+      methodIndex = getMethodIndex(javadocClass);
+    }
+
+    if (matchParameters) {
+      Optional<JavadocMethod> exactMatch = methodIndex.findExactMatch(query);
+      if (exactMatch.isPresent()) {
+        return Collections.singletonList(exactMatch.get());
+      }
+    }
+    List<JavadocMethod> methods = methodIndex.getMethodsWithName(methodName);
+    if (methods.isEmpty()) {
+      missingMembers.put(missKey(javadocClass, methodName), Boolean.TRUE);
+    }
+    return new ArrayList<>(methods);
+  }
+
+  /**
+   * Resolves the query against the declared methods from the search index, without the class
+   * page.
+   *
+   * @param javadocClass The class to search in
+   * @param query The query
+   * @param matchParameters Whether to return only the overload matching the parameters, if any
+   * @return The matching methods. Empty if the methods of the class need to be loaded, as the
+   * member might be inherited.
+   */
+  private List<JavadocMethod> findDeclaredMethods(JavadocClass javadocClass, JavadocQuery query,
+      boolean matchParameters) {
+    MethodIndex declared = generation.get().index.getDeclaredMethods(javadocClass);
+    if (matchParameters) {
+      Optional<JavadocMethod> exactMatch = declared.findExactMatch(query);
+      if (exactMatch.isPresent()) {
+        return Collections.singletonList(exactMatch.get());
+      }
+    }
+    // an inherited overload might match the parameters
+    if (query.hasParameterList()) {
+      return Collections.emptyList();
+    }
+    return declared.getMethodsWithName(query.getMemberName());
+  }
+
+  /**
+   * Checks whether the member is known to not exist in the class, without loading its methods.
+   * That is the case if no class has a member with that name or if the lookup failed recently.
+   *
+   * @param javadocClass The class
+   * @param memberName The name of the member
+   * @return True if the member does not exist
+   */
+  private boolean isKnownMiss(JavadocClass javadocClass, String memberName) {
+    return !generation.get().index.mightContainMember(memberName)
+        || missingMembers.getIfPresent(missKey(javadocClass, memberName)) != null;
+  }
+
+  private static String missKey(JavadocClass javadocClass, String memberName) {
+    return javadocClass.getUrl() + "#" + memberName;
+  }
+
+  /**
+   * Checks whether the page of the class is needed to resolve the member of the query, i.e. its
+   * methods are not cached, the member is not a known miss and it is not resolved by the search
+   * index.
+   *
+   * @param javadocClass The class
+   * @param query The query naming a member
+   * @return True if the page of the class is needed
+   */
+  boolean needsClassPage(JavadocClass javadocClass, JavadocQuery query) {
+    return needsClassPage(javadocClass)
+        && !isKnownMiss(javadocClass, query.getMemberName())
+        && findDeclaredMethods(javadocClass, query, true).isEmpty();
+  }
+
+  /**
+   * @param javadocClass The class
+   * @return True if the methods of the class are not cached, so loading them needs its page
+   */
+  boolean needsClassPage(JavadocClass javadocClass) {
+    return methodCache.getIfPresent(javadocClass.getUrl()) == null;
   }
 
   /**
    * Returns all methods for the class
+   * <p>
+   * The methods are only parsed once per class and then cached. Concurrent calls for the same
+   * class share the same computation.
    *
    * @param javadocClass The class to get the methods for
-   * @return All methods for the class
+   * @return All methods for the class. A shallow clone of the cached list.
+   * @throws RuntimeException if an error occurred while parsing the methods
    */
   @SuppressWarnings("WeakerAccess")
   public List<JavadocMethod> getAllMethods(JavadocClass javadocClass) {
-    return methodParser.getMethods(javadocClass);
+    return new ArrayList<>(getMethodIndex(javadocClass).getMethods());
+  }
+
+  /**
+   * Returns the cached, immutable method table of the class.
+   *
+   * @param javadocClass The class to get the methods for
+   * @return The {@link MethodIndex} with all methods for the class
+   * @throws RuntimeException if an error occurred while parsing the methods
+   */
+  private MethodIndex getMethodIndex(JavadocClass javadocClass) {
+    try {
+      return methodCache.get(javadocClass.getUrl(), () -> {
+        Generation loadedFor = generation.get();
+        List<JavadocMethod> methods = methodParser.getMethods(javadocClass);
+        addMethods(loadedFor, methods);
+        return new MethodIndex(methods);
+      });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Error while parsing the methods", e.getCause());
+    }
+  }
+
+  /**
+   * Crawls all classes ahead of time. Afterwards the declarations, descriptions and methods of all
+   * classes are known and queries need no web request.
+   * <p>
+   * This blocks until the crawl is done, so you probably want to call it on a separate thread.
+   * Classes that fail to be crawled are skipped and will be loaded lazily, like before.
+   * <p>
+   * Make sure the {@link JavadocSettings#getMethodCacheSize()} is large enough to hold the methods
+   * of all classes.
+   *
+   * @param fetchThreads The amount of threads fetching pages. As this is I/O bound, it can be
+   * higher than the amount of cores.
+   * @param cpuThreads The amount of threads used for parsing the pages and converting them to
+   * markdown, each
+   * @param listener The {@link CrawlListener} to notify about the progress
+   * @return The final {@link CrawlProgress}
+   * @throws InterruptedException if the thread was interrupted. The crawl is cancelled then.
+   */
+  @SuppressWarnings("unused")
+  public CrawlProgress crawl(int fetchThreads, int cpuThreads, CrawlListener listener)
+      throws InterruptedException {
+    Generation crawled = generation.get();
+    JavadocCrawler crawler = new JavadocCrawler(
+        settings, classPageParser, methodParser,
+        (javadocClass, methods) -> {
+          // a re-index during the crawl replaced the classes
+          if (!addMethods(crawled, methods)) {
+            return;
+          }
+          // preloaded by the crawl, unless the page had none
+          String description = javadocClass.getDescriptionIfLoaded();
+          if (description != null) {
+            crawled.textIndex.add(javadocClass, TextIndex.firstSentence(description));
+          }
+          methodCache.put(javadocClass.getUrl(), new MethodIndex(methods));
+        }
+    );
+    CrawlProgress progress = crawler.crawl(
+        crawled.index.getClasses(), fetchThreads, cpuThreads, listener
+    );
+    refreshCompletions();
+    return progress;
+  }
+
+  /**
+   * Returns the supertype relations between the classes. It is filled as the methods of classes
+   * are parsed, so {@link #crawl(int, int, CrawlListener)} first if you need all of them.
+   *
+   * @return The {@link TypeHierarchy} of the current index
+   */
+  @SuppressWarnings("unused")
+  public TypeHierarchy getTypeHierarchy() {
+    return methodParser.getTypeHierarchy();
+  }
+
+  /**
+   * @return The {@link ClassPageParser} used by this manager
+   */
+  ClassPageParser getClassPageParser() {
+    return classPageParser;
+  }
+
+  /**
+   * @return The {@link MethodParser} used by this manager
+   */
+  MethodParser getMethodParser() {
+    return methodParser;
   }
 
   /**
@@ -207,42 +795,33 @@ public class JavadocManager {
    */
   @SuppressWarnings("unused")
   public void resetCache() {
-    packageMap.clear();
-    classMap.clear();
+    generation.set(new Generation(
+        JavadocIndex.EMPTY, new TextIndex(settings.getTextIndexMaxDocuments()), new MemberIndex()
+    ));
+    methodCache.invalidateAll();
+    classPageParser.invalidateAll();
+    settings.getDocumentCache().invalidateAll();
+    methodParser.invalidateAll();
+    missingMembers.invalidateAll();
+    completions.set(CompletionIndex.EMPTY);
+    suggestions.set(FuzzyIndex.EMPTY);
+    popularity.clear();
   }
 
   /**
-   * @param methodName The name of the method, the user entered
-   * @return All parameters the user entered
+   * An index together with the full text and member index built for it. Published as a whole, so
+   * methods loaded for a previous index never end up in the indices of the current one.
    */
-  private List<String> getParameters(String methodName) {
-    if (!methodName.contains("(")) {
-      return Collections.emptyList();
-    }
-    String parameters = methodName.substring(methodName.indexOf("(") + 1);
-    parameters = parameters.replace(")", "");
-    return Arrays.stream(parameters.split(","))
-        .map(String::trim)
-        .collect(Collectors.toList());
-  }
+  private static class Generation {
 
-  /**
-   * Checks if the parameters match
-   *
-   * @param userEntered The parameters the user entered
-   * @param method The method to check
-   * @return True if the parameters match
-   */
-  private boolean hasMatchingParameters(Collection<String> userEntered, JavadocMethod method) {
-    List<Pair<String, String>> parameters = method.getParameters();
-    if (parameters.size() != userEntered.size()) {
-      return false;
-    }
-    for (String s : userEntered) {
-      if (!ListUtil.contains(parameters, s, Pair::getKey)) {
-        return false;
-      }
+    private final JavadocIndex index;
+    private final TextIndex textIndex;
+    private final MemberIndex memberIndex;
+
+    Generation(JavadocIndex index, TextIndex textIndex, MemberIndex memberIndex) {
+      this.index = index;
+      this.textIndex = textIndex;
+      this.memberIndex = memberIndex;
     }
-    return true;
   }
 }
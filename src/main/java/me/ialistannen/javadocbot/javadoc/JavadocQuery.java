@@ -0,0 +1,294 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import me.ialistannen.javadocbot.util.StringUtil;
+
+/**
+ * A parsed reference to a class or a member, like {@code java.util.Map.Entry#comparingByKey()}.
+ * <p>
+ * The supported syntax is {@code [package.]Class[.Nested][#member[(Type, Type...)]]}. Type
+ * arguments, annotations, parameter names and whitespace are ignored, so
+ * {@code List<String>#add(int index, E element)} is the same as {@code List#add(int,E)}. Without
+ * a {@code #}, a trailing {@code .member(...)} is read as the member, if it has parentheses.
+ * {@code #member} alone has no class.
+ * <p>
+ * Queries are immutable and can be reused. Use {@link JavadocManager#parseQuery(String)} to get
+ * cached instances and {@link JavadocManager#findClasses(JavadocQuery)} or
+ * {@link JavadocManager#findMethods(JavadocQuery)} to execute them.
+ */
+public final class JavadocQuery {
+
+  private final String className;
+  private final String memberName;
+  private final ImmutableList<String> parameterTypes;
+  private final boolean parameterList;
+
+  private final String signatureKey;
+  private final String unorderedSignatureKey;
+
+  private JavadocQuery(String className, String memberName, List<String> parameterTypes,
+      boolean parameterList) {
+    this.className = className;
+    this.memberName = memberName;
+    this.parameterTypes = ImmutableList.copyOf(parameterTypes);
+    this.parameterList = parameterList;
+    this.signatureKey = MethodIndex.signature(memberName, parameterTypes, false);
+    this.unorderedSignatureKey = MethodIndex.signature(memberName, parameterTypes, true);
+  }
+
+  /**
+   * Parses a query. This never fails, malformed parts are dropped.
+   *
+   * @param query The query to parse
+   * @return The parsed query
+   */
+  public static JavadocQuery parse(String query) {
+    Objects.requireNonNull(query, "query can not be null!");
+
+    int memberSeparator = indexOfTopLevel(query, '#', 0);
+    int parametersStart;
+    if (memberSeparator >= 0) {
+      parametersStart = indexOfTopLevel(query, '(', memberSeparator + 1);
+    } else {
+      parametersStart = indexOfTopLevel(query, '(', 0);
+      if (parametersStart >= 0) {
+        // "String.format(...)" - the last segment is the member
+        memberSeparator = lastIndexOfTopLevel(query, '.', parametersStart);
+      }
+    }
+
+    int classEnd;
+    if (memberSeparator >= 0) {
+      classEnd = memberSeparator;
+    } else if (parametersStart >= 0) {
+      // "format(...)" has no class
+      classEnd = 0;
+    } else {
+      classEnd = query.length();
+    }
+    int memberEnd = parametersStart >= 0 ? parametersStart : query.length();
+
+    String className = stripTypeArguments(query, 0, classEnd);
+    String memberName = memberSeparator < 0 && parametersStart < 0
+        ? ""
+        : stripTypeArguments(query, memberSeparator + 1, memberEnd);
+
+    List<String> parameterTypes = new ArrayList<>();
+    if (parametersStart >= 0) {
+      int start = parametersStart + 1;
+      int depth = 0;
+      int i = start;
+      for (; i < query.length(); i++) {
+        char current = query.charAt(i);
+        if (current == '<') {
+          depth++;
+        } else if (current == '>' && depth > 0) {
+          depth--;
+        } else if (depth == 0 && (current == ',' || current == ')')) {
+          addParameterType(parameterTypes, query, start, i);
+          start = i + 1;
+          if (current == ')') {
+            break;
+          }
+        }
+      }
+      if (i == query.length()) {
+        // unterminated list
+        addParameterType(parameterTypes, query, start, query.length());
+      }
+    }
+
+    return new JavadocQuery(className, memberName, parameterTypes, parametersStart >= 0);
+  }
+
+  /**
+   * Adds the type of the parameter in the given range, dropping annotations, modifiers, type
+   * arguments and the name.
+   */
+  private static void addParameterType(List<String> types, String query, int start, int end) {
+    List<String> words = new ArrayList<>(3);
+    StringBuilder word = new StringBuilder();
+    int depth = 0;
+    for (int i = start; i <= end; i++) {
+      char current = i < end ? query.charAt(i) : ' ';
+      if (current == '<') {
+        depth++;
+      } else if (current == '>' && depth > 0) {
+        depth--;
+      } else if (depth > 0) {
+        continue;
+      } else if (StringUtil.isWhitespace(current)) {
+        if (word.length() > 0) {
+          words.add(word.toString());
+          word.setLength(0);
+        }
+      } else {
+        word.append(current);
+      }
+    }
+
+    StringBuilder type = new StringBuilder();
+    for (String current : words) {
+      if (type.length() == 0 && (current.startsWith("@") || current.equals("final"))) {
+        continue;
+      }
+      // "Object ..." or "int []" still belong to the type, everything else is the name
+      if (type.length() == 0 || current.startsWith("...") || current.startsWith("[")) {
+        type.append(current);
+      } else {
+        break;
+      }
+    }
+
+    if (type.length() > 0) {
+      types.add(type.toString());
+    }
+  }
+
+  /**
+   * Copies the range without whitespace and type arguments.
+   */
+  private static String stripTypeArguments(String query, int start, int end) {
+    StringBuilder result = null;
+    int depth = 0;
+    for (int i = start; i < end; i++) {
+      char current = query.charAt(i);
+      boolean skip = depth > 0 || current == '<' || StringUtil.isWhitespace(current);
+      if (current == '<') {
+        depth++;
+      } else if (current == '>' && depth > 0) {
+        depth--;
+        skip = true;
+      }
+      if (skip && result == null) {
+        result = new StringBuilder(end - start);
+        result.append(query, start, i);
+      } else if (!skip && result != null) {
+        result.append(current);
+      }
+    }
+    return result == null ? query.substring(start, end) : result.toString();
+  }
+
+  private static int indexOfTopLevel(String query, char character, int from) {
+    int depth = 0;
+    for (int i = from; i < query.length(); i++) {
+      char current = query.charAt(i);
+      if (current == '<') {
+        depth++;
+      } else if (current == '>' && depth > 0) {
+        depth--;
+      } else if (current == character && depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int lastIndexOfTopLevel(String query, char character, int before) {
+    int depth = 0;
+    for (int i = before - 1; i >= 0; i--) {
+      char current = query.charAt(i);
+      if (current == '>') {
+        depth++;
+      } else if (current == '<' && depth > 0) {
+        depth--;
+      } else if (current == character && depth == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return True if the query names a class
+   */
+  public boolean hasClass() {
+    return !className.isEmpty();
+  }
+
+  /**
+   * @return The (possibly qualified) name of the class without type arguments. Empty if the query
+   * names no class.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * @return True if the query names a member
+   */
+  public boolean hasMember() {
+    return !memberName.isEmpty();
+  }
+
+  /**
+   * @return The name of the member. Empty if the query names no member.
+   */
+  public String getMemberName() {
+    return memberName;
+  }
+
+  /**
+   * @return True if the query had a parameter list, even if it was empty
+   */
+  public boolean hasParameterList() {
+    return parameterList;
+  }
+
+  /**
+   * @return The types of the parameters without type arguments. Varargs keep their "...".
+   */
+  public List<String> getParameterTypes() {
+    return parameterTypes;
+  }
+
+  /**
+   * @return The key of the member in {@link MethodIndex}
+   */
+  String getSignatureKey() {
+    return signatureKey;
+  }
+
+  /**
+   * @return The key of the member in {@link MethodIndex}, ignoring the parameter order
+   */
+  String getUnorderedSignatureKey() {
+    return unorderedSignatureKey;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    JavadocQuery that = (JavadocQuery) o;
+    return parameterList == that.parameterList
+        && Objects.equals(className, that.className)
+        && Objects.equals(memberName, that.memberName)
+        && Objects.equals(parameterTypes, that.parameterTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(className, memberName, parameterTypes, parameterList);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(className);
+    if (hasMember()) {
+      result.append('#').append(memberName);
+    }
+    if (parameterList) {
+      result.append('(').append(String.join(", ", parameterTypes)).append(')');
+    }
+    return result.toString();
+  }
+}
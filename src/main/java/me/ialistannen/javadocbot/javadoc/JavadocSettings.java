@@ -1,5 +1,12 @@
 package me.ialistannen.javadocbot.javadoc;
 
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import me.ialistannen.javadocbot.javadoc.source.HttpPageSource;
+import me.ialistannen.javadocbot.javadoc.source.PageSource;
+import me.ialistannen.javadocbot.util.DocumentCache;
+
 /**
  * Contains Javadoc settings
  */
@@ -7,6 +14,18 @@ public class JavadocSettings {
 
   private String baseUrl = "https://docs.oracle.com/javase/8/docs/api/";
   private boolean silentlyIgnoreUnknownTags;
+  private PageSource pageSource = new HttpPageSource();
+  private DocumentCache documentCache = new DocumentCache();
+  private boolean useSearchIndex;
+  private Path indexSnapshotFile;
+  private long indexSnapshotMaxAgeMillis = TimeUnit.DAYS.toMillis(1);
+  private long methodCacheSize = 1000;
+  private long classPageCacheSize = 1000;
+  private long queryCacheSize = 500;
+  private long negativeCacheTtlMillis = TimeUnit.MINUTES.toMillis(10);
+  private long textIndexMaxDocuments = 200_000;
+  private Path classCacheDirectory;
+  private long classCacheMaxAgeMillis = TimeUnit.DAYS.toMillis(7);
 
   /**
    * @return The current base url
@@ -24,6 +43,90 @@ public class JavadocSettings {
     return silentlyIgnoreUnknownTags;
   }
 
+  /**
+   * @return The {@link PageSource} the pages are read from
+   */
+  public PageSource getPageSource() {
+    return pageSource;
+  }
+
+  /**
+   * @return The {@link DocumentCache} for the pages of the {@link #getPageSource()}
+   */
+  public DocumentCache getDocumentCache() {
+    return documentCache;
+  }
+
+  /**
+   * @return Whether the index is built from the search index files of modern javadoc
+   */
+  public boolean isUseSearchIndex() {
+    return useSearchIndex;
+  }
+
+  /**
+   * @return The file the index snapshot is stored in or null if no snapshot is used
+   */
+  public Path getIndexSnapshotFile() {
+    return indexSnapshotFile;
+  }
+
+  /**
+   * @return The maximum age of an index snapshot in milliseconds
+   */
+  public long getIndexSnapshotMaxAgeMillis() {
+    return indexSnapshotMaxAgeMillis;
+  }
+
+  /**
+   * @return The maximum amount of classes whose methods are cached
+   */
+  public long getMethodCacheSize() {
+    return methodCacheSize;
+  }
+
+  /**
+   * @return The maximum amount of parsed class pages that are cached
+   */
+  public long getClassPageCacheSize() {
+    return classPageCacheSize;
+  }
+
+  /**
+   * @return The maximum amount of parsed queries that are cached
+   */
+  public long getQueryCacheSize() {
+    return queryCacheSize;
+  }
+
+  /**
+   * @return How long a failed member lookup is remembered, in milliseconds
+   */
+  public long getNegativeCacheTtlMillis() {
+    return negativeCacheTtlMillis;
+  }
+
+  /**
+   * @return The maximum amount of summaries in the full text index
+   */
+  public long getTextIndexMaxDocuments() {
+    return textIndexMaxDocuments;
+  }
+
+  /**
+   * @return The directory parsed class pages are stored in or null if they are not stored
+   */
+  public Path getClassCacheDirectory() {
+    return classCacheDirectory;
+  }
+
+  /**
+   * @return The maximum age of a stored class page in milliseconds
+   */
+  public long getClassCacheMaxAgeMillis() {
+    return classCacheMaxAgeMillis;
+  }
+
   /**
    * @param baseUrl The new base url for javadoc lookup
    * @return This instance
@@ -46,4 +149,198 @@ public class JavadocSettings {
 
     return this;
   }
+
+  /**
+   * Sets the {@link PageSource} the pages are read from.
+   * <p>
+   * Use a {@link me.ialistannen.javadocbot.javadoc.source.DirectoryPageSource} or a
+   * {@link me.ialistannen.javadocbot.javadoc.source.ZipPageSource} to read a local copy of the
+   * javadoc. The base url is still used for the links.
+   * <p>
+   * The pages of the previous source are dropped from the {@link #getDocumentCache()}.
+   *
+   * @param pageSource The new {@link PageSource}
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setPageSource(PageSource pageSource) {
+    this.pageSource = Objects.requireNonNull(pageSource, "pageSource can not be null!");
+    documentCache.invalidateAll();
+
+    return this;
+  }
+
+  /**
+   * Sets the {@link DocumentCache} parsed pages are kept in. Use this to configure its maximum
+   * weight or time to live.
+   * <p>
+   * Every {@link JavadocSettings} has its own cache by default, so do not share one between
+   * settings with different page sources.
+   *
+   * @param documentCache The new {@link DocumentCache}
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setDocumentCache(DocumentCache documentCache) {
+    this.documentCache = Objects.requireNonNull(documentCache, "documentCache can not be null!");
+
+    return this;
+  }
+
+  /**
+   * Sets the file the index is snapshotted to.
+   * <p>
+   * If set, {@link JavadocManager#index()} loads the index from the snapshot, if it is still
+   * valid, and writes a new one otherwise.
+   *
+   * @param indexSnapshotFile The file for the index snapshot. Null to disable snapshots.
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setIndexSnapshotFile(Path indexSnapshotFile) {
+    this.indexSnapshotFile = indexSnapshotFile;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum age of an index snapshot. Older snapshots are considered stale.
+   *
+   * @param maxAge The maximum age
+   * @param unit The {@link TimeUnit} of the maximum age
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setIndexSnapshotMaxAge(long maxAge, TimeUnit unit) {
+    this.indexSnapshotMaxAgeMillis = unit.toMillis(maxAge);
+
+    return this;
+  }
+
+  /**
+   * Sets whether the index is built from the search index files ({@code type-search-index.js} and
+   * friends) of modern (JDK 11+) javadoc instead of the "allclasses" and "overview" pages.
+   * <p>
+   * This also reads the declared methods of every class up front, so unknown members are rejected
+   * and declared methods and their overloads are resolved without fetching a page. The declaration
+   * and summary of a method are read from the class page when first needed. Index snapshots are
+   * not used in this mode.
+   *
+   * @param useSearchIndex Whether to use the search index
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setUseSearchIndex(boolean useSearchIndex) {
+    this.useSearchIndex = useSearchIndex;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of classes whose methods are cached.
+   * <p>
+   * Needs to be set before the {@link JavadocManager} is created.
+   *
+   * @param methodCacheSize The maximum amount of classes
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setMethodCacheSize(long methodCacheSize) {
+    this.methodCacheSize = methodCacheSize;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of parsed class pages that are cached.
+   * <p>
+   * Needs to be set before the {@link JavadocManager} is created.
+   *
+   * @param classPageCacheSize The maximum amount of class pages
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setClassPageCacheSize(long classPageCacheSize) {
+    this.classPageCacheSize = classPageCacheSize;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of parsed queries that are cached.
+   * <p>
+   * Needs to be set before the {@link JavadocManager} is created.
+   *
+   * @param queryCacheSize The maximum amount of queries
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setQueryCacheSize(long queryCacheSize) {
+    this.queryCacheSize = queryCacheSize;
+
+    return this;
+  }
+
+  /**
+   * Sets how long a failed member lookup is remembered. Until then, looking up the same member in
+   * the same class returns nothing without loading the methods of the class again.
+   * <p>
+   * Needs to be set before the {@link JavadocManager} is created.
+   *
+   * @param ttl The time to live. 0 to disable the negative cache.
+   * @param unit The {@link TimeUnit} of the time to live
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setNegativeCacheTtl(long ttl, TimeUnit unit) {
+    this.negativeCacheTtlMillis = unit.toMillis(ttl);
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum amount of summaries in the full text index, which bounds its memory usage.
+   * Summaries found once it is full are not searchable until the next
+   * {@link JavadocManager#index()}.
+   *
+   * @param textIndexMaxDocuments The maximum amount of summaries
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setTextIndexMaxDocuments(long textIndexMaxDocuments) {
+    this.textIndexMaxDocuments = textIndexMaxDocuments;
+
+    return this;
+  }
+
+  /**
+   * Sets the directory parsed class pages (declaration, description, methods) are stored in. They
+   * are loaded from there lazily, class by class, so a restart does not need to fetch them again.
+   * <p>
+   * A stored page is only used for the same base url. Change the directory or clear it if the
+   * javadoc at a base url changes.
+   *
+   * @param classCacheDirectory The directory. Null to not store class pages.
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setClassCacheDirectory(Path classCacheDirectory) {
+    this.classCacheDirectory = classCacheDirectory;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum age of a stored class page. Older pages are fetched again.
+   *
+   * @param maxAge The maximum age
+   * @param unit The {@link TimeUnit} of the maximum age
+   * @return This {@link JavadocSettings}
+   */
+  @SuppressWarnings("unused")
+  public JavadocSettings setClassCacheMaxAge(long maxAge, TimeUnit unit) {
+    this.classCacheMaxAgeMillis = unit.toMillis(maxAge);
+
+    return this;
+  }
 }
@@ -0,0 +1,190 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.model.MethodSignature;
+import me.ialistannen.javadocbot.util.Pair;
+
+/**
+ * A global index from member name to the methods declaring it, across all classes. It answers
+ * queries without a class, like {@code #computeIfAbsent}, with a single hash lookup. The methods
+ * are indexed by the types they return and accept as well.
+ * <p>
+ * Only declared methods are stored, each once. A method carries its class, signature and URL, so
+ * an entry is just a reference. Methods are added as they become known: up front from the search
+ * index, or as the methods of classes are crawled or loaded. Adding a method with a known URL
+ * replaces the previous one, so the parsed methods of a class supersede those of the search index.
+ * <p>
+ * This class is thread safe.
+ */
+class MemberIndex {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ArrayListMultimap<String, JavadocMethod> byName = ArrayListMultimap.create();
+  // keyed by the normalized type, see MethodIndex#normalizeType
+  private final ArrayListMultimap<String, JavadocMethod> byReturnType = ArrayListMultimap.create();
+  private final ArrayListMultimap<String, JavadocMethod> byParameterType =
+      ArrayListMultimap.create();
+  // keyed by the url of the method
+  private final Map<String, IndexedMethod> byUrl = new HashMap<>();
+
+  /**
+   * Adds the declared methods out of the given ones. Inherited methods are skipped, they are added
+   * with the class declaring them.
+   *
+   * @param methods The methods to add
+   */
+  void addAll(Collection<JavadocMethod> methods) {
+    List<JavadocMethod> declared = new ArrayList<>(methods.size());
+    List<String> returnTypes = new ArrayList<>(methods.size());
+    List<Set<String>> parameterTypes = new ArrayList<>(methods.size());
+    // the signatures may need to be parsed, which is better done outside of the lock
+    for (JavadocMethod method : methods) {
+      if (method.isInherited()) {
+        continue;
+      }
+      MethodSignature signature = method.getSignature();
+      Set<String> types = new LinkedHashSet<>();
+      for (Pair<String, String> parameter : signature.getParameters()) {
+        types.add(MethodIndex.normalizeType(parameter.getKey()));
+      }
+      declared.add(method);
+      returnTypes.add(MethodIndex.normalizeType(signature.getReturnType()));
+      parameterTypes.add(types);
+    }
+
+    lock.writeLock().lock();
+    try {
+      for (int i = 0; i < declared.size(); i++) {
+        IndexedMethod indexed = new IndexedMethod(
+            declared.get(i), returnTypes.get(i), parameterTypes.get(i)
+        );
+        IndexedMethod previous = byUrl.put(indexed.method.getUrl(), indexed);
+        if (previous != null) {
+          remove(previous);
+        }
+        put(indexed);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void put(IndexedMethod indexed) {
+    JavadocMethod method = indexed.method;
+    byName.put(method.getName(), method);
+    // constructors have no return type, neither have methods from the search index
+    if (!indexed.returnType.isEmpty() && !indexed.returnType.equals("void")) {
+      byReturnType.put(indexed.returnType, method);
+    }
+    for (String type : indexed.parameterTypes) {
+      byParameterType.put(type, method);
+    }
+  }
+
+  private void remove(IndexedMethod indexed) {
+    JavadocMethod method = indexed.method;
+    // by identity, the equality of methods depends on their lazily loaded description
+    byName.get(method.getName()).removeIf(existing -> existing == method);
+    byReturnType.get(indexed.returnType).removeIf(existing -> existing == method);
+    for (String type : indexed.parameterTypes) {
+      byParameterType.get(type).removeIf(existing -> existing == method);
+    }
+  }
+
+  /**
+   * Finds the methods matching the member of the query, in all classes.
+   * <p>
+   * If the query has a parameter list, only the overloads with these parameters are returned. If
+   * there are none, all overloads are returned, like for a query with a class.
+   *
+   * @param query The query
+   * @return The matching methods, in the order they became known
+   */
+  List<JavadocMethod> find(JavadocQuery query) {
+    List<JavadocMethod> methods = get(byName, query.getMemberName());
+    if (!query.hasParameterList() || methods.isEmpty()) {
+      return methods;
+    }
+
+    List<JavadocMethod> matches = filter(methods, query.getSignatureKey(), false);
+    if (matches.isEmpty()) {
+      matches = filter(methods, query.getUnorderedSignatureKey(), true);
+    }
+    return matches.isEmpty() ? methods : matches;
+  }
+
+  /**
+   * @param type The type, simple or qualified. Type arguments are ignored.
+   * @return All methods returning exactly that type, in the order they became known
+   */
+  List<JavadocMethod> findReturning(String type) {
+    return get(byReturnType, MethodIndex.normalizeType(type));
+  }
+
+  /**
+   * @param type The type, simple or qualified. Type arguments are ignored.
+   * @return All methods with a parameter of exactly that type, in the order they became known
+   */
+  List<JavadocMethod> findAccepting(String type) {
+    return get(byParameterType, MethodIndex.normalizeType(type));
+  }
+
+  private List<JavadocMethod> get(ArrayListMultimap<String, JavadocMethod> methods, String key) {
+    lock.readLock().lock();
+    try {
+      return ImmutableList.copyOf(methods.get(key));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static List<JavadocMethod> filter(List<JavadocMethod> methods, String key,
+      boolean unordered) {
+    List<JavadocMethod> matches = new ArrayList<>();
+    for (JavadocMethod method : methods) {
+      if (MethodIndex.signature(method, unordered).equals(key)) {
+        matches.add(method);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * @return The amount of indexed methods
+   */
+  int size() {
+    lock.readLock().lock();
+    try {
+      return byName.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * A method with the keys it is indexed under
+   */
+  private static class IndexedMethod {
+
+    private final JavadocMethod method;
+    private final String returnType;
+    private final Set<String> parameterTypes;
+
+    IndexedMethod(JavadocMethod method, String returnType, Set<String> parameterTypes) {
+      this.method = method;
+      this.returnType = returnType;
+      this.parameterTypes = parameterTypes;
+    }
+  }
+}
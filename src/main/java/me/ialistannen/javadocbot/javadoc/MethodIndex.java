@@ -0,0 +1,183 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.util.Pair;
+import me.ialistannen.javadocbot.util.StringUtil;
+
+/**
+ * The methods of a single class, indexed by their name and their parameter types.
+ * <p>
+ * Parameter types are normalized (see {@link #normalizeType(String)}), so {@code String},
+ * {@code java.lang.String} and {@code String...} vs {@code String[]} all resolve to the same
+ * overload with a single hash lookup.
+ */
+class MethodIndex {
+
+  /**
+   * An index without any methods
+   */
+  static final MethodIndex EMPTY = new MethodIndex(Collections.emptyList());
+
+  private final ImmutableList<JavadocMethod> methods;
+  private final ImmutableListMultimap<String, JavadocMethod> byName;
+  private final ImmutableListMultimap<String, JavadocMethod> bySignature;
+  private final ImmutableListMultimap<String, JavadocMethod> byUnorderedSignature;
+
+  /**
+   * @param methods The methods to index
+   */
+  MethodIndex(Collection<JavadocMethod> methods) {
+    this.methods = ImmutableList.copyOf(methods);
+
+    ImmutableListMultimap.Builder<String, JavadocMethod> byName = ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<String, JavadocMethod> bySignature = ImmutableListMultimap
+        .builder();
+    ImmutableListMultimap.Builder<String, JavadocMethod> byUnorderedSignature =
+        ImmutableListMultimap.builder();
+
+    for (JavadocMethod method : this.methods) {
+      byName.put(method.getName(), method);
+      bySignature.put(signature(method, false), method);
+      byUnorderedSignature.put(signature(method, true), method);
+    }
+
+    this.byName = byName.build();
+    this.bySignature = bySignature.build();
+    this.byUnorderedSignature = byUnorderedSignature.build();
+  }
+
+  /**
+   * @return All methods, in their original order
+   */
+  ImmutableList<JavadocMethod> getMethods() {
+    return methods;
+  }
+
+  /**
+   * @param name The name of the method
+   * @return All methods with that name
+   */
+  ImmutableList<JavadocMethod> getMethodsWithName(String name) {
+    return byName.get(name);
+  }
+
+  /**
+   * @return The names of all methods
+   */
+  ImmutableSet<String> getNames() {
+    return byName.keySet();
+  }
+
+  /**
+   * Finds the overload with the given parameter types. Types in the wrong order are accepted as
+   * well, if there is no overload with the exact order.
+   *
+   * @param name The name of the method
+   * @param parameterTypes The types of the parameters. Simple or qualified.
+   * @return The matching method, if any
+   */
+  Optional<JavadocMethod> findExactMatch(String name, List<String> parameterTypes) {
+    return findExactMatch(
+        signature(name, parameterTypes, false), signature(name, parameterTypes, true)
+    );
+  }
+
+  /**
+   * Finds the overload matching the member of the query, using its precomputed keys.
+   *
+   * @param query The query
+   * @return The matching method, if any
+   * @see #findExactMatch(String, List)
+   */
+  Optional<JavadocMethod> findExactMatch(JavadocQuery query) {
+    return findExactMatch(query.getSignatureKey(), query.getUnorderedSignatureKey());
+  }
+
+  private Optional<JavadocMethod> findExactMatch(String key, String unorderedKey) {
+    List<JavadocMethod> matches = bySignature.get(key);
+    if (matches.isEmpty()) {
+      matches = byUnorderedSignature.get(unorderedKey);
+    }
+    return matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));
+  }
+
+  /**
+   * @param method The method
+   * @param unordered Whether to sort the types, so the key does not depend on their order
+   * @return The key of the signature of the method
+   */
+  static String signature(JavadocMethod method, boolean unordered) {
+    List<String> types = new ArrayList<>();
+    for (Pair<String, String> parameter : method.getParameters()) {
+      types.add(parameter.getKey());
+    }
+    return signature(method.getName(), types, unordered);
+  }
+
+  /**
+   * @param name The name of the method
+   * @param types The types of its parameters
+   * @param unordered Whether to sort the types, so the key does not depend on their order
+   * @return The key of the signature
+   */
+  static String signature(String name, List<String> types, boolean unordered) {
+    List<String> normalized = new ArrayList<>(types.size());
+    for (String type : types) {
+      normalized.add(normalizeType(type));
+    }
+    if (unordered) {
+      Collections.sort(normalized);
+    }
+    return name + "(" + String.join(",", normalized) + ")";
+  }
+
+  /**
+   * Normalizes a parameter type, so that the different ways to write it are equal.
+   * <p>
+   * Annotations, type arguments, whitespace and the package (or enclosing class) are removed and
+   * varargs are written as arrays. {@code java.util.List<String>...} becomes {@code List[]}.
+   *
+   * @param type The type to normalize
+   * @return The normalized type
+   */
+  static String normalizeType(String type) {
+    StringBuilder result = new StringBuilder(type.length());
+    int genericDepth = 0;
+    boolean inAnnotation = false;
+
+    for (int i = 0; i < type.length(); i++) {
+      char current = type.charAt(i);
+      if (inAnnotation) {
+        inAnnotation = !StringUtil.isWhitespace(current);
+        continue;
+      }
+      if (current == '<') {
+        genericDepth++;
+      } else if (current == '>') {
+        genericDepth = Math.max(0, genericDepth - 1);
+      } else if (genericDepth > 0 || StringUtil.isWhitespace(current)) {
+        continue;
+      } else if (current == '@') {
+        inAnnotation = true;
+      } else if (current == '.' && type.startsWith("...", i)) {
+        result.append("[]");
+        i += 2;
+      } else if (current == '.') {
+        // drop the qualifier read so far
+        result.setLength(0);
+      } else {
+        result.append(current);
+      }
+    }
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,71 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Optional;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+
+/**
+ * The result of a single query of a batch, see
+ * {@link AsyncJavadocManager#resolveAll(List)}.
+ */
+public class QueryResult {
+
+  private final JavadocQuery query;
+  private final ImmutableList<JavadocClass> classes;
+  private final ImmutableList<JavadocMethod> methods;
+  private final RuntimeException error;
+
+  /**
+   * @param query The query
+   * @param classes The matching classes
+   * @param methods The matching methods
+   * @param error The error that occurred while resolving the methods or null
+   */
+  QueryResult(JavadocQuery query, List<JavadocClass> classes, List<JavadocMethod> methods,
+      RuntimeException error) {
+    this.query = query;
+    this.classes = ImmutableList.copyOf(classes);
+    this.methods = ImmutableList.copyOf(methods);
+    this.error = error;
+  }
+
+  /**
+   * @return The parsed query
+   */
+  public JavadocQuery getQuery() {
+    return query;
+  }
+
+  /**
+   * @return All classes matching the query
+   */
+  public List<JavadocClass> getClasses() {
+    return classes;
+  }
+
+  /**
+   * @return All methods matching the query. Empty if it names no member.
+   */
+  public List<JavadocMethod> getMethods() {
+    return methods;
+  }
+
+  /**
+   * @return The error that occurred while resolving the methods, if any
+   */
+  public Optional<RuntimeException> getError() {
+    return Optional.ofNullable(error);
+  }
+
+  @Override
+  public String toString() {
+    return "QueryResult{" +
+        "query=" + query +
+        ", classes=" + classes.size() +
+        ", methods=" + methods.size() +
+        ", error=" + error +
+        '}';
+  }
+}
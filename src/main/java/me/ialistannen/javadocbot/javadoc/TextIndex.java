@@ -0,0 +1,317 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import me.ialistannen.javadocbot.javadoc.model.JavadocElement;
+import me.ialistannen.javadocbot.util.StringUtil;
+
+/**
+ * An inverted index over the one line summaries of elements, ranked with BM25.
+ * <p>
+ * Elements are added as their summaries become known. Each term has a posting list of variable
+ * length encoded (document id delta, term frequency) pairs, which take two bytes per entry most of
+ * the time. Once the maximum amount of documents is reached, further elements are ignored.
+ * <p>
+ * This class is thread safe.
+ */
+class TextIndex {
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  /**
+   * Words too common to say anything about an element. Leaving them out keeps the longest posting
+   * lists out of the index.
+   */
+  private static final Set<String> STOP_WORDS = ImmutableSet.of(
+      "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "if", "in", "is", "it", "of",
+      "on", "or", "that", "the", "this", "to", "which", "with"
+  );
+
+  private final int maxDocuments;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final List<JavadocElement> documents = new ArrayList<>();
+  private final Set<String> urls = new HashSet<>();
+  private int[] lengths = new int[16];
+  private long totalLength;
+
+  /**
+   * @param maxDocuments The maximum amount of elements to index
+   */
+  TextIndex(long maxDocuments) {
+    this.maxDocuments = (int) Math.min(Integer.MAX_VALUE, maxDocuments);
+  }
+
+  /**
+   * Adds an element. Elements are identified by their URL, adding one twice does nothing.
+   *
+   * @param element The element
+   * @param summary Its summary, may contain markdown
+   */
+  void add(JavadocElement element, String summary) {
+    List<String> tokens = tokenize(summary);
+    if (tokens.isEmpty()) {
+      return;
+    }
+    Map<String, Integer> frequencies = new LinkedHashMap<>();
+    for (String token : tokens) {
+      frequencies.merge(token, 1, Integer::sum);
+    }
+
+    lock.writeLock().lock();
+    try {
+      if (documents.size() >= maxDocuments || !urls.add(element.getUrl())) {
+        return;
+      }
+      int document = documents.size();
+      documents.add(element);
+      if (document == lengths.length) {
+        lengths = Arrays.copyOf(lengths, lengths.length * 2);
+      }
+      lengths[document] = tokens.size();
+      totalLength += tokens.size();
+
+      for (Entry<String, Integer> entry : frequencies.entrySet()) {
+        postings.computeIfAbsent(entry.getKey(), key -> new Postings())
+            .add(document, entry.getValue());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param query The words to search for
+   * @param limit The maximum amount of results
+   * @return The best matching elements, best first
+   */
+  List<JavadocElement> search(String query, int limit) {
+    Set<String> terms = new LinkedHashSet<>(tokenize(query));
+    if (terms.isEmpty() || limit <= 0) {
+      return Collections.emptyList();
+    }
+
+    lock.readLock().lock();
+    try {
+      int documentCount = documents.size();
+      double averageLength = documentCount == 0 ? 0 : (double) totalLength / documentCount;
+
+      List<Postings> termPostings = new ArrayList<>(terms.size());
+      int candidates = 0;
+      for (String term : terms) {
+        Postings current = postings.get(term);
+        if (current != null) {
+          termPostings.add(current);
+          candidates += current.count;
+        }
+      }
+      // an array is faster once a good part of the documents is hit, a map is smaller otherwise
+      boolean dense = candidates >= documentCount / 16;
+      double[] denseScores = dense ? new double[documentCount] : null;
+      Map<Integer, Double> sparseScores = dense ? null : new HashMap<>(candidates * 2);
+
+      for (Postings current : termPostings) {
+        double idf = Math.log(1 + (documentCount - current.count + 0.5) / (current.count + 0.5));
+
+        int document = 0;
+        PostingsReader reader = new PostingsReader(current);
+        while (reader.hasNext()) {
+          document += reader.next();
+          int frequency = reader.next();
+
+          double normalization = K1 * (1 - B + B * lengths[document] / averageLength);
+          double score = idf * frequency * (K1 + 1) / (frequency + normalization);
+          if (dense) {
+            denseScores[document] += score;
+          } else {
+            sparseScores.merge(document, score, Double::sum);
+          }
+        }
+      }
+
+      IntToDoubleFunction scoreOf = dense
+          ? document -> denseScores[document]
+          : sparseScores::get;
+      // the worst of the best "limit" documents on top
+      PriorityQueue<Integer> best = new PriorityQueue<>(
+          Math.max(1, Math.min(limit, candidates)),
+          (first, second) -> {
+            int byScore = Double.compare(
+                scoreOf.applyAsDouble(first), scoreOf.applyAsDouble(second)
+            );
+            return byScore != 0 ? byScore : Integer.compare(second, first);
+          }
+      );
+      PrimitiveIterator.OfInt hits = dense
+          ? IntStream.range(0, documentCount).iterator()
+          : sparseScores.keySet().stream().mapToInt(Integer::intValue).iterator();
+      double threshold = 0;
+      while (hits.hasNext()) {
+        int document = hits.nextInt();
+        double score = scoreOf.applyAsDouble(document);
+        // most documents can not make it into a full queue, skip them without boxing
+        if (score > 0 && score >= threshold) {
+          best.add(document);
+          if (best.size() > limit) {
+            best.poll();
+          }
+          if (best.size() == limit) {
+            threshold = scoreOf.applyAsDouble(best.peek());
+          }
+        }
+      }
+
+      JavadocElement[] result = new JavadocElement[best.size()];
+      for (int i = result.length - 1; i >= 0; i--) {
+        result[i] = documents.get(best.poll());
+      }
+      return Arrays.asList(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return The amount of indexed elements
+   */
+  int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @param description A description, may contain markdown
+   * @return Its first sentence
+   */
+  static String firstSentence(String description) {
+    int end = description.length();
+    int newline = description.indexOf('\n');
+    if (newline >= 0) {
+      end = newline;
+    }
+    int period = description.indexOf(". ");
+    if (period >= 0 && period < end) {
+      end = period + 1;
+    }
+    return description.substring(0, end);
+  }
+
+  /**
+   * Splits the text into lower cased words of letters and digits, without formatting and stop
+   * words.
+   *
+   * @param text The text
+   * @return The words
+   */
+  private static List<String> tokenize(String text) {
+    String plain = StringUtil.stripFormatting(text).toLowerCase(Locale.ROOT);
+    List<String> tokens = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= plain.length(); i++) {
+      boolean wordCharacter = i < plain.length() && Character.isLetterOrDigit(plain.charAt(i));
+      if (wordCharacter && start < 0) {
+        start = i;
+      } else if (!wordCharacter && start >= 0) {
+        String token = plain.substring(start, i);
+        if (!STOP_WORDS.contains(token)) {
+          tokens.add(token);
+        }
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * The postings of a term, as variable length encoded (document id delta, frequency) pairs
+   */
+  private static class Postings {
+
+    private byte[] data = new byte[0];
+    private int size;
+    private int lastDocument;
+    private int count;
+
+    void add(int document, int frequency) {
+      int delta = document - lastDocument;
+      int needed = varIntSize(delta) + varIntSize(frequency);
+      if (data.length - size < needed) {
+        // most terms are rare, so small lists are not padded
+        data = Arrays.copyOf(data, Math.max(size + needed, data.length + (data.length >> 1)));
+      }
+      writeVarInt(delta);
+      writeVarInt(frequency);
+      lastDocument = document;
+      count++;
+    }
+
+    private static int varIntSize(int value) {
+      int size = 1;
+      while ((value & ~0x7F) != 0) {
+        value >>>= 7;
+        size++;
+      }
+      return size;
+    }
+
+    private void writeVarInt(int value) {
+      while ((value & ~0x7F) != 0) {
+        data[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      data[size++] = (byte) value;
+    }
+  }
+
+  /**
+   * Reads the numbers of a posting list in order
+   */
+  private static class PostingsReader {
+
+    private final Postings postings;
+    private int position;
+
+    PostingsReader(Postings postings) {
+      this.postings = postings;
+    }
+
+    boolean hasNext() {
+      return position < postings.size;
+    }
+
+    int next() {
+      int value = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = postings.data[position++];
+        value |= (current & 0x7F) << shift;
+        shift += 7;
+      } while (current < 0);
+      return value;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package me.ialistannen.javadocbot.javadoc.model;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The typed signature of a class, split into its parts once.
+ * <p>
+ * All parts are plain text (no markdown) with normalized whitespace. Parts that are not present
+ * are empty, never null. Instances are immutable, so all getters are simple field reads.
+ */
+public final class ClassSignature {
+
+  /**
+   * The kind of a type
+   */
+  public enum Kind {
+    CLASS("class"),
+    INTERFACE("interface"),
+    ENUM("enum"),
+    ANNOTATION("@interface"),
+    UNKNOWN("");
+
+    private final String keyword;
+
+    Kind(String keyword) {
+      this.keyword = keyword;
+    }
+
+    /**
+     * @return The keyword used to declare it. Empty for {@link #UNKNOWN}.
+     */
+    public String getKeyword() {
+      return keyword;
+    }
+
+    private static Kind fromKeyword(String keyword) {
+      for (Kind kind : values()) {
+        if (kind != UNKNOWN && kind.keyword.equals(keyword)) {
+          return kind;
+        }
+      }
+      return null;
+    }
+  }
+
+  private final ImmutableList<String> annotations;
+  private final ImmutableList<String> modifiers;
+  private final Kind kind;
+  private final String name;
+  private final String typeParameters;
+  private final ImmutableList<String> superclasses;
+  private final ImmutableList<String> interfaces;
+
+  private ClassSignature(List<String> annotations, List<String> modifiers, Kind kind, String name,
+      String typeParameters, List<String> superclasses, List<String> interfaces) {
+    this.annotations = ImmutableList.copyOf(annotations);
+    this.modifiers = ImmutableList.copyOf(modifiers);
+    this.kind = kind;
+    this.name = name;
+    this.typeParameters = typeParameters;
+    this.superclasses = ImmutableList.copyOf(superclasses);
+    this.interfaces = ImmutableList.copyOf(interfaces);
+  }
+
+  /**
+   * Creates a signature from all of its parts, e.g. when reading back a stored one.
+   *
+   * @param annotations The annotations, see {@link #getAnnotations()}
+   * @param modifiers The modifiers, see {@link #getModifiers()}
+   * @param kind The {@link Kind}
+   * @param name The simple name
+   * @param typeParameters The type parameters. May be empty.
+   * @param superclasses The types listed after {@code extends}
+   * @param interfaces The types listed after {@code implements}
+   * @return The created signature
+   */
+  public static ClassSignature of(List<String> annotations, List<String> modifiers, Kind kind,
+      String name, String typeParameters, List<String> superclasses, List<String> interfaces) {
+    Objects.requireNonNull(annotations, "annotations can not be null!");
+    Objects.requireNonNull(modifiers, "modifiers can not be null!");
+    Objects.requireNonNull(kind, "kind can not be null!");
+    Objects.requireNonNull(name, "name can not be null!");
+    Objects.requireNonNull(typeParameters, "typeParameters can not be null!");
+    Objects.requireNonNull(superclasses, "superclasses can not be null!");
+    Objects.requireNonNull(interfaces, "interfaces can not be null!");
+
+    return new ClassSignature(
+        annotations, modifiers, kind, name, typeParameters, superclasses, interfaces
+    );
+  }
+
+  /**
+   * Parses the plain text declaration of a class, as found at the top of its page.
+   * <p>
+   * A missing part is left empty, this method never throws on malformed input.
+   *
+   * @param declaration The declaration, e.g. {@code public class ArrayList<E> extends
+   * AbstractList<E> implements List<E>, RandomAccess}
+   * @return The parsed signature
+   */
+  public static ClassSignature parse(String declaration) {
+    List<String> annotations = new ArrayList<>();
+    String text = SignatureParser.extractAnnotations(
+        SignatureParser.normalizeWhitespace(declaration), annotations
+    );
+
+    List<String> modifiers = new ArrayList<>();
+    Kind kind = Kind.UNKNOWN;
+    String name = "";
+    String typeParameters = "";
+    StringBuilder superclasses = new StringBuilder();
+    StringBuilder interfaces = new StringBuilder();
+
+    StringBuilder current = null;
+    for (String token : SignatureParser.splitTopLevel(text, ' ')) {
+      if (token.equals("extends")) {
+        // interfaces extend interfaces, but that is what we report as superclasses
+        current = superclasses;
+      } else if (token.equals("implements")) {
+        current = interfaces;
+      } else if (current != null) {
+        current.append(token).append(' ');
+      } else if (kind == Kind.UNKNOWN && Kind.fromKeyword(token) != null) {
+        kind = Kind.fromKeyword(token);
+      } else if (kind == Kind.UNKNOWN) {
+        modifiers.add(token);
+      } else if (name.isEmpty()) {
+        int typeStart = token.indexOf('<');
+        name = typeStart < 0 ? token : token.substring(0, typeStart);
+        typeParameters = typeStart < 0 ? "" : token.substring(typeStart);
+      } else {
+        // type parameters separated by a space from the name
+        typeParameters += token;
+      }
+    }
+
+    return new ClassSignature(
+        annotations, modifiers, kind, name, typeParameters,
+        SignatureParser.splitTopLevel(superclasses.toString(), ','),
+        SignatureParser.splitTopLevel(interfaces.toString(), ',')
+    );
+  }
+
+  /**
+   * @return The annotations, including their arguments
+   */
+  public List<String> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * @return The modifiers, in declaration order
+   */
+  public List<String> getModifiers() {
+    return modifiers;
+  }
+
+  /**
+   * @param modifier The modifier, e.g. {@code abstract}
+   * @return True if the class has it
+   */
+  public boolean hasModifier(String modifier) {
+    return modifiers.contains(modifier);
+  }
+
+  /**
+   * @return The kind of the type
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return The simple name of the class, without type parameters
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The type parameters including the angle brackets or an empty String
+   */
+  public String getTypeParameters() {
+    return typeParameters;
+  }
+
+  /**
+   * @return The types listed after {@code extends}. For interfaces these are interfaces too.
+   */
+  public List<String> getSuperclasses() {
+    return superclasses;
+  }
+
+  /**
+   * @return The types listed after {@code implements}
+   */
+  public List<String> getInterfaces() {
+    return interfaces;
+  }
+
+  @Override
+  public String toString() {
+    return "ClassSignature{" +
+        "annotations=" + annotations +
+        ", modifiers=" + modifiers +
+        ", kind=" + kind +
+        ", name='" + name + '\'' +
+        ", typeParameters='" + typeParameters + '\'' +
+        ", superclasses=" + superclasses +
+        ", interfaces=" + interfaces +
+        '}';
+  }
+}
@@ -1,16 +1,17 @@
 package me.ialistannen.javadocbot.javadoc.model;
 
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import me.ialistannen.javadocbot.javadoc.parsing.ClassParser;
+import me.ialistannen.javadocbot.util.Memoized;
+import me.ialistannen.javadocbot.util.StringUtil;
 
 public class JavadocClass extends JavadocElement {
 
   private ClassParser classParser;
   private Package parentPackage;
 
-  private String declaration;
+  private final Memoized<String> declaration = new Memoized<>(this::loadDeclaration);
+  private final Memoized<ClassSignature> signature = new Memoized<>(this::loadSignature);
 
   /**
    * @param name The name of the element
@@ -26,19 +27,9 @@ public class JavadocClass extends JavadocElement {
     parentPackage.addClass(this);
   }
 
-  @SuppressWarnings("Duplicates")
   @Override
-  public String getDescription() {
-    synchronized (this) {
-      String description = super.getDescription();
-      if (description != null) {
-        return description;
-      }
-      description = classParser.parseDescription(this);
-
-      setDescription(description);
-      return description;
-    }
+  protected String loadDescription() {
+    return classParser.parseDescription(this);
   }
 
   /**
@@ -50,15 +41,61 @@ public class JavadocClass extends JavadocElement {
    */
   @SuppressWarnings("WeakerAccess")
   public String getDeclaration() {
-    synchronized (this) {
-      if (declaration != null) {
-        return declaration;
-      }
-      declaration = classParser.parseDeclaration(this);
+    return declaration.get();
+  }
 
-      return declaration;
-    }
+  private String loadDeclaration() {
+    return classParser.parseDeclaration(this);
+  }
+
+  /**
+   * Returns the class declaration, split into modifiers, kind, name and supertypes.
+   *
+   * May involve a blocking web request
+   *
+   * @return The parsed class declaration
+   */
+  @SuppressWarnings("WeakerAccess")
+  public ClassSignature getSignature() {
+    return signature.get();
+  }
 
+  private ClassSignature loadSignature() {
+    return classParser.parseSignature(this);
+  }
+
+  /**
+   * Stores an already parsed declaration and description, so the getters don't need to fetch the
+   * page. Used when crawling the javadoc ahead of time.
+   *
+   * @param declaration The declaration of the class
+   * @param description The description of the class
+   */
+  public void preload(String declaration, String description) {
+    this.declaration.set(Objects.requireNonNull(declaration, "declaration can not be null!"));
+    setDescription(Objects.requireNonNull(description, "description can not be null!"));
+  }
+
+  /**
+   * Stores an already parsed declaration, signature and description, so the getters don't need to
+   * fetch the page. Used when crawling the javadoc ahead of time.
+   * <p>
+   * A part that is null, e.g. because the page had no description, is still loaded lazily.
+   *
+   * @param declaration The declaration of the class or null
+   * @param signature The parsed declaration of the class or null
+   * @param description The description of the class or null
+   */
+  public void preload(String declaration, ClassSignature signature, String description) {
+    if (declaration != null) {
+      this.declaration.set(declaration);
+    }
+    if (signature != null) {
+      this.signature.set(signature);
+    }
+    if (description != null) {
+      setDescription(description);
+    }
   }
 
   /**
@@ -77,7 +114,11 @@ public class JavadocClass extends JavadocElement {
    */
   @SuppressWarnings("unused")
   public String getNameWithModifiers() {
-    return getDeclaration().replaceAll(" ?(extends|implements).+", "");
+    int clauseStart = getExtendsImplementsStart();
+    if (clauseStart < 0) {
+      return getDeclaration();
+    }
+    return getDeclaration().substring(0, clauseStart).trim();
   }
 
   /**
@@ -89,12 +130,23 @@ public class JavadocClass extends JavadocElement {
    */
   @SuppressWarnings("unused")
   public String getExtendsImplements() {
-    Matcher matcher = Pattern.compile(" ?(extends|implements)([\\s\\S]+)")
-        .matcher(getDeclaration());
-    if (!matcher.find()) {
+    int clauseStart = getExtendsImplementsStart();
+    if (clauseStart < 0) {
       return "";
     }
-    return matcher.group(1) + matcher.group(2);
+    return getDeclaration().substring(clauseStart);
+  }
+
+  /**
+   * @return The index of the first "extends" or "implements" in the declaration or -1
+   */
+  private int getExtendsImplementsStart() {
+    int extendsIndex = StringUtil.indexOfWord(getDeclaration(), "extends");
+    int implementsIndex = StringUtil.indexOfWord(getDeclaration(), "implements");
+    if (extendsIndex < 0 || implementsIndex < 0) {
+      return Math.max(extendsIndex, implementsIndex);
+    }
+    return Math.min(extendsIndex, implementsIndex);
   }
 
   //@formatter:off
@@ -114,15 +166,17 @@ public class JavadocClass extends JavadocElement {
   //@formatter:on
   @SuppressWarnings("unused")
   public String getType() {
-    String declaration = getDeclaration().toLowerCase();
-    if (declaration.contains("interface")) {
-      return "interface";
-    } else if (declaration.contains("class")) {
-      return "class";
-    } else if (declaration.contains("enum")) {
-      return "enum";
+    switch (getSignature().getKind()) {
+      case INTERFACE:
+      case ANNOTATION:
+        return "interface";
+      case CLASS:
+        return "class";
+      case ENUM:
+        return "enum";
+      default:
+        return "nothing?";
     }
-    return "nothing?";
   }
 
   @Override
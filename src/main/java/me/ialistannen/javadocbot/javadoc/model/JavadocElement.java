@@ -1,6 +1,7 @@
 package me.ialistannen.javadocbot.javadoc.model;
 
 import java.util.Objects;
+import me.ialistannen.javadocbot.util.Memoized;
 
 /**
  * A Javadoc Element
@@ -8,18 +9,21 @@ import java.util.Objects;
 public abstract class JavadocElement {
 
   private String name;
-  private String description;
+  private final Memoized<String> description = new Memoized<>(this::loadDescription);
   private String url;
 
   /**
    * @param name The name of the element
-   * @param description The description of the element
+   * @param description The description of the element or null to load it lazily
    * @param url The URL to the element
    */
   JavadocElement(String name, String description, String url) {
     this.name = name;
-    this.description = description;
     this.url = url;
+
+    if (description != null) {
+      this.description.set(description);
+    }
   }
 
   /**
@@ -30,12 +34,30 @@ public abstract class JavadocElement {
   }
 
   /**
+   * Returns the description, loading it on the first call.
+   * <p>
+   * May involve a blocking web request. Once loaded, reading it never blocks.
+   *
    * @return The description
    */
   public String getDescription() {
-    return description;
+    return description.get();
+  }
+
+  /**
+   * @return The description or null if it is not loaded yet. Never blocks.
+   */
+  public String getDescriptionIfLoaded() {
+    return description.getIfPresent();
   }
 
+  /**
+   * Loads the description. Called at most once at a time, until it succeeds.
+   *
+   * @return The description
+   */
+  protected abstract String loadDescription();
+
   /**
    * @return The URL to the element
    */
@@ -54,7 +76,7 @@ public abstract class JavadocElement {
    * @param description The new description
    */
   void setDescription(String description) {
-    this.description = description;
+    this.description.set(description);
   }
 
   @Override
@@ -67,20 +89,20 @@ public abstract class JavadocElement {
     }
     JavadocElement that = (JavadocElement) o;
     return Objects.equals(name, that.name) &&
-        Objects.equals(description, that.description) &&
+        Objects.equals(description.getIfPresent(), that.description.getIfPresent()) &&
         Objects.equals(url, that.url);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(name, description, url);
+    return Objects.hash(name, description.getIfPresent(), url);
   }
 
   @Override
   public String toString() {
     return "JavadocElement{" +
         "name='" + name + '\'' +
-        ", description='" + description + '\'' +
+        ", description='" + description.getIfPresent() + '\'' +
         ", url='" + url + '\'' +
         '}';
   }
@@ -1,12 +1,11 @@
 package me.ialistannen.javadocbot.javadoc.model;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
 import me.ialistannen.javadocbot.javadoc.parsing.MethodParser;
+import me.ialistannen.javadocbot.util.Memoized;
 import me.ialistannen.javadocbot.util.Pair;
 import me.ialistannen.javadocbot.util.StringUtil;
 
@@ -18,9 +17,9 @@ public class JavadocMethod extends JavadocElement {
   private JavadocClass containingClass;
   private MethodParser methodParser;
 
-  private String returnValue;
-  private String declaration;
-  private String shortDescription;
+  // loaded from the class page for methods read from a search index
+  private final Memoized<Details> details = new Memoized<>(this::loadDetails);
+  private final Memoized<MethodSignature> signature = new Memoized<>(this::loadSignature);
 
   private boolean inherited;
 
@@ -39,28 +38,81 @@ public class JavadocMethod extends JavadocElement {
       JavadocClass containingClass, MethodParser methodParser, boolean inherited) {
     super(name, null, url);
     this.methodParser = Objects.requireNonNull(methodParser, "methodParser can not be null!");
-    this.declaration = Objects.requireNonNull(declaration, "declaration can not be null!");
-    this.returnValue = Objects.requireNonNull(returnValue, "returnValue can not be null!");
-    this.shortDescription = Objects
-        .requireNonNull(shortDescription, "shortDescription can not be null!");
+    this.details.set(new Details(
+        Objects.requireNonNull(returnValue, "returnValue can not be null!"),
+        Objects.requireNonNull(declaration, "declaration can not be null!"),
+        Objects.requireNonNull(shortDescription, "shortDescription can not be null!")
+    ));
     this.containingClass = Objects
         .requireNonNull(containingClass, "containingClass can not be null!");
     this.inherited = inherited;
   }
 
-  @SuppressWarnings("Duplicates")
+  /**
+   * Creates a declared method of which only the parameter types are known, e.g. from a search
+   * index. The return value, declaration and short description are read from the page of the
+   * class when one of them is first needed.
+   *
+   * @param name The name of the element
+   * @param url The URL to the element
+   * @param parameters The parameters in the format of {@link #getParameters()}. The name may be
+   * an empty String if it is unknown.
+   * @param containingClass The {@link JavadocClass} this method is contained inside.
+   * @param methodParser The {@link MethodParser}
+   */
+  public JavadocMethod(String name, String url, List<Pair<String, String>> parameters,
+      JavadocClass containingClass, MethodParser methodParser) {
+    super(name, null, url);
+    this.methodParser = Objects.requireNonNull(methodParser, "methodParser can not be null!");
+    this.containingClass = Objects
+        .requireNonNull(containingClass, "containingClass can not be null!");
+    this.signature.set(MethodSignature.of(name, "", parameters));
+  }
+
+  /**
+   * Creates a method whose signature was already parsed, e.g. from the page of its class.
+   *
+   * @param name The name of the element
+   * @param url The URL to the element
+   * @param returnValue The return value of the Method
+   * @param declaration The declaration of the method
+   * @param shortDescription A short description of the method
+   * @param signature The parsed declaration
+   * @param containingClass The {@link JavadocClass} this method is contained inside.
+   * @param methodParser The {@link MethodParser}
+   * @param inherited Whether the method is inherited.
+   */
+  public JavadocMethod(String name, String url,
+      String returnValue, String declaration, String shortDescription,
+      MethodSignature signature,
+      JavadocClass containingClass, MethodParser methodParser, boolean inherited) {
+    this(
+        name, url, returnValue, declaration, shortDescription,
+        containingClass, methodParser, inherited
+    );
+    this.signature.set(Objects.requireNonNull(signature, "signature can not be null!"));
+  }
+
   @Override
-  public String getDescription() {
-    synchronized (this) {
-      String description = super.getDescription();
-      if (description != null) {
-        return description;
-      }
-      description = methodParser.parseDescription(this);
-
-      setDescription(description);
-      return description;
+  protected String loadDescription() {
+    return methodParser.parseDescription(this);
+  }
+
+  private Details loadDetails() {
+    MethodRow row = methodParser.findMethodRow(this);
+    if (row == null) {
+      // not in the method summary, all that is known are the parameter types
+      String parameters = getParameters().stream()
+          .map(Pair::getKey)
+          .collect(Collectors.joining(", "));
+      return new Details("", getName() + "(" + parameters + ")", "");
     }
+    signature.set(row.getSignature());
+    return new Details(row.getReturnType(), row.getDeclaration(), row.getShortDescription());
+  }
+
+  private MethodSignature loadSignature() {
+    return MethodSignature.parse(StringUtil.stripFormatting(getDeclaration()));
   }
 
   /**
@@ -70,14 +122,14 @@ public class JavadocMethod extends JavadocElement {
    * <br>As always it <em>will</em> already be markdown formatted. This is important, as links will
    * look different.
    *
-   * <p>This method will <em>not</em> cause an additional web request, if {@link #isInherited()} is
-   * false.
+   * <p>This method will <em>not</em> cause an additional web request, unless it was read from a
+   * search index and the page of its class is not loaded yet.
    *
    * @return The declaration of the method
    */
   @SuppressWarnings("WeakerAccess")
   public String getDeclaration() {
-    return declaration;
+    return details.get().declaration;
   }
 
   /**
@@ -92,7 +144,7 @@ public class JavadocMethod extends JavadocElement {
   @SuppressWarnings("unused")
   public String getNameWithParameters() {
     String parameters = getParameters().stream()
-        .map(entry -> entry.getKey() + " " + entry.getValue())
+        .map(entry -> (entry.getKey() + " " + entry.getValue()).trim())
         .collect(Collectors.joining(", "));
     return getName() + "(" + parameters + ")";
   }
@@ -100,27 +152,27 @@ public class JavadocMethod extends JavadocElement {
   /**
    * Returns the return value of the method.
    *
-   * <p>This method will <em>not</em> cause an additional web request, if {@link #isInherited()} is
-   * false.
+   * <p>This method will <em>not</em> cause an additional web request, unless it was read from a
+   * search index and the page of its class is not loaded yet.
    *
    * @return The return value
    */
   @SuppressWarnings("unused")
   public String getReturnValue() {
-    return returnValue;
+    return details.get().returnValue;
   }
 
   /**
    * Returns the (typically) first line of the javadoc of the method
    *
-   * <p>This method will <em>not</em> cause an additional web request, if {@link #isInherited()} is
-   * false.
+   * <p>This method will <em>not</em> cause an additional web request, unless it was read from a
+   * search index and the page of its class is not loaded yet.
    *
    * @return A short description of the method, if any
    */
   @SuppressWarnings("unused")
   public String getShortDescription() {
-    return shortDescription;
+    return details.get().shortDescription;
   }
 
   /**
@@ -134,12 +186,28 @@ public class JavadocMethod extends JavadocElement {
     return containingClass;
   }
 
+  /**
+   * Returns the signature of the method, split into modifiers, types, parameters and exceptions.
+   *
+   * <p>This method will <em>not</em> cause an additional web request.
+   *
+   * @return The parsed declaration of the method
+   */
+  @SuppressWarnings("WeakerAccess")
+  public MethodSignature getSignature() {
+    return signature.get();
+  }
+
   /**
    * @return The declaration without the throws modifier
    */
   @SuppressWarnings("unused")
   public String getDeclarationWithoutExceptions() {
-    return getDeclaration().replaceAll(" ?throws.+", "");
+    int throwsIndex = StringUtil.indexOfWord(getDeclaration(), "throws");
+    if (throwsIndex < 0) {
+      return getDeclaration();
+    }
+    return getDeclaration().substring(0, throwsIndex).trim();
   }
 
   /**
@@ -147,50 +215,25 @@ public class JavadocMethod extends JavadocElement {
    */
   @SuppressWarnings("unused")
   public String getExceptions() {
-    Matcher matcher = Pattern.compile(
-        "( ?throws .+)",
-        Pattern.CASE_INSENSITIVE
-    ).matcher(getDeclaration());
-
-    if (!matcher.find()) {
+    int throwsIndex = StringUtil.indexOfWord(getDeclaration(), "throws");
+    if (throwsIndex < 0) {
       return "";
     }
-
-    return matcher.group(1);
+    return getDeclaration().substring(throwsIndex).trim();
   }
 
   /**
    * Returns the parameters of the method <p> Format: <br><em>Key:</em> Type <br><em>Value:</em>
-   * Name
+   * Name (may be empty if the method was read from a search index)
    *
    * <p>This method will <em>not</em> cause an additional web request, if {@link #isInherited()} is
    * false.
    *
-   * @return The method parameters. Empty if none
+   * @return The method parameters, unmodifiable. Empty if none
+   * @see #getSignature()
    */
   public List<Pair<String, String>> getParameters() {
-    List<Pair<String, String>> parameters = new ArrayList<>(3);
-
-    String declaration = StringUtil.stripFormatting(getDeclaration());
-    declaration = declaration.substring(declaration.indexOf("(") + 1);
-    declaration = declaration.substring(0, declaration.indexOf(")"));
-
-    // Non-Breaking-Space hell
-    declaration = declaration.replace("\u00A0", " ");
-
-    Matcher matcher = Pattern.compile("([^\\s,]+)").matcher(declaration);
-
-    String tmp = null;
-    while (matcher.find()) {
-      if (tmp == null) {
-        tmp = matcher.group(1);
-      } else {
-        parameters.add(new Pair<>(tmp, matcher.group(1)));
-        tmp = null;
-      }
-    }
-
-    return parameters;
+    return getSignature().getParameters();
   }
 
   /**
@@ -206,14 +249,31 @@ public class JavadocMethod extends JavadocElement {
 
   @Override
   public String toString() {
+    Details loaded = details.getIfPresent();
     return "JavadocMethod{" +
         "methodParser=" + methodParser +
-        ", returnValue='" + returnValue + '\'' +
-        ", declaration='" + declaration + '\'' +
-        ", shortDescription='" + shortDescription + '\'' +
+        ", returnValue='" + (loaded == null ? null : loaded.returnValue) + '\'' +
+        ", declaration='" + (loaded == null ? null : loaded.declaration) + '\'' +
+        ", shortDescription='" + (loaded == null ? null : loaded.shortDescription) + '\'' +
         ", containingClass='" + containingClass.getName() + '\'' +
         ", name='" + getName() + '\'' +
         ", url='" + getUrl() + '\'' +
         "} " + super.toString();
   }
+
+  /**
+   * The parts of a method that are read from the method summary
+   */
+  private static class Details {
+
+    private final String returnValue;
+    private final String declaration;
+    private final String shortDescription;
+
+    Details(String returnValue, String declaration, String shortDescription) {
+      this.returnValue = returnValue;
+      this.declaration = declaration;
+      this.shortDescription = shortDescription;
+    }
+  }
 }
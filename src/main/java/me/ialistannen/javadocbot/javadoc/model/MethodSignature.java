@@ -0,0 +1,248 @@
+package me.ialistannen.javadocbot.javadoc.model;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import me.ialistannen.javadocbot.util.Pair;
+
+/**
+ * The typed signature of a method or constructor, split into its parts once.
+ * <p>
+ * All parts are plain text (no markdown) with normalized whitespace. Parts that are not present
+ * are empty, never null. Instances are immutable, so all getters are simple field reads.
+ */
+public final class MethodSignature {
+
+  private static final ImmutableSet<String> MODIFIERS = ImmutableSet.of(
+      "public", "protected", "private", "static", "abstract", "final", "native",
+      "synchronized", "strictfp", "default", "transient", "volatile"
+  );
+
+  private final ImmutableList<String> annotations;
+  private final ImmutableList<String> modifiers;
+  private final String typeParameters;
+  private final String returnType;
+  private final String name;
+  private final ImmutableList<Pair<String, String>> parameters;
+  private final boolean varargs;
+  private final ImmutableList<String> exceptions;
+
+  private MethodSignature(List<String> annotations, List<String> modifiers, String typeParameters,
+      String returnType, String name, List<Pair<String, String>> parameters,
+      List<String> exceptions) {
+    this.annotations = ImmutableList.copyOf(annotations);
+    this.modifiers = ImmutableList.copyOf(modifiers);
+    this.typeParameters = typeParameters;
+    this.returnType = returnType;
+    this.name = name;
+    this.parameters = ImmutableList.copyOf(parameters);
+    this.varargs = !parameters.isEmpty()
+        && parameters.get(parameters.size() - 1).getKey().endsWith("...");
+    this.exceptions = ImmutableList.copyOf(exceptions);
+  }
+
+  /**
+   * Creates a signature from already known parts, e.g. from a search index.
+   *
+   * @param name The name of the method
+   * @param returnType The return type. May be empty.
+   * @param parameters The parameters in the format of {@link #getParameters()}
+   * @return The created signature
+   */
+  public static MethodSignature of(String name, String returnType,
+      List<Pair<String, String>> parameters) {
+    Objects.requireNonNull(name, "name can not be null!");
+    Objects.requireNonNull(returnType, "returnType can not be null!");
+    Objects.requireNonNull(parameters, "parameters can not be null!");
+
+    List<Pair<String, String>> normalized = new ArrayList<>(parameters.size());
+    for (Pair<String, String> parameter : parameters) {
+      normalized.add(new Pair<>(
+          SignatureParser.normalizeWhitespace(parameter.getKey()),
+          parameter.getValue() == null ? "" : parameter.getValue()
+      ));
+    }
+    return new MethodSignature(
+        ImmutableList.of(), ImmutableList.of(), "",
+        SignatureParser.normalizeWhitespace(returnType), name, normalized, ImmutableList.of()
+    );
+  }
+
+  /**
+   * Creates a signature from all of its parts, e.g. when reading back a stored one.
+   *
+   * @param annotations The annotations, see {@link #getAnnotations()}
+   * @param modifiers The modifiers, see {@link #getModifiers()}
+   * @param typeParameters The type parameters. May be empty.
+   * @param returnType The return type. May be empty.
+   * @param name The name of the method
+   * @param parameters The parameters in the format of {@link #getParameters()}
+   * @param exceptions The declared exceptions
+   * @return The created signature
+   */
+  public static MethodSignature of(List<String> annotations, List<String> modifiers,
+      String typeParameters, String returnType, String name, List<Pair<String, String>> parameters,
+      List<String> exceptions) {
+    Objects.requireNonNull(annotations, "annotations can not be null!");
+    Objects.requireNonNull(modifiers, "modifiers can not be null!");
+    Objects.requireNonNull(typeParameters, "typeParameters can not be null!");
+    Objects.requireNonNull(returnType, "returnType can not be null!");
+    Objects.requireNonNull(name, "name can not be null!");
+    Objects.requireNonNull(parameters, "parameters can not be null!");
+    Objects.requireNonNull(exceptions, "exceptions can not be null!");
+
+    return new MethodSignature(
+        annotations, modifiers, typeParameters, returnType, name, parameters, exceptions
+    );
+  }
+
+  /**
+   * Parses the plain text declaration of a method, as found in the method detail.
+   * <p>
+   * A missing part is left empty, this method never throws on malformed input.
+   *
+   * @param declaration The declaration, e.g. {@code public static <T> void sort(T[] a,
+   * Comparator<? super T> c) throws Foo}
+   * @return The parsed signature
+   */
+  public static MethodSignature parse(String declaration) {
+    List<String> annotations = new ArrayList<>();
+    String text = SignatureParser.extractAnnotations(
+        SignatureParser.normalizeWhitespace(declaration), annotations
+    );
+
+    int open = SignatureParser.indexOfTopLevel(text, '(');
+    String header = open < 0 ? text : text.substring(0, open);
+    int close = open < 0 ? -1 : SignatureParser.findClosing(text, open);
+    String parameterList = open < 0 ? "" : text.substring(open + 1, Math.max(open + 1, close));
+    String tail = close < 0 ? "" : text.substring(close + 1).trim();
+
+    List<String> headerTokens = SignatureParser.splitTopLevel(header, ' ');
+    String name = headerTokens.isEmpty() ? "" : headerTokens.remove(headerTokens.size() - 1);
+
+    List<String> modifiers = new ArrayList<>();
+    String typeParameters = "";
+    StringBuilder returnType = new StringBuilder();
+    for (String token : headerTokens) {
+      if (MODIFIERS.contains(token) && returnType.length() == 0) {
+        modifiers.add(token);
+      } else if (token.startsWith("<") && returnType.length() == 0 && typeParameters.isEmpty()) {
+        typeParameters = token;
+      } else {
+        if (returnType.length() > 0) {
+          returnType.append(' ');
+        }
+        returnType.append(token);
+      }
+    }
+
+    List<Pair<String, String>> parameters = new ArrayList<>();
+    for (String parameter : SignatureParser.splitTopLevel(parameterList, ',')) {
+      parameters.add(parseParameter(parameter));
+    }
+
+    List<String> exceptions = new ArrayList<>();
+    if (tail.startsWith("throws ")) {
+      exceptions.addAll(SignatureParser.splitTopLevel(tail.substring("throws ".length()), ','));
+    }
+
+    return new MethodSignature(
+        annotations, modifiers, typeParameters, returnType.toString(), name, parameters, exceptions
+    );
+  }
+
+  private static Pair<String, String> parseParameter(String parameter) {
+    String text = SignatureParser.extractAnnotations(parameter, new ArrayList<>());
+    List<String> tokens = SignatureParser.splitTopLevel(text, ' ');
+    tokens.remove("final");
+
+    if (tokens.size() < 2) {
+      return new Pair<>(tokens.isEmpty() ? "" : tokens.get(0), "");
+    }
+    String name = tokens.remove(tokens.size() - 1);
+    return new Pair<>(String.join(" ", tokens), name);
+  }
+
+  /**
+   * @return The annotations, including their arguments
+   */
+  public List<String> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * @return The modifiers, in declaration order
+   */
+  public List<String> getModifiers() {
+    return modifiers;
+  }
+
+  /**
+   * @param modifier The modifier, e.g. {@code static}
+   * @return True if the method has it
+   */
+  public boolean hasModifier(String modifier) {
+    return modifiers.contains(modifier);
+  }
+
+  /**
+   * @return The type parameters including the angle brackets or an empty String
+   */
+  public String getTypeParameters() {
+    return typeParameters;
+  }
+
+  /**
+   * @return The return type or an empty String for constructors
+   */
+  public String getReturnType() {
+    return returnType;
+  }
+
+  /**
+   * @return The name of the method
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the parameters <p> Format: <br><em>Key:</em> Type <br><em>Value:</em> Name (may be
+   * empty if it is unknown)
+   *
+   * @return The parameters. Empty if none
+   */
+  public List<Pair<String, String>> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * @return True if the last parameter is a varargs one
+   */
+  public boolean isVarargs() {
+    return varargs;
+  }
+
+  /**
+   * @return The exceptions declared using {@code throws}
+   */
+  public List<String> getExceptions() {
+    return exceptions;
+  }
+
+  @Override
+  public String toString() {
+    return "MethodSignature{" +
+        "annotations=" + annotations +
+        ", modifiers=" + modifiers +
+        ", typeParameters='" + typeParameters + '\'' +
+        ", returnType='" + returnType + '\'' +
+        ", name='" + name + '\'' +
+        ", parameters=" + parameters +
+        ", varargs=" + varargs +
+        ", exceptions=" + exceptions +
+        '}';
+  }
+}
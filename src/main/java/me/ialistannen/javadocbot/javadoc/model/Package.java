@@ -45,23 +45,9 @@ public class Package extends JavadocElement {
     return Collections.unmodifiableCollection(classes);
   }
 
-  /**
-   * May involve a blocking web request.
-   *
-   * @return The description of this package
-   */
-  @SuppressWarnings("Duplicates")
   @Override
-  public String getDescription() {
-    synchronized (this) {
-      String description = super.getDescription();
-      if (description != null) {
-        return description;
-      }
-      description = packageParser.parseDescription(this);
-      setDescription(description);
-      return description;
-    }
+  protected String loadDescription() {
+    return packageParser.parseDescription(this);
   }
 
   /**
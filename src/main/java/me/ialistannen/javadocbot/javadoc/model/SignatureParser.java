@@ -0,0 +1,161 @@
+package me.ialistannen.javadocbot.javadoc.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits plain text declarations into their parts. Nothing in here throws on malformed input, the
+ * worst outcome are odd parts.
+ */
+final class SignatureParser {
+
+  /**
+   * @param text The text to normalize
+   * @return The text with all whitespace (including non breaking spaces) collapsed to a single
+   * space and trimmed
+   */
+  static String normalizeWhitespace(String text) {
+    StringBuilder result = new StringBuilder(text.length());
+    boolean lastWasSpace = true;
+    for (int i = 0; i < text.length(); i++) {
+      char current = text.charAt(i);
+      if (Character.isWhitespace(current) || current == '\u00A0') {
+        if (!lastWasSpace) {
+          result.append(' ');
+          lastWasSpace = true;
+        }
+      } else {
+        result.append(current);
+        lastWasSpace = false;
+      }
+    }
+    int length = result.length();
+    if (length > 0 && result.charAt(length - 1) == ' ') {
+      result.setLength(length - 1);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Removes all annotations (with their arguments) on the top level and collects them.
+   * {@code @interface} is kept, as it is a keyword.
+   *
+   * @param text The normalized text
+   * @param annotations The list to add the found annotations to
+   * @return The text without annotations
+   */
+  static String extractAnnotations(String text, List<String> annotations) {
+    if (text.indexOf('@') < 0) {
+      return text;
+    }
+    StringBuilder result = new StringBuilder(text.length());
+    int depth = 0;
+    int i = 0;
+    while (i < text.length()) {
+      char current = text.charAt(i);
+      if (depth == 0 && current == '@' && !text.startsWith("@interface", i)) {
+        int end = i + 1;
+        while (end < text.length() && isNamePart(text.charAt(end))) {
+          end++;
+        }
+        if (end < text.length() && text.charAt(end) == '(') {
+          end = findClosing(text, end) + 1;
+        }
+        annotations.add(text.substring(i, end));
+        i = end;
+        // swallow the space after it
+        if (i < text.length() && text.charAt(i) == ' ') {
+          i++;
+        }
+        continue;
+      }
+      if (current == '<' || current == '(') {
+        depth++;
+      } else if ((current == '>' || current == ')') && depth > 0) {
+        depth--;
+      }
+      result.append(current);
+      i++;
+    }
+    return result.toString().trim();
+  }
+
+  /**
+   * Splits the text at the separator, ignoring separators inside type arguments or parentheses.
+   *
+   * @param text The normalized text
+   * @param separator The separator
+   * @return The trimmed, non empty parts
+   */
+  static List<String> splitTopLevel(String text, char separator) {
+    List<String> parts = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char current = text.charAt(i);
+      if (current == '<' || current == '(') {
+        depth++;
+      } else if ((current == '>' || current == ')') && depth > 0) {
+        depth--;
+      } else if (current == separator && depth == 0) {
+        addPart(parts, text.substring(start, i));
+        start = i + 1;
+      }
+    }
+    addPart(parts, text.substring(start));
+    return parts;
+  }
+
+  /**
+   * @param text The normalized text
+   * @param character The character to find
+   * @return The index of the first occurrence outside of type arguments or -1
+   */
+  static int indexOfTopLevel(String text, char character) {
+    int depth = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char current = text.charAt(i);
+      if (current == character && depth == 0) {
+        return i;
+      }
+      if (current == '<') {
+        depth++;
+      } else if (current == '>' && depth > 0) {
+        depth--;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param text The text
+   * @param open The index of the opening parenthesis
+   * @return The index of the matching closing parenthesis or the last index if there is none
+   */
+  static int findClosing(String text, int open) {
+    int depth = 0;
+    for (int i = open; i < text.length(); i++) {
+      char current = text.charAt(i);
+      if (current == '(') {
+        depth++;
+      } else if (current == ')') {
+        depth--;
+        if (depth == 0) {
+          return i;
+        }
+      }
+    }
+    return text.length() - 1;
+  }
+
+  private static void addPart(List<String> parts, String part) {
+    String trimmed = part.trim();
+    if (!trimmed.isEmpty()) {
+      parts.add(trimmed);
+    }
+  }
+
+  private static boolean isNamePart(char character) {
+    return Character.isJavaIdentifierPart(character) || character == '.';
+  }
+}
@@ -3,11 +3,12 @@ package me.ialistannen.javadocbot.javadoc.parsing;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import me.ialistannen.javadocbot.javadoc.model.ClassNameCollection;
+import me.ialistannen.javadocbot.javadoc.source.HttpPageSource;
+import me.ialistannen.javadocbot.javadoc.source.PageSource;
+import me.ialistannen.javadocbot.util.HtmlTokenizer;
 import me.ialistannen.javadocbot.util.JsoupUtil;
 import me.ialistannen.javadocbot.util.LinkUtil;
-import me.ialistannen.javadocbot.util.Pair;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
+import org.jsoup.helper.StringUtil;
 
 /**
  * Parses the {@code all-classes} page in order to build an index
@@ -16,31 +17,75 @@ public class AllClassParser {
 
   private static final String APPENDIX = "/allclasses-noframe.html";
 
+  private final PageSource pageSource;
+
+  /**
+   * Reads the page from the web.
+   */
+  public AllClassParser() {
+    this(new HttpPageSource());
+  }
+
+  /**
+   * @param pageSource The {@link PageSource} to read the page from
+   */
+  public AllClassParser(PageSource pageSource) {
+    this.pageSource = pageSource;
+  }
+
   /**
    * Parses the given URL and returns all classes found in the javadoc
+   * <p>
+   * The page is streamed through a {@link HtmlTokenizer}, as it can be huge and only the links
+   * are needed.
    *
    * @param baseUrl The base URL for the javadoc
    * @return All class names with their link
    */
   public ClassNameCollection parse(String baseUrl) {
-    Document document = JsoupUtil
-        .parseUrl(LinkUtil.concatLinksIgnoreDoubleSlash(baseUrl, APPENDIX));
-
-    Multimap<String, String> map = document.getElementsByTag("li")
-        .stream()
-        .filter(element -> element.childNodeSize() > 0)
-        .filter(element -> element.child(0).tagName().equalsIgnoreCase("a"))
-        .map(element -> element.child(0))
-        .map(this::parseListItem)
-        .collect(HashMultimap::create,
-            (multimap, pair) -> multimap.put(pair.getKey(), pair.getValue()),
-            Multimap::putAll
-        );
+    String url = LinkUtil.concatLinksIgnoreDoubleSlash(baseUrl, APPENDIX);
+    HtmlTokenizer tokenizer = new HtmlTokenizer(JsoupUtil.readUrl(url, pageSource).getText());
+
+    Multimap<String, String> map = HashMultimap.create();
+    // the link of an "li > a" whose first child is the link, while reading its text
+    String link = null;
+    StringBuilder name = new StringBuilder();
+    boolean firstChildOfListItem = false;
+
+    while (tokenizer.next()) {
+      switch (tokenizer.getType()) {
+        case START_TAG:
+          if (firstChildOfListItem && tokenizer.isStartTag("a")) {
+            link = absUrl(url, tokenizer.getAttribute("href"));
+          }
+          firstChildOfListItem = tokenizer.isStartTag("li");
+          break;
+        case END_TAG:
+          if (link != null && tokenizer.isEndTag("a")) {
+            map.put(name.toString().trim(), link);
+            link = null;
+            name.setLength(0);
+          }
+          break;
+        case TEXT:
+          if (link != null) {
+            tokenizer.appendNormalizedText(name);
+          }
+          break;
+      }
+    }
 
     return new ClassNameCollection(map);
   }
 
-  private Pair<String, String> parseListItem(Element element) {
-    return new Pair<>(element.text(), element.absUrl("href"));
+  /**
+   * Resolves a link like {@link org.jsoup.nodes.Element#absUrl(String)} does.
+   *
+   * @param pageUrl The url of the page
+   * @param href The link or null
+   * @return The absolute link or an empty String if there is none
+   */
+  static String absUrl(String pageUrl, String href) {
+    return href == null ? "" : StringUtil.resolve(pageUrl, href);
   }
 }
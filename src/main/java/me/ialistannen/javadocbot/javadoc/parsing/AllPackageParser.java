@@ -3,11 +3,11 @@ package me.ialistannen.javadocbot.javadoc.parsing;
 import java.util.ArrayList;
 import java.util.List;
 import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.source.HttpPageSource;
+import me.ialistannen.javadocbot.javadoc.source.PageSource;
+import me.ialistannen.javadocbot.util.HtmlTokenizer;
 import me.ialistannen.javadocbot.util.JsoupUtil;
 import me.ialistannen.javadocbot.util.LinkUtil;
-import me.ialistannen.javadocbot.util.Pair;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 
 /**
  * Finds all {@link Package}s.
@@ -17,33 +17,71 @@ public class AllPackageParser {
   private static final String APPENDIX = "/overview-summary.html";
 
   private PackageParser packageParser;
+  private PageSource pageSource;
 
+  /**
+   * Reads the page from the web.
+   *
+   * @param packageParser The {@link PackageParser} to pass to the packages
+   */
   public AllPackageParser(PackageParser packageParser) {
+    this(packageParser, new HttpPageSource());
+  }
+
+  /**
+   * @param packageParser The {@link PackageParser} to pass to the packages
+   * @param pageSource The {@link PageSource} to read the page from
+   */
+  public AllPackageParser(PackageParser packageParser, PageSource pageSource) {
     this.packageParser = packageParser;
+    this.pageSource = pageSource;
   }
 
   /**
    * Parses the given URL and returns all classes found in the javadoc
+   * <p>
+   * The page is streamed through a {@link HtmlTokenizer}, as only the rows of the overview table
+   * are needed.
    *
    * @param baseUrl The base URL for the javadoc
    * @return All class names with their link
    */
   public List<Package> parse(String baseUrl) {
-    Document document = JsoupUtil
-        .parseUrl(LinkUtil.concatLinksIgnoreDoubleSlash(baseUrl, APPENDIX));
+    String url = LinkUtil.concatLinksIgnoreDoubleSlash(baseUrl, APPENDIX);
+    HtmlTokenizer tokenizer = new HtmlTokenizer(JsoupUtil.readUrl(url, pageSource).getText());
 
     List<Package> packages = new ArrayList<>();
-
-    document.getElementsByTag("table").stream()
-        .filter(element -> element.hasClass("overviewSummary"))
-        .flatMap(element -> element.getElementsByTag("tbody").stream())
-        .forEach(tbody -> {
-          for (Element row : tbody.getElementsByTag("tr")) {
-            if (row.getElementsByTag("th").isEmpty()) {
-              packages.add(getPackageFromRow(row));
-            }
+    // > 0 while inside an "overviewSummary" table
+    int tableDepth = 0;
+    Row row = null;
+
+    while (tokenizer.next()) {
+      if (tokenizer.isStartTag("table")) {
+        if (tableDepth > 0 || tokenizer.hasClass("overviewSummary")) {
+          tableDepth++;
+        }
+        continue;
+      }
+      if (tokenizer.isEndTag("table") && tableDepth > 0) {
+        tableDepth--;
+        continue;
+      }
+      if (tableDepth == 0) {
+        continue;
+      }
+
+      if (tokenizer.isStartTag("tr")) {
+        row = new Row();
+      } else if (row != null) {
+        row.accept(tokenizer, url);
+        if (tokenizer.isEndTag("tr")) {
+          if (row.isPackage()) {
+            packages.add(getPackageFromRow(row));
           }
-        });
+          row = null;
+        }
+      }
+    }
 
     return packages;
   }
@@ -54,36 +92,67 @@ public class AllPackageParser {
    * @param row The row to get it from
    * @return A {@link Package} built from the data of the row
    */
-  private Package getPackageFromRow(Element row) {
-    Pair<String, String> nameAndUrl = extractNameAndUrlFromRow(row);
-    String shortDescription = extractShortDescriptionFromRow(row);
-
+  private Package getPackageFromRow(Row row) {
     return new Package(
-        nameAndUrl.getKey(), nameAndUrl.getValue(), shortDescription, packageParser
+        row.name.toString().trim(), row.url, row.shortDescription.toString().trim(),
+        packageParser
     );
   }
 
   /**
-   * @param row The row to get it from
-   * @return A pair with the name (key) and url (value)
+   * The data of a single table row, collected while streaming over it
    */
-  private Pair<String, String> extractNameAndUrlFromRow(Element row) {
-    Element td = row.getElementsByTag("td").get(0);
-    Element a = td.getElementsByTag("a").get(0);
-
-    String name = a.text();
-    String url = a.absUrl("href");
-
-    return new Pair<>(name, url);
-  }
-
-  /**
-   * @param row The row to get it from
-   * @return The short description (or an empty string)
-   */
-  private String extractShortDescriptionFromRow(Element row) {
-    Element td = row.getElementsByTag("td").get(1);
-
-    return td.text();
+  private static class Row {
+
+    private boolean header;
+    private int cell = -1;
+    private String url;
+    private boolean inLink;
+    private final StringBuilder name = new StringBuilder();
+    private final StringBuilder shortDescription = new StringBuilder();
+
+    /**
+     * @param tokenizer The tokenizer, positioned at a token inside the row
+     * @param pageUrl The url of the page, to resolve links against
+     */
+    void accept(HtmlTokenizer tokenizer, String pageUrl) {
+      switch (tokenizer.getType()) {
+        case START_TAG:
+          if (tokenizer.isStartTag("th")) {
+            header = true;
+          } else if (tokenizer.isStartTag("td")) {
+            cell++;
+          } else if (cell == 0 && url == null && tokenizer.isStartTag("a")) {
+            url = AllClassParser.absUrl(pageUrl, tokenizer.getAttribute("href"));
+            inLink = true;
+          } else if (cell == 1 && isBlock(tokenizer.getTagName())) {
+            shortDescription.append(' ');
+          }
+          break;
+        case END_TAG:
+          if (tokenizer.isEndTag("a")) {
+            inLink = false;
+          }
+          break;
+        case TEXT:
+          if (inLink) {
+            tokenizer.appendNormalizedText(name);
+          } else if (cell == 1) {
+            tokenizer.appendNormalizedText(shortDescription);
+          }
+          break;
+      }
+    }
+
+    /**
+     * @return True if this is no header row and has a link to a package
+     */
+    boolean isPackage() {
+      return !header && url != null;
+    }
+
+    private static boolean isBlock(String tagName) {
+      return tagName.equals("div") || tagName.equals("p") || tagName.equals("br");
+    }
   }
 }
@@ -0,0 +1,247 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature;
+import me.ialistannen.javadocbot.javadoc.model.MethodSignature;
+
+/**
+ * Everything the parsers need from the page of a class, extracted in a single pass.
+ * <p>
+ * It holds no reference to the parsed {@link org.jsoup.nodes.Document}, so the DOM can be
+ * released as soon as the snapshot is taken. The declaration, description and method rows are
+ * already converted to markdown, the method details are kept as HTML and converted on demand.
+ */
+public class ClassPage {
+
+  private final String declaration;
+  private final ClassSignature signature;
+  private final String description;
+  private final ImmutableList<MethodRow> methodRows;
+  private final RuntimeException methodRowsError;
+  private final ImmutableListMultimap<String, String> inheritedMethodNames;
+  private final ImmutableMap<String, String> methodDetails;
+
+  /**
+   * @param declaration The declaration or null if not found
+   * @param signature The parsed declaration or null if not found
+   * @param description The description or null if not found
+   * @param methodRows The rows of the method summary or null if it couldn't be parsed
+   * @param methodRowsError The reason the method summary couldn't be parsed. Null if it could.
+   * @param inheritedMethodNames The names of the inherited methods, keyed by the name of the class
+   * they are inherited from
+   * @param methodDetails The HTML of the method details, keyed by the name of their anchor
+   */
+  ClassPage(String declaration, ClassSignature signature, String description,
+      List<MethodRow> methodRows, RuntimeException methodRowsError,
+      ImmutableListMultimap<String, String> inheritedMethodNames,
+      ImmutableMap<String, String> methodDetails) {
+    this.declaration = declaration;
+    this.signature = signature;
+    this.description = description;
+    this.methodRows = methodRows == null ? null : ImmutableList.copyOf(methodRows);
+    this.methodRowsError = methodRowsError;
+    this.inheritedMethodNames = inheritedMethodNames;
+    this.methodDetails = methodDetails;
+  }
+
+  /**
+   * @return The declaration of the class as a discord markdown string
+   * @throws NoSuchElementException if the page had no declaration
+   */
+  public String getDeclaration() {
+    if (declaration == null) {
+      throw new NoSuchElementException("Couldn't find the declaration");
+    }
+    return declaration;
+  }
+
+  /**
+   * @return The parsed declaration of the class
+   * @throws NoSuchElementException if the page had no declaration
+   */
+  public ClassSignature getSignature() {
+    if (signature == null) {
+      throw new NoSuchElementException("Couldn't find the declaration");
+    }
+    return signature;
+  }
+
+  /**
+   * @return The description of the class as a discord markdown string
+   * @throws NoSuchElementException if the page had no description
+   */
+  public String getDescription() {
+    if (description == null) {
+      throw new NoSuchElementException("Couldn't find the description");
+    }
+    return description;
+  }
+
+  /**
+   * @return The rows of the method summary, i.e. the declared methods
+   * @throws RuntimeException if the method summary couldn't be parsed
+   */
+  public List<MethodRow> getMethodRows() {
+    if (methodRows == null) {
+      throw methodRowsError;
+    }
+    return methodRows;
+  }
+
+  /**
+   * @return The names of all classes the class inherits methods from, in the order of the page
+   */
+  public List<String> getInheritedFrom() {
+    return inheritedMethodNames.keySet().asList();
+  }
+
+  /**
+   * @param className The name of the class, as returned by {@link #getInheritedFrom()}
+   * @return The names of the methods inherited from that class
+   */
+  public List<String> getInheritedMethodNames(String className) {
+    return inheritedMethodNames.get(className);
+  }
+
+  /**
+   * @param anchorName The name of the anchor of the method
+   * @return The HTML of the method detail or null if not found
+   */
+  public String getMethodDetail(String anchorName) {
+    return methodDetails.get(anchorName);
+  }
+
+  /**
+   * @return The declaration or null if the page had none
+   */
+  public String getDeclarationOrNull() {
+    return declaration;
+  }
+
+  /**
+   * @return The parsed declaration or null if the page had none
+   */
+  public ClassSignature getSignatureOrNull() {
+    return signature;
+  }
+
+  /**
+   * @return The description or null if the page had none
+   */
+  public String getDescriptionOrNull() {
+    return description;
+  }
+
+  /**
+   * @return The rows of the method summary or null if it couldn't be parsed
+   */
+  List<MethodRow> getMethodRowsOrNull() {
+    return methodRows;
+  }
+
+  /**
+   * @return The reason the method summary couldn't be parsed. Null if it could.
+   */
+  RuntimeException getMethodRowsError() {
+    return methodRowsError;
+  }
+
+  /**
+   * @return The names of the inherited methods, keyed by the name of the class they are inherited
+   * from
+   */
+  ImmutableListMultimap<String, String> getAllInheritedMethodNames() {
+    return inheritedMethodNames;
+  }
+
+  /**
+   * @return The HTML of the method details, keyed by the name of their anchor
+   */
+  ImmutableMap<String, String> getMethodDetails() {
+    return methodDetails;
+  }
+
+  /**
+   * @return True if the page had the expected layout and all parts could be extracted
+   */
+  boolean isComplete() {
+    return declaration != null && description != null && methodRows != null;
+  }
+
+  /**
+   * A single row of the method summary
+   */
+  public static class MethodRow {
+
+    private final String name;
+    private final String url;
+    private final String returnType;
+    private final String declaration;
+    private final MethodSignature signature;
+    private final String shortDescription;
+
+    /**
+     * @param name The name of the method
+     * @param url The URL of the method
+     * @param returnType The return type as a discord markdown string
+     * @param declaration The declaration as a discord markdown string
+     * @param signature The parsed declaration
+     * @param shortDescription The short description as a discord markdown string
+     */
+    MethodRow(String name, String url, String returnType, String declaration,
+        MethodSignature signature, String shortDescription) {
+      this.name = name;
+      this.url = url;
+      this.returnType = returnType;
+      this.declaration = declaration;
+      this.signature = signature;
+      this.shortDescription = shortDescription;
+    }
+
+    /**
+     * @return The name of the method
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return The URL of the method
+     */
+    public String getUrl() {
+      return url;
+    }
+
+    /**
+     * @return The return type as a discord markdown string
+     */
+    public String getReturnType() {
+      return returnType;
+    }
+
+    /**
+     * @return The declaration as a discord markdown string
+     */
+    public String getDeclaration() {
+      return declaration;
+    }
+
+    /**
+     * @return The parsed declaration
+     */
+    public MethodSignature getSignature() {
+      return signature;
+    }
+
+    /**
+     * @return The short description as a discord markdown string
+     */
+    public String getShortDescription() {
+      return shortDescription;
+    }
+  }
+}
@@ -0,0 +1,460 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.MethodSignature;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
+import me.ialistannen.javadocbot.util.HtmlToDiscordUtil;
+import me.ialistannen.javadocbot.util.JsoupUtil;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Takes {@link ClassPage} snapshots of class pages and caches them.
+ * <p>
+ * The page is walked once to collect all anchors and the description block. Everything else is
+ * found by following those, instead of searching the whole document again for every part.
+ * <p>
+ * Both the table based layout of javadoc 8 to 11 and the section based layout of javadoc 16+
+ * (e.g. the JDK 17 docs) are understood. Anchors are named in the former and have an id in the
+ * latter.
+ */
+public class ClassPageParser {
+
+  private static final String INHERITED_PREFIX = "methods.inherited.from.class.";
+  private static final String MODERN_INHERITED_PREFIX = "methods-inherited-from-class-";
+
+  private final JavadocSettings settings;
+  private final Cache<String, ClassPage> pages;
+  private final ClassPageStore store;
+
+  /**
+   * @param settings The {@link JavadocSettings} to use
+   */
+  public ClassPageParser(JavadocSettings settings) {
+    this.settings = settings;
+    this.pages = CacheBuilder.newBuilder()
+        .maximumSize(settings.getClassPageCacheSize())
+        .build();
+    this.store = new ClassPageStore(settings);
+  }
+
+  /**
+   * Returns the snapshot of the class page, fetching and parsing it if needed.
+   * <p>
+   * If a class cache directory is set, a snapshot stored there by a previous run is used instead
+   * of fetching the page, and new snapshots are stored there. See
+   * {@link JavadocSettings#setClassCacheDirectory(java.nio.file.Path)}.
+   * <p>
+   * The parsed document is dropped from the document cache afterwards, if the snapshot contains
+   * everything needed.
+   *
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @return The snapshot of the page
+   * @throws RuntimeException if the page could not be fetched
+   */
+  public ClassPage getPage(JavadocClass javadocClass) {
+    try {
+      return pages.get(javadocClass.getUrl(), () -> {
+        Optional<ClassPage> stored = store.read(javadocClass);
+        if (stored.isPresent()) {
+          return stored.get();
+        }
+        Document document = JsoupUtil.parseUrl(
+            javadocClass.getUrl(), settings.getPageSource(), settings.getDocumentCache()
+        );
+        ClassPage page = extract(javadocClass, document);
+        if (page.isComplete()) {
+          settings.getDocumentCache().invalidate(javadocClass.getUrl());
+        }
+        store.write(javadocClass, page);
+        return page;
+      });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Error while parsing the class page", e.getCause());
+    }
+  }
+
+  /**
+   * Returns the snapshot of the class page, if it is cached or stored in the class cache directory.
+   * This never fetches the page.
+   *
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @return The snapshot of the page, if it is available without fetching it
+   */
+  public Optional<ClassPage> getStoredPage(JavadocClass javadocClass) {
+    ClassPage cached = pages.getIfPresent(javadocClass.getUrl());
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    Optional<ClassPage> stored = store.read(javadocClass);
+    if (stored.isPresent()) {
+      pages.put(javadocClass.getUrl(), stored.get());
+    }
+    return stored;
+  }
+
+  /**
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @return The cached snapshot of the page or null if it is not cached
+   */
+  public ClassPage getPageIfPresent(JavadocClass javadocClass) {
+    return pages.getIfPresent(javadocClass.getUrl());
+  }
+
+  /**
+   * Takes the snapshot of an already parsed class page and caches it.
+   *
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @param document The parsed page of the class
+   * @return The snapshot of the page
+   */
+  public ClassPage parse(JavadocClass javadocClass, Document document) {
+    ClassPage page = extract(javadocClass, document);
+    pages.put(javadocClass.getUrl(), page);
+    store.write(javadocClass, page);
+    return page;
+  }
+
+  /**
+   * Removes all cached snapshots.
+   */
+  public void invalidateAll() {
+    pages.invalidateAll();
+  }
+
+  private ClassPage extract(JavadocClass javadocClass, Document document) {
+    Map<String, Element> anchorsByName = new HashMap<>();
+    List<Element> inheritedAnchors = new ArrayList<>();
+    Element descriptionItem = null;
+
+    for (Element element : document.getAllElements()) {
+      String name = getAnchorName(element);
+      if (name != null) {
+        anchorsByName.putIfAbsent(name, element);
+        if (getInheritedClassName(element) != null) {
+          inheritedAnchors.add(element);
+        }
+      }
+      if (descriptionItem == null && element.hasClass("description")) {
+        descriptionItem = findDescriptionItem(element);
+      }
+      // javadoc 16+
+      if (descriptionItem == null && element.hasClass("class-description")) {
+        descriptionItem = element;
+      }
+    }
+
+    String declaration = null;
+    ClassSignature signature = null;
+    String description = null;
+    Element hr = descriptionItem == null ? null : descriptionItem.getElementsByTag("hr").first();
+    if (hr != null) {
+      String declarationHtml = null;
+      StringBuilder descriptionHtml = null;
+
+      Element sibling = hr;
+      while ((sibling = sibling.nextElementSibling()) != null) {
+        if (declarationHtml == null && (sibling.tagName().equalsIgnoreCase("pre")
+            || sibling.hasClass("type-signature"))) {
+          declarationHtml = sibling.outerHtml();
+          signature = ClassSignature.parse(sibling.text());
+        }
+        // everything from the "block" element on
+        if (descriptionHtml == null && sibling.hasClass("block")) {
+          descriptionHtml = new StringBuilder();
+        }
+        if (descriptionHtml != null) {
+          descriptionHtml.append(sibling.outerHtml());
+        }
+      }
+
+      if (declarationHtml != null) {
+        declaration = toMarkdown(declarationHtml, settings.getBaseUrl());
+      }
+      description = toMarkdown(
+          descriptionHtml == null ? "" : descriptionHtml.toString(), settings.getBaseUrl()
+      );
+    }
+
+    List<MethodRow> methodRows = null;
+    RuntimeException methodRowsError = null;
+    Map<String, String> methodDetails = new HashMap<>();
+    try {
+      methodRows = extractMethodRows(javadocClass, anchorsByName, methodDetails);
+    } catch (RuntimeException e) {
+      methodRowsError = e;
+    }
+
+    ImmutableListMultimap.Builder<String, String> inheritedMethodNames = ImmutableListMultimap
+        .builder();
+    for (Element anchor : inheritedAnchors) {
+      String className = getInheritedClassName(anchor);
+      for (Element sibling : anchor.siblingElements()) {
+        if (!sibling.tagName().equalsIgnoreCase("code")) {
+          continue;
+        }
+        for (Element link : sibling.getElementsByTag("a")) {
+          if (link.hasAttr("href")) {
+            inheritedMethodNames.put(className, link.text());
+          }
+        }
+      }
+    }
+
+    return new ClassPage(
+        declaration, signature, description, methodRows, methodRowsError,
+        inheritedMethodNames.build(), ImmutableMap.copyOf(methodDetails)
+    );
+  }
+
+  /**
+   * Equivalent to the selector {@code .description > ul:nth-child(1) > li:nth-child(1)}.
+   *
+   * @param description The element with the "description" class
+   * @return The first list item or null if there is none
+   */
+  private Element findDescriptionItem(Element description) {
+    Element list = description.children().first();
+    if (list == null || !list.tagName().equalsIgnoreCase("ul")) {
+      return null;
+    }
+    Element item = list.children().first();
+    if (item == null || !item.tagName().equalsIgnoreCase("li")) {
+      return null;
+    }
+    return item;
+  }
+
+  private List<MethodRow> extractMethodRows(JavadocClass javadocClass,
+      Map<String, Element> anchorsByName, Map<String, String> methodDetails) {
+    Element summaryAnchor = anchorsByName.get("method.summary");
+    if (summaryAnchor == null) {
+      summaryAnchor = anchorsByName.get("method-summary");
+    }
+    if (summaryAnchor == null) {
+      throw new IllegalArgumentException("Couldn't find anchor");
+    }
+
+    String classUrl = javadocClass.getUrl();
+    List<MethodRow> rows = new ArrayList<>();
+    for (Element[] columns : findSummaryRows(summaryAnchor)) {
+      Element firstColumn = columns[0];
+      Element nameColumn = columns[1];
+      Element lastColumn = columns[2];
+
+      Element link = nameColumn.getElementsByClass("member-name-link").first();
+      if (link == null) {
+        Element memberNameLink = ensureExists(
+            nameColumn.getElementsByClass("memberNameLink").first(), "memberNameLink"
+        );
+        link = ensureExists(memberNameLink.getElementsByTag("a").first(), "link itself");
+      }
+
+      String url = toMarkdown(link.absUrl("href"), classUrl);
+      String anchorName = url.split("#")[1];
+      Element detailAnchor = ensureExists(anchorsByName.get(anchorName), "anchorName");
+      Element declarationElement = ensureExists(
+          findMemberSignature(findDetailBody(detailAnchor)), "declaration"
+      );
+
+      String returnType = toMarkdown(firstColumn.html(), classUrl);
+      String declaration = toMarkdown(declarationElement.html(), classUrl);
+      String shortDescription = toMarkdown(
+          JsoupUtil.toHtml(
+              JsoupUtil.findChildren(element -> element.hasClass("block"), lastColumn),
+              Element::html
+          ),
+          classUrl
+      );
+
+      rows.add(new MethodRow(
+          link.text(), url, returnType,
+          declaration, MethodSignature.parse(declarationElement.text()),
+          shortDescription
+      ));
+
+      String detail = extractMemberDetail(detailAnchor);
+      if (detail != null) {
+        methodDetails.put(anchorName, detail);
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Finds the rows of the method summary.
+   * <p>
+   * Javadoc 8 has the name and short description in the last column. Javadoc 11 has a separate
+   * name column. Javadoc 16+ lays the summary out as a grid of divs instead of a table.
+   *
+   * @param summaryAnchor The anchor of the method summary
+   * @return The return type, name and short description column of every row
+   */
+  private List<Element[]> findSummaryRows(Element summaryAnchor) {
+    List<Element[]> rows = new ArrayList<>();
+
+    Element grid = summaryAnchor.getElementsByClass("summary-table").first();
+    if (grid != null) {
+      Element[] row = null;
+      for (Element cell : grid.children()) {
+        if (cell.hasClass("table-header")) {
+          continue;
+        }
+        if (cell.hasClass("col-first")) {
+          row = new Element[3];
+          rows.add(row);
+          row[0] = cell;
+        } else if (row != null && cell.hasClass("col-second")) {
+          row[1] = cell;
+        } else if (row != null && cell.hasClass("col-last")) {
+          row[2] = cell;
+        }
+      }
+      for (Element[] columns : rows) {
+        ensureExists(columns[1], "col-second");
+        ensureExists(columns[2], "col-last");
+      }
+      return rows;
+    }
+
+    Element table = JsoupUtil.findFirstMatching(
+        element -> element.tagName().equalsIgnoreCase("table"),
+        summaryAnchor
+    );
+    if (table == null) {
+      throw new NoSuchElementException("Couldn't find table");
+    }
+    for (Element row : table.getElementsByTag("tr")) {
+      Element firstColumn = ensureExists(
+          row.getElementsByClass("colFirst").first(), "colFirst"
+      );
+      Element lastColumn = ensureExists(
+          row.getElementsByClass("colLast").first(), "colLast"
+      );
+      // skip header
+      if (firstColumn.tagName().equalsIgnoreCase("th")) {
+        continue;
+      }
+      Element nameColumn = row.getElementsByClass("colSecond").first();
+      rows.add(new Element[]{
+          firstColumn, nameColumn == null ? lastColumn : nameColumn, lastColumn
+      });
+    }
+    return rows;
+  }
+
+  /**
+   * @param element The element
+   * @return The name (javadoc 8) or id (javadoc 11+) of the anchor or null if it is none
+   */
+  private static String getAnchorName(Element element) {
+    if (element.hasAttr("name")) {
+      return element.attr("name");
+    }
+    if (element.hasAttr("id")) {
+      return element.id();
+    }
+    return null;
+  }
+
+  /**
+   * @param anchor The anchor
+   * @return The qualified name of the class the methods listed after the anchor are inherited
+   * from or null if it is no such anchor
+   */
+  static String getInheritedClassName(Element anchor) {
+    String name = getAnchorName(anchor);
+    if (name == null) {
+      return null;
+    }
+    if (name.startsWith(INHERITED_PREFIX)) {
+      return name.substring(INHERITED_PREFIX.length());
+    }
+    if (name.startsWith(MODERN_INHERITED_PREFIX)) {
+      return name.substring(MODERN_INHERITED_PREFIX.length());
+    }
+    return null;
+  }
+
+  /**
+   * Extracts the detail of a method, without the heading and declaration.
+   *
+   * @param anchor The anchor of the method detail
+   * @return The HTML of the detail or null if it has an unexpected structure
+   */
+  static String extractMemberDetail(Element anchor) {
+    Element body = findDetailBody(anchor);
+    Element signature = findMemberSignature(body);
+    if (signature == null) {
+      return null;
+    }
+
+    List<Element> children = body.children();
+    return JsoupUtil.toHtml(
+        children.subList(signature.elementSiblingIndex() + 1, children.size()),
+        Element::outerHtml
+    );
+  }
+
+  /**
+   * @param anchor The anchor of a member detail
+   * @return The element containing the heading, declaration and description of the member or null
+   * if not found. That is the list item after the anchor (javadoc 8 to 11) or the
+   * {@code section.detail} carrying the id (javadoc 16+).
+   */
+  private static Element findDetailBody(Element anchor) {
+    if (anchor.hasClass("detail")) {
+      return anchor;
+    }
+    Element list = anchor.nextElementSibling();
+    if (list == null) {
+      return null;
+    }
+    return list.children().first();
+  }
+
+  /**
+   * @param body The element containing the member detail, may be null
+   * @return The declaration of the member ({@code pre} or {@code div.member-signature}) or null if
+   * not found
+   */
+  private static Element findMemberSignature(Element body) {
+    if (body == null) {
+      return null;
+    }
+    for (Element child : body.children()) {
+      if (child.tagName().equalsIgnoreCase("pre") || child.hasClass("member-signature")) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  private String toMarkdown(String html, String baseUrl) {
+    return HtmlToDiscordUtil.convert(html, baseUrl, settings.isSilentlyIgnoreUnknownTags());
+  }
+
+  private <T> T ensureExists(T value, String name) {
+    if (value == null) {
+      throw new NoSuchElementException(name + " was not found");
+    }
+    return value;
+  }
+}
@@ -0,0 +1,356 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature.Kind;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.MethodSignature;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
+import me.ialistannen.javadocbot.util.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists {@link ClassPage} snapshots on disk, so parsed classes survive a restart without
+ * fetching their pages again. Does nothing if no directory is set in the {@link JavadocSettings}.
+ * <p>
+ * Every class has its own file, named after the hash of its URL, so pages are loaded lazily one
+ * by one. Format: magic, version, timestamp, base url, class url, declaration and its parsed
+ * parts, description, method rows with their parsed parts (or the reason they are missing),
+ * inherited method names and method details.
+ * Numbers are stored as variable length integers, Strings as a length prefixed UTF-8 byte
+ * sequence. A file is only used if it was written for the same base url and format version and is
+ * not older than the maximum age.
+ * <p>
+ * The signatures are stored as their parts, as the declarations are markdown and can not be
+ * parsed again without losing information.
+ */
+class ClassPageStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ClassPageStore.class);
+
+  private static final int MAGIC = 0x4A444350; // "JDCP"
+  private static final int VERSION = 2;
+
+  private final JavadocSettings settings;
+
+  /**
+   * @param settings The {@link JavadocSettings} to take the directory, base url and maximum age
+   * from
+   */
+  ClassPageStore(JavadocSettings settings) {
+    this.settings = settings;
+  }
+
+  /**
+   * Reads the stored page of a class, if there is a valid one.
+   *
+   * @param javadocClass The {@link JavadocClass} to read it for
+   * @return The stored page or an empty optional if it is missing, stale or corrupted
+   */
+  Optional<ClassPage> read(JavadocClass javadocClass) {
+    Path file = getFile(javadocClass);
+    if (file == null || !Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+
+      if (buffer.getInt() != MAGIC || readVarInt(buffer) != VERSION) {
+        LOGGER.debug("Ignoring stored class page with an unknown format: {}", file);
+        return Optional.empty();
+      }
+      long timestamp = buffer.getLong();
+      if (System.currentTimeMillis() - timestamp > settings.getClassCacheMaxAgeMillis()) {
+        LOGGER.debug("Ignoring stale stored class page: {}", file);
+        return Optional.empty();
+      }
+      if (!settings.getBaseUrl().equals(readString(buffer))
+          || !javadocClass.getUrl().equals(readString(buffer))) {
+        LOGGER.debug("Ignoring stored class page for a different class: {}", file);
+        return Optional.empty();
+      }
+
+      return Optional.of(readPage(buffer));
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      LOGGER.warn("Couldn't read the stored class page " + file, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores the page of a class. The file is replaced atomically. Failures are only logged, as the
+   * page itself is fine.
+   *
+   * @param javadocClass The {@link JavadocClass} the page belongs to
+   * @param page The page to store
+   */
+  void write(JavadocClass javadocClass, ClassPage page) {
+    Path file = getFile(javadocClass);
+    if (file == null) {
+      return;
+    }
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+      try {
+        try (OutputStream fileStream = Files.newOutputStream(tempFile);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileStream))) {
+          output.writeInt(MAGIC);
+          writeVarInt(output, VERSION);
+          output.writeLong(System.currentTimeMillis());
+          writeString(output, settings.getBaseUrl());
+          writeString(output, javadocClass.getUrl());
+          writePage(output, page);
+        }
+        Files.move(
+            tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+        );
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Couldn't store the class page of " + javadocClass.getUrl(), e);
+    }
+  }
+
+  /**
+   * @param javadocClass The {@link JavadocClass}
+   * @return The file of the class or null if no directory is set
+   */
+  private Path getFile(JavadocClass javadocClass) {
+    Path directory = settings.getClassCacheDirectory();
+    if (directory == null) {
+      return null;
+    }
+    String hash = Hashing.md5().hashString(javadocClass.getUrl(), StandardCharsets.UTF_8)
+        .toString();
+    return directory.resolve(hash + ".page");
+  }
+
+  private static void writePage(DataOutputStream output, ClassPage page) throws IOException {
+    writeString(output, page.getDeclarationOrNull());
+    if (page.getDeclarationOrNull() != null) {
+      writeClassSignature(output, page.getSignature());
+    }
+    writeString(output, page.getDescriptionOrNull());
+
+    List<MethodRow> rows = page.getMethodRowsOrNull();
+    if (rows == null) {
+      writeVarInt(output, 0);
+      writeString(output, String.valueOf(page.getMethodRowsError().getMessage()));
+    } else {
+      writeVarInt(output, rows.size() + 1);
+      for (MethodRow row : rows) {
+        writeString(output, row.getName());
+        writeString(output, row.getUrl());
+        writeString(output, row.getReturnType());
+        writeString(output, row.getDeclaration());
+        writeMethodSignature(output, row.getSignature());
+        writeString(output, row.getShortDescription());
+      }
+    }
+
+    ImmutableListMultimap<String, String> inherited = page.getAllInheritedMethodNames();
+    writeVarInt(output, inherited.keySet().size());
+    for (Entry<String, Collection<String>> entry : inherited.asMap().entrySet()) {
+      writeString(output, entry.getKey());
+      writeVarInt(output, entry.getValue().size());
+      for (String methodName : entry.getValue()) {
+        writeString(output, methodName);
+      }
+    }
+
+    ImmutableMap<String, String> details = page.getMethodDetails();
+    writeVarInt(output, details.size());
+    for (Entry<String, String> entry : details.entrySet()) {
+      writeString(output, entry.getKey());
+      writeString(output, entry.getValue());
+    }
+  }
+
+  private static ClassPage readPage(ByteBuffer buffer) {
+    String declaration = readString(buffer);
+    ClassSignature signature = declaration == null ? null : readClassSignature(buffer);
+    String description = readString(buffer);
+
+    List<MethodRow> rows = null;
+    RuntimeException rowsError = null;
+    int rowCount = readVarInt(buffer) - 1;
+    if (rowCount < 0) {
+      rowsError = new NoSuchElementException(readString(buffer));
+    } else {
+      rows = new ArrayList<>(rowCount);
+      for (int i = 0; i < rowCount; i++) {
+        String name = readString(buffer);
+        String url = readString(buffer);
+        String returnType = readString(buffer);
+        String methodDeclaration = readString(buffer);
+        MethodSignature methodSignature = readMethodSignature(buffer);
+        String shortDescription = readString(buffer);
+        rows.add(new MethodRow(
+            name, url, returnType, methodDeclaration, methodSignature, shortDescription
+        ));
+      }
+    }
+
+    ImmutableListMultimap.Builder<String, String> inherited = ImmutableListMultimap.builder();
+    int classCount = readVarInt(buffer);
+    for (int i = 0; i < classCount; i++) {
+      String className = readString(buffer);
+      int methodCount = readVarInt(buffer);
+      for (int j = 0; j < methodCount; j++) {
+        inherited.put(className, readString(buffer));
+      }
+    }
+
+    ImmutableMap.Builder<String, String> details = ImmutableMap.builder();
+    int detailCount = readVarInt(buffer);
+    for (int i = 0; i < detailCount; i++) {
+      details.put(readString(buffer), readString(buffer));
+    }
+
+    return new ClassPage(
+        declaration, signature, description, rows, rowsError, inherited.build(), details.build()
+    );
+  }
+
+  private static void writeClassSignature(DataOutputStream output, ClassSignature signature)
+      throws IOException {
+    writeStrings(output, signature.getAnnotations());
+    writeStrings(output, signature.getModifiers());
+    writeVarInt(output, signature.getKind().ordinal());
+    writeString(output, signature.getName());
+    writeString(output, signature.getTypeParameters());
+    writeStrings(output, signature.getSuperclasses());
+    writeStrings(output, signature.getInterfaces());
+  }
+
+  private static ClassSignature readClassSignature(ByteBuffer buffer) {
+    List<String> annotations = readStrings(buffer);
+    List<String> modifiers = readStrings(buffer);
+    int kind = readVarInt(buffer);
+    if (kind < 0 || kind >= Kind.values().length) {
+      throw new IllegalArgumentException("Invalid class kind: " + kind);
+    }
+    return ClassSignature.of(
+        annotations, modifiers, Kind.values()[kind], readString(buffer), readString(buffer),
+        readStrings(buffer), readStrings(buffer)
+    );
+  }
+
+  private static void writeMethodSignature(DataOutputStream output, MethodSignature signature)
+      throws IOException {
+    writeStrings(output, signature.getAnnotations());
+    writeStrings(output, signature.getModifiers());
+    writeString(output, signature.getTypeParameters());
+    writeString(output, signature.getReturnType());
+    writeString(output, signature.getName());
+    writeVarInt(output, signature.getParameters().size());
+    for (Pair<String, String> parameter : signature.getParameters()) {
+      writeString(output, parameter.getKey());
+      writeString(output, parameter.getValue());
+    }
+    writeStrings(output, signature.getExceptions());
+  }
+
+  private static MethodSignature readMethodSignature(ByteBuffer buffer) {
+    List<String> annotations = readStrings(buffer);
+    List<String> modifiers = readStrings(buffer);
+    String typeParameters = readString(buffer);
+    String returnType = readString(buffer);
+    String name = readString(buffer);
+    int parameterCount = readVarInt(buffer);
+    List<Pair<String, String>> parameters = new ArrayList<>();
+    for (int i = 0; i < parameterCount; i++) {
+      parameters.add(new Pair<>(readString(buffer), readString(buffer)));
+    }
+    return MethodSignature.of(
+        annotations, modifiers, typeParameters, returnType, name, parameters, readStrings(buffer)
+    );
+  }
+
+  private static void writeStrings(DataOutputStream output, List<String> strings)
+      throws IOException {
+    writeVarInt(output, strings.size());
+    for (String string : strings) {
+      writeString(output, string);
+    }
+  }
+
+  private static List<String> readStrings(ByteBuffer buffer) {
+    int count = readVarInt(buffer);
+    List<String> strings = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      strings.add(readString(buffer));
+    }
+    return strings;
+  }
+
+  private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  private static int readVarInt(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte current = buffer.get();
+      value |= (current & 0x7F) << shift;
+      if (current >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable length integer");
+  }
+
+  /**
+   * Writes the length plus one, so null can be stored as 0.
+   */
+  private static void writeString(DataOutputStream output, String string) throws IOException {
+    if (string == null) {
+      writeVarInt(output, 0);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(output, bytes.length + 1);
+    output.write(bytes);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = readVarInt(buffer) - 1;
+    if (length == -1) {
+      return null;
+    }
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid string length: " + length);
+    }
+    String string = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return string;
+  }
+}
@@ -1,24 +1,30 @@
 package me.ialistannen.javadocbot.javadoc.parsing;
 
-import java.util.NoSuchElementException;
+import java.util.Objects;
 import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature;
 import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
 import me.ialistannen.javadocbot.javadoc.model.Package;
-import me.ialistannen.javadocbot.util.HtmlToDiscordUtil;
-import me.ialistannen.javadocbot.util.JsoupUtil;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 public class ClassParser {
 
-  private JavadocSettings settings;
+  private ClassPageParser classPageParser;
 
   /**
    * @param settings The {@link JavadocSettings} to use
    */
   public ClassParser(JavadocSettings settings) {
-    this.settings = settings;
+    this(new ClassPageParser(settings));
+  }
+
+  /**
+   * @param classPageParser The {@link ClassPageParser} to use. Share it with the
+   * {@link MethodParser}, so both use the same snapshot of a page.
+   */
+  public ClassParser(ClassPageParser classPageParser) {
+    this.classPageParser = Objects
+        .requireNonNull(classPageParser, "classPageParser can not be null!");
   }
 
   /**
@@ -40,31 +46,18 @@ public class ClassParser {
    * @return The Description for the package as a discord markdown string
    */
   public String parseDescription(JavadocClass javadocClass) {
-    Document document = JsoupUtil.parseUrl(javadocClass.getUrl());
-    Elements description = document.select(".description > ul:nth-child(1) > li:nth-child(1)");
-    Elements hrs = description.select("hr");
-    if (hrs.isEmpty()) {
-      throw new IllegalArgumentException("HR not found.");
-    }
-    Element sibling = hrs.get(0);
-
-    // skip to "block" element
-    while ((sibling = sibling.nextElementSibling()) != null) {
-      if (sibling.hasClass("block")) {
-        break;
-      }
-    }
-
-    // concat the other elements
-    StringBuilder total = new StringBuilder();
-
-    while (sibling != null) {
-      total.append(sibling.outerHtml());
-      sibling = sibling.nextElementSibling();
-    }
+    return classPageParser.getPage(javadocClass).getDescription();
+  }
 
-    return HtmlToDiscordUtil
-        .convert(total.toString(), settings.getBaseUrl(), settings.isSilentlyIgnoreUnknownTags());
+  /**
+   * Parses the package description from an already parsed page
+   *
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @param document The parsed page of the class
+   * @return The Description for the package as a discord markdown string
+   */
+  public String parseDescription(JavadocClass javadocClass, Document document) {
+    return classPageParser.parse(javadocClass, document).getDescription();
   }
 
   /**
@@ -74,22 +67,27 @@ public class ClassParser {
    * @return The declaration of the class as a discord markdown string
    */
   public String parseDeclaration(JavadocClass javadocClass) {
-    Document document = JsoupUtil.parseUrl(javadocClass.getUrl());
-    Elements description = document.select(".description > ul:nth-child(1) > li:nth-child(1)");
-    Elements hrs = description.select("hr");
-    if (hrs.isEmpty()) {
-      throw new IllegalArgumentException("HR not found.");
-    }
-    Element sibling = hrs.get(0);
+    return classPageParser.getPage(javadocClass).getDeclaration();
+  }
+
+  /**
+   * Parses the class declaration from an already parsed page
+   *
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @param document The parsed page of the class
+   * @return The declaration of the class as a discord markdown string
+   */
+  public String parseDeclaration(JavadocClass javadocClass, Document document) {
+    return classPageParser.parse(javadocClass, document).getDeclaration();
+  }
 
-    // skip to "block" element
-    while ((sibling = sibling.nextElementSibling()) != null) {
-      if (sibling.tagName().equalsIgnoreCase("pre")) {
-        return HtmlToDiscordUtil.convert(
-            sibling.outerHtml(), settings.getBaseUrl(), settings.isSilentlyIgnoreUnknownTags()
-        );
-      }
-    }
-    throw new NoSuchElementException("Couldn't find the declaration");
+  /**
+   * Parses the class declaration into its parts
+   *
+   * @param javadocClass The {@link JavadocClass} to get it for
+   * @return The parsed declaration of the class
+   */
+  public ClassSignature parseSignature(JavadocClass javadocClass) {
+    return classPageParser.getPage(javadocClass).getSignature();
   }
 }
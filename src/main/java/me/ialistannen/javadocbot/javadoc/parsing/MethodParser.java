@@ -1,16 +1,28 @@
 package me.ialistannen.javadocbot.javadoc.parsing;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import me.ialistannen.javadocbot.javadoc.JavadocManager;
 import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature;
 import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
 import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
+import me.ialistannen.javadocbot.javadoc.parsing.TypeHierarchy.Supertype;
 import me.ialistannen.javadocbot.util.HtmlToDiscordUtil;
 import me.ialistannen.javadocbot.util.JsoupUtil;
 import org.jsoup.nodes.Document;
@@ -21,14 +33,35 @@ public class MethodParser {
 
   private JavadocSettings settings;
   private JavadocManager javadocManager;
+  private ClassPageParser classPageParser;
+
+  private final TypeHierarchy typeHierarchy = new TypeHierarchy();
+  // keyed by the url of the class
+  private final Cache<String, List<JavadocMethod>> inheritableMethods;
 
   /**
    * @param settings The {@link JavadocSettings} to use
    * @param javadocManager The {@link JavadocManager} to use
    */
   public MethodParser(JavadocSettings settings, JavadocManager javadocManager) {
+    this(settings, javadocManager, new ClassPageParser(settings));
+  }
+
+  /**
+   * @param settings The {@link JavadocSettings} to use
+   * @param javadocManager The {@link JavadocManager} to use
+   * @param classPageParser The {@link ClassPageParser} to use. Share it with the
+   * {@link ClassParser}, so both use the same snapshot of a page.
+   */
+  public MethodParser(JavadocSettings settings, JavadocManager javadocManager,
+      ClassPageParser classPageParser) {
     this.settings = settings;
     this.javadocManager = javadocManager;
+    this.classPageParser = Objects
+        .requireNonNull(classPageParser, "classPageParser can not be null!");
+    this.inheritableMethods = CacheBuilder.newBuilder()
+        .maximumSize(settings.getMethodCacheSize())
+        .build();
   }
 
   /**
@@ -39,162 +72,138 @@ public class MethodParser {
    */
   public String parseDescription(JavadocMethod javadocMethod) {
     String url = javadocMethod.getUrl();
-    Document document = JsoupUtil.parseUrl(url);
     String anchorname = url.split("#")[1];
-    Element anchor = ensureExists(
-        document.getElementsByAttributeValue("name", anchorname).get(0), "anchorName"
-    );
-
-    Element surroundingList = anchor.nextElementSibling();
 
-    List<Element> content = new ArrayList<>();
-    for (Element listItem : surroundingList.children()) {
-      Elements children = listItem.children();
-      // skip the heading and the <pre> element
-      content.addAll(children.subList(2, children.size()));
+    String html = classPageParser.getPage(javadocMethod.getContainingClass())
+        .getMethodDetail(anchorname);
+    if (html == null) {
+      html = parseDescriptionHtml(url, anchorname);
     }
-
-    String html = JsoupUtil.toHtml(content, Element::outerHtml);
     return HtmlToDiscordUtil.convert(
         html, javadocMethod.getContainingClass().getUrl(), settings.isSilentlyIgnoreUnknownTags()
     );
   }
 
-  public List<JavadocMethod> getMethods(JavadocClass javadocClass) {
-    Document document = JsoupUtil.parseUrl(javadocClass.getUrl());
-
-    List<JavadocMethod> methods = new ArrayList<>();
-
-    methods.addAll(getMethodsNoInherited(javadocClass, document, false));
-    methods.addAll(getAllInheritedMethodsRecurse(document));
-
-    return methods;
-  }
-
-  private List<JavadocMethod> getMethodsNoInherited(JavadocClass javadocClass, Document document,
-      boolean inherited) {
-    Elements anchors = document.getElementsByAttributeValue("name", "method.summary");
-    if (anchors.isEmpty()) {
-      throw new IllegalArgumentException("Couldn't find anchor");
-    }
-    Element table = JsoupUtil.findFirstMatching(
-        element -> element.tagName().equalsIgnoreCase("table"),
-        anchors.get(0)
+  /**
+   * Extracts the description of a method that is not part of the snapshot of its class page,
+   * e.g. because the method summary of the page could not be parsed.
+   *
+   * @param url The URL of the method
+   * @param anchorname The name of the anchor of the method
+   * @return The HTML of the description
+   * @throws NoSuchElementException if the page has no detail for the method
+   */
+  private String parseDescriptionHtml(String url, String anchorname) {
+    Document document = JsoupUtil.parseUrl(
+        url, settings.getPageSource(), settings.getDocumentCache()
     );
+    Element anchor = ensureExists(findAnchor(document, anchorname), "anchorName");
 
-    if (table == null) {
-      throw new NoSuchElementException("Couldn't find table");
-    }
-
-    List<JavadocMethod> methods = new ArrayList<>();
-    for (Element row : table.getElementsByTag("tr")) {
-      Element firstColumn = ensureExists(
-          row.getElementsByClass("colFirst").get(0), "colFirst"
-      );
-      Element secondColumn = ensureExists(
-          row.getElementsByClass("colLast").get(0), "colLast"
-      );
-      // skip header
-      if (firstColumn.tagName().equalsIgnoreCase("th")) {
-        continue;
-      }
-      String returnType = HtmlToDiscordUtil.convert(
-          extractReturnType(firstColumn),
-          javadocClass.getUrl(),
-          settings.isSilentlyIgnoreUnknownTags()
-      );
-      String url = HtmlToDiscordUtil.convert(
-          extractUrl(secondColumn),
-          javadocClass.getUrl(),
-          settings.isSilentlyIgnoreUnknownTags()
-      );
-      String declaration = HtmlToDiscordUtil.convert(
-          extractFullDeclaration(secondColumn, url),
-          javadocClass.getUrl(),
-          settings.isSilentlyIgnoreUnknownTags()
-      );
-      String shortDescription = HtmlToDiscordUtil.convert(
-          extractShortDescription(secondColumn),
-          javadocClass.getUrl(),
-          settings.isSilentlyIgnoreUnknownTags()
-      );
-      String name = extractName(secondColumn);
-
-      JavadocMethod method = new JavadocMethod(
-          name, url,
-          returnType, declaration, shortDescription,
-          javadocClass, this,
-          inherited
-      );
-
-      methods.add(method);
-    }
-    return methods;
+    return ensureExists(ClassPageParser.extractMemberDetail(anchor), "method detail");
   }
 
-
   /**
-   * @param firstColumn The <em>first</em> column in the table
-   * @return The extracted return type
+   * Finds an anchor by its name (javadoc 8) or id (javadoc 9+).
+   *
+   * @param document The {@link Document} to search in
+   * @param anchorName The name of the anchor
+   * @return The anchor or null if not found
    */
-  private String extractReturnType(Element firstColumn) {
-    return firstColumn.html();
+  private Element findAnchor(Document document, String anchorName) {
+    Elements byName = document.getElementsByAttributeValue("name", anchorName);
+    if (!byName.isEmpty()) {
+      return byName.get(0);
+    }
+    return document.getElementById(anchorName);
   }
 
   /**
-   * @param secondColumn The <em>second</em> column
-   * @param url The URL of the method
-   * @return The full method declaration
+   * Finds the row of the method summary for a method read from a search index. The row is matched
+   * by the anchor of the method or, failing that, by its name if it is not overloaded.
+   *
+   * @param javadocMethod The declared {@link JavadocMethod}
+   * @return The row or null if the method summary has no row for the method
+   * @throws RuntimeException if the page of the class could not be loaded or parsed
    */
-  private String extractFullDeclaration(Element secondColumn, String url) {
-    Document document = secondColumn.ownerDocument();
-    String anchorname = url.split("#")[1];
+  public MethodRow findMethodRow(JavadocMethod javadocMethod) {
+    String anchor = getAnchor(javadocMethod.getUrl());
+    MethodRow byName = null;
+    int sameName = 0;
+    for (MethodRow row : classPageParser.getPage(javadocMethod.getContainingClass())
+        .getMethodRows()) {
+      if (getAnchor(row.getUrl()).equals(anchor)) {
+        return row;
+      }
+      if (row.getName().equals(javadocMethod.getName())) {
+        byName = row;
+        sameName++;
+      }
+    }
+    return sameName == 1 ? byName : null;
+  }
 
-    Element anchor = ensureExists(
-        document.getElementsByAttributeValue("name", anchorname).get(0), "anchorName"
-    );
-    Element element = anchor.nextElementSibling().child(0).children().get(1);
-    return element.html();
+  private static String getAnchor(String url) {
+    int hash = url.indexOf('#');
+    if (hash < 0) {
+      return "";
+    }
+    try {
+      return URLDecoder.decode(url.substring(hash + 1), "UTF-8");
+    } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+      return url.substring(hash + 1);
+    }
   }
 
   /**
-   * @param secondColumn The <em>second</em> column
-   * @return The method url
+   * Parses all methods of a class, including the inherited ones.
+   *
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @return All methods of the class
    */
-  private String extractUrl(Element secondColumn) {
-    Element anchor = ensureExists(
-        secondColumn.getElementsByClass("memberNameLink").get(0),
-        "memberNameLink"
-    );
-    Element link = ensureExists(
-        anchor.getElementsByTag("a").get(0),
-        "link itself"
-    );
-    return link.absUrl("href");
+  public List<JavadocMethod> getMethods(JavadocClass javadocClass) {
+    return getMethods(javadocClass, classPageParser.getPage(javadocClass));
   }
 
   /**
-   * @param secondColumn The <em>second</em> column
-   * @return A short description of the method
+   * Parses all methods of a class from an already parsed page, including the inherited ones.
+   *
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @param document The parsed page of the class
+   * @return All methods of the class
    */
-  private String extractShortDescription(Element secondColumn) {
-    List<Element> shortDescription = JsoupUtil
-        .findChildren(element -> element.hasClass("block"), secondColumn);
-
-    return JsoupUtil.toHtml(shortDescription, Element::html);
+  public List<JavadocMethod> getMethods(JavadocClass javadocClass, Document document) {
+    return getMethods(javadocClass, classPageParser.parse(javadocClass, document));
   }
 
   /**
-   * @param secondColumn The <em>second</em> column
-   * @return The name of the method
+   * Parses all methods of a class from the snapshot of its page, including the inherited ones.
+   *
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @param classPage The snapshot of the page of the class
+   * @return All methods of the class
    */
-  private String extractName(Element secondColumn) {
-    Element memberNameLink = ensureExists(
-        secondColumn.getElementsByClass("memberNameLink").get(0),
-        "memberNameLink"
-    );
+  public List<JavadocMethod> getMethods(JavadocClass javadocClass, ClassPage classPage) {
+    List<JavadocMethod> methods = new ArrayList<>();
 
-    return memberNameLink.text();
+    methods.addAll(toMethods(javadocClass, classPage.getMethodRows(), false));
+    methods.addAll(getAllInheritedMethods(javadocClass, classPage));
+
+    return methods;
+  }
+
+  private List<JavadocMethod> toMethods(JavadocClass javadocClass, Collection<MethodRow> rows,
+      boolean inherited) {
+    List<JavadocMethod> methods = new ArrayList<>(rows.size());
+    for (MethodRow row : rows) {
+      methods.add(new JavadocMethod(
+          row.getName(), row.getUrl(),
+          row.getReturnType(), row.getDeclaration(), row.getShortDescription(),
+          row.getSignature(),
+          javadocClass, this,
+          inherited
+      ));
+    }
+    return methods;
   }
 
   private <T> T ensureExists(T value, String name) {
@@ -207,62 +216,188 @@ public class MethodParser {
     return value;
   }
 
-  private List<JavadocMethod> getAllInheritedMethodsRecurse(Document document) {
-    List<JavadocClass> superClasses = getSuperclassAndInterfaceNames(document)
+  /**
+   * Returns all classes the class inherits methods from. Their pages are needed to parse the
+   * inherited methods.
+   *
+   * @param document The parsed page of the class
+   * @return All superclasses and interfaces the class inherits methods from
+   */
+  public List<JavadocClass> getInheritedFrom(Document document) {
+    return getSuperclassAndInterfaceNames(document)
         .map(element -> javadocManager.getClassEndingIn(element))
         .flatMap(Collection::stream)
         .collect(Collectors.toList());
+  }
 
-    List<JavadocMethod> methods = new ArrayList<>(superClasses.size());
+  /**
+   * Returns all classes the class inherits methods from.
+   *
+   * @param classPage The snapshot of the page of the class
+   * @return All superclasses and interfaces the class inherits methods from
+   */
+  public List<JavadocClass> getInheritedFrom(ClassPage classPage) {
+    return classPage.getInheritedFrom().stream()
+        .map(className -> javadocManager.getClassEndingIn(className))
+        .flatMap(Collection::stream)
+        .collect(Collectors.toList());
+  }
 
-    for (JavadocClass javadocClass : superClasses) {
-      Document superClassDocument = JsoupUtil.parseUrl(javadocClass.getUrl());
-      List<JavadocMethod> inheritedMethods = getMethodsNoInherited(
-          javadocClass,
-          superClassDocument,
-          true
-      );
-      Set<String> inheritedMethodNames = getInheritedMethodNames(document).stream()
-          .map(Element::text)
-          .collect(Collectors.toSet());
-
-      methods.addAll(
-          inheritedMethods.stream()
-              .filter(method -> inheritedMethodNames.contains(method.getName()))
-              .collect(Collectors.toList())
-      );
+  /**
+   * Collects the inherited methods from the tables of the supertypes. The tables are built once
+   * per supertype and shared by all its subtypes.
+   *
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @param classPage The snapshot of the page of the class
+   * @return All inherited methods
+   */
+  private List<JavadocMethod> getAllInheritedMethods(JavadocClass javadocClass,
+      ClassPage classPage) {
+    List<JavadocMethod> methods = new ArrayList<>();
+
+    for (Supertype supertype : getSupertypes(javadocClass, classPage)) {
+      for (JavadocMethod method : getInheritableMethods(supertype.getType())) {
+        if (supertype.getInheritedMethodNames().contains(method.getName())) {
+          methods.add(method);
+        }
+      }
     }
 
     return methods;
   }
 
   /**
-   * Returns all classes this class inherits methods from.
+   * Returns the supertypes of the class, resolving and adding them to the {@link TypeHierarchy}
+   * the first time.
    *
-   * @param document The {@link Document} to get it from
-   * @return A Stream with the names of all implemented Interfaces and an eventual superclass.
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @param classPage The snapshot of the page of the class
+   * @return The supertypes of the class
    */
-  private Stream<String> getSuperclassAndInterfaceNames(Document document) {
-    return document.getElementsByAttribute("name").stream()
-        .map(element -> element.attr("name"))
-        .filter(element -> element.startsWith("methods.inherited.from.class"))
-        .map(element -> element.replace("methods.inherited.from.class.", ""));
+  private List<Supertype> getSupertypes(JavadocClass javadocClass, ClassPage classPage) {
+    List<Supertype> known = typeHierarchy.getSupertypeEdges(javadocClass);
+    if (known != null) {
+      return known;
+    }
+
+    List<Supertype> supertypes = new ArrayList<>();
+    for (String className : classPage.getInheritedFrom()) {
+      // only the methods listed for that class, the others are overridden further down
+      Set<String> inheritedMethodNames = ImmutableSet.copyOf(
+          classPage.getInheritedMethodNames(className)
+      );
+      for (JavadocClass superClass : javadocManager.getClassEndingIn(className)) {
+        supertypes.add(new Supertype(superClass, inheritedMethodNames));
+      }
+    }
+    typeHierarchy.put(
+        javadocClass, supertypes, getDirectSupertypes(javadocClass, classPage, supertypes)
+    );
+
+    return supertypes;
+  }
+
+  /**
+   * Resolves the supertypes named in the declaration of the class. A name matching several
+   * classes is resolved to the one the class inherits from or, failing that, to the one in the
+   * same package.
+   *
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @param classPage The snapshot of the page of the class
+   * @param supertypes The supertypes the class inherits methods from
+   * @return The direct supertypes of the class
+   */
+  private List<JavadocClass> getDirectSupertypes(JavadocClass javadocClass, ClassPage classPage,
+      List<Supertype> supertypes) {
+    ClassSignature signature;
+    try {
+      signature = classPage.getSignature();
+    } catch (NoSuchElementException e) {
+      return ImmutableList.of();
+    }
+
+    List<String> names = new ArrayList<>(signature.getSuperclasses());
+    names.addAll(signature.getInterfaces());
+
+    List<JavadocClass> direct = new ArrayList<>();
+    for (String name : names) {
+      int typeArguments = name.indexOf('<');
+      String rawName = typeArguments < 0 ? name : name.substring(0, typeArguments);
+      List<JavadocClass> candidates = javadocManager.getClassEndingIn(rawName.trim());
+      if (candidates.size() > 1) {
+        candidates = narrow(candidates, javadocClass, supertypes);
+      }
+      direct.addAll(candidates);
+    }
+    return direct;
+  }
+
+  private static List<JavadocClass> narrow(List<JavadocClass> candidates,
+      JavadocClass javadocClass, List<Supertype> supertypes) {
+    List<JavadocClass> inherited = new ArrayList<>();
+    List<JavadocClass> samePackage = new ArrayList<>();
+    for (JavadocClass candidate : candidates) {
+      for (Supertype supertype : supertypes) {
+        if (supertype.getType().getUrl().equals(candidate.getUrl())) {
+          inherited.add(candidate);
+          break;
+        }
+      }
+      if (candidate.getParentPackage().getName()
+          .equals(javadocClass.getParentPackage().getName())) {
+        samePackage.add(candidate);
+      }
+    }
+    if (!inherited.isEmpty()) {
+      return inherited;
+    }
+    return samePackage;
+  }
+
+  /**
+   * Returns the declared methods of a class, as seen by its subtypes.
+   *
+   * @param javadocClass The {@link JavadocClass} to get them for
+   * @return The declared methods of the class, marked as inherited
+   */
+  private List<JavadocMethod> getInheritableMethods(JavadocClass javadocClass) {
+    try {
+      return inheritableMethods.get(javadocClass.getUrl(), () -> ImmutableList.copyOf(
+          toMethods(javadocClass, classPageParser.getPage(javadocClass).getMethodRows(), true)
+      ));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Error while parsing the methods", e.getCause());
+    }
   }
 
   /**
-   * Returns the names of all inherited methods.
+   * Removes the cached inheritable methods and clears the {@link TypeHierarchy}, as both refer to
+   * the classes of the previous index.
+   */
+  public void invalidateAll() {
+    inheritableMethods.invalidateAll();
+    typeHierarchy.clear();
+  }
+
+  /**
+   * @return The {@link TypeHierarchy} of all classes whose methods were parsed
+   */
+  public TypeHierarchy getTypeHierarchy() {
+    return typeHierarchy;
+  }
+
+  /**
+   * Returns all classes this class inherits methods from.
    *
    * @param document The {@link Document} to get it from
-   * @return The names of all inherited methods
+   * @return A Stream with the names of all implemented Interfaces and an eventual superclass.
    */
-  private List<Element> getInheritedMethodNames(Document document) {
-    return document.getElementsByAttribute("name").stream()
-        .filter(element -> element.attr("name").startsWith("methods.inherited.from.class"))
-        .map(Element::siblingElements)
-        .flatMap(Collection::stream)
-        .filter(element -> element.tagName().equalsIgnoreCase("code"))
-        .flatMap(element -> element.getElementsByTag("a").stream())
-        .filter(element -> element.hasAttr("href"))
-        .collect(Collectors.toList());
+  private Stream<String> getSuperclassAndInterfaceNames(Document document) {
+    return document.getAllElements().stream()
+        .map(ClassPageParser::getInheritedClassName)
+        .filter(Objects::nonNull);
   }
 }
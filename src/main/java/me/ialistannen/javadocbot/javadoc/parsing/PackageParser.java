@@ -53,7 +53,9 @@ public class PackageParser {
    * no description.
    */
   public String parseDescription(Package javadocPackage) {
-    Document document = JsoupUtil.parseUrl(javadocPackage.getUrl());
+    Document document = JsoupUtil.parseUrl(
+        javadocPackage.getUrl(), settings.getPageSource(), settings.getDocumentCache()
+    );
 
     Elements nameAnchor = document.getElementsByAttributeValue("name", "package.description");
     if (nameAnchor.isEmpty()) {
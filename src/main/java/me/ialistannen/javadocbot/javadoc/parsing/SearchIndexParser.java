@@ -0,0 +1,376 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.util.LinkUtil;
+import me.ialistannen.javadocbot.util.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the index from the search index files of modern (JDK 11+) javadoc:
+ * {@code package-search-index.js}, {@code type-search-index.js} and
+ * {@code member-search-index.js}.
+ * <p>
+ * Unlike the {@link AllClassParser} this also finds all declared methods. The search index only
+ * has their names, parameter types and urls, which is enough to resolve a method and its
+ * overloads. The return type, declaration and summary of a method are read from the class page
+ * the first time they are needed.
+ */
+public class SearchIndexParser {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SearchIndexParser.class);
+
+  private static final String PACKAGE_INDEX = "package-search-index.js";
+  private static final String TYPE_INDEX = "type-search-index.js";
+  private static final String MEMBER_INDEX = "member-search-index.js";
+
+  private static final String UNNAMED_PACKAGE = "<Unnamed>";
+
+  /**
+   * Matches the package part of a qualified name, e.g. "java.util." in "java.util.Map.Entry"
+   */
+  private static final Pattern PACKAGE_QUALIFIER = Pattern.compile(
+      "\\b(?:[a-z_$][\\w$]*\\.)+(?=[A-Z_$])"
+  );
+
+  private JavadocSettings settings;
+  private PackageParser packageParser;
+  private ClassParser classParser;
+  private MethodParser methodParser;
+
+  /**
+   * @param settings The {@link JavadocSettings} to use
+   * @param packageParser The {@link PackageParser} to pass to the packages
+   * @param classParser The {@link ClassParser} to pass to the classes
+   * @param methodParser The {@link MethodParser} to pass to the methods
+   */
+  public SearchIndexParser(JavadocSettings settings, PackageParser packageParser,
+      ClassParser classParser, MethodParser methodParser) {
+    this.settings = settings;
+    this.packageParser = packageParser;
+    this.classParser = classParser;
+    this.methodParser = methodParser;
+  }
+
+  /**
+   * Reads the search index files and builds all packages, classes and methods.
+   *
+   * @param baseUrl The base URL for the javadoc
+   * @return The read {@link SearchIndex}
+   * @throws RuntimeException if an error occurred while reading the files
+   */
+  public SearchIndex parse(String baseUrl) {
+    Map<String, Package> packages = new HashMap<>();
+    Map<String, String> modules = new HashMap<>();
+
+    for (Map<String, String> entry : readEntries(baseUrl, PACKAGE_INDEX)) {
+      String name = entry.get("l");
+      // skip "All Packages" and friends
+      if (name == null || entry.containsKey("u") || entry.containsKey("url")) {
+        continue;
+      }
+      if (entry.containsKey("m")) {
+        modules.put(name, entry.get("m"));
+      }
+      String url = LinkUtil.concatLinksIgnoreDoubleSlash(
+          getPackageUrl(baseUrl, name, modules), "package-summary.html"
+      );
+      packages.put(name, new Package(name, url, "", packageParser));
+    }
+
+    Map<String, JavadocClass> classes = new HashMap<>();
+    for (Map<String, String> entry : readEntries(baseUrl, TYPE_INDEX)) {
+      String packageName = entry.get("p");
+      String name = entry.get("l");
+      if (packageName == null || name == null) {
+        continue;
+      }
+      Package aPackage = packages.computeIfAbsent(
+          packageName,
+          key -> new Package(
+              key,
+              LinkUtil.concatLinksIgnoreDoubleSlash(
+                  getPackageUrl(baseUrl, key, modules), "package-summary.html"
+              ),
+              "",
+              packageParser
+          )
+      );
+      String url = LinkUtil.concatLinksIgnoreDoubleSlash(
+          getPackageUrl(baseUrl, packageName, modules), name + ".html"
+      );
+      classes.put(packageName + "." + name, classParser.parse(aPackage, name, url));
+    }
+
+    ImmutableListMultimap.Builder<String, JavadocMethod> methods = ImmutableListMultimap.builder();
+    for (Map<String, String> entry : readEntries(baseUrl, MEMBER_INDEX)) {
+      JavadocClass javadocClass = classes.get(entry.get("p") + "." + entry.get("c"));
+      String label = entry.get("l");
+      // fields have no parameter list
+      if (javadocClass == null || label == null || !label.contains("(")) {
+        continue;
+      }
+      String name = label.substring(0, label.indexOf('('));
+      // constructors are not part of the method summary
+      if (name.equals(javadocClass.getName()) || javadocClass.getName().endsWith("." + name)) {
+        continue;
+      }
+      String anchor = entry.containsKey("u") ? entry.get("u") : entry.get("url");
+      if (anchor == null) {
+        anchor = label;
+      }
+
+      methods.put(javadocClass.getUrl(), createMethod(javadocClass, name, label, anchor));
+    }
+
+    return new SearchIndex(
+        ImmutableList.copyOf(packages.values()),
+        ImmutableList.copyOf(classes.values()),
+        methods.build()
+    );
+  }
+
+  /**
+   * Creates the method for an entry of the member index. Only the simple parameter types are
+   * known, the rest is loaded lazily.
+   */
+  private JavadocMethod createMethod(JavadocClass javadocClass, String name, String label,
+      String anchor) {
+    String parameterList = label.substring(label.indexOf('(') + 1, label.lastIndexOf(')'));
+
+    List<Pair<String, String>> parameters = new ArrayList<>();
+    for (String type : splitParameters(parameterList)) {
+      parameters.add(new Pair<>(PACKAGE_QUALIFIER.matcher(type).replaceAll(""), ""));
+    }
+
+    String url = anchor.startsWith("#")
+        ? javadocClass.getUrl() + anchor
+        : javadocClass.getUrl() + "#" + anchor;
+
+    return new JavadocMethod(name, url, parameters, javadocClass, methodParser);
+  }
+
+  /**
+   * Splits a parameter list at the top level commas, ignoring the ones inside generic types.
+   *
+   * @param parameterList The parameter list without the parentheses
+   * @return The trimmed parameter types
+   */
+  private static List<String> splitParameters(String parameterList) {
+    if (parameterList.trim().isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> parameters = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < parameterList.length(); i++) {
+      char c = parameterList.charAt(i);
+      if (c == '<') {
+        depth++;
+      } else if (c == '>') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        parameters.add(parameterList.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    parameters.add(parameterList.substring(start).trim());
+    return parameters;
+  }
+
+  /**
+   * @param baseUrl The base url
+   * @param packageName The name of the package
+   * @param modules The modules of the packages, if the javadoc is split in modules
+   * @return The url of the directory of the package
+   */
+  private static String getPackageUrl(String baseUrl, String packageName,
+      Map<String, String> modules) {
+    String url = baseUrl;
+    if (modules.containsKey(packageName)) {
+      url = LinkUtil.concatLinksIgnoreDoubleSlash(url, modules.get(packageName));
+    }
+    if (!packageName.equals(UNNAMED_PACKAGE)) {
+      url = LinkUtil.concatLinksIgnoreDoubleSlash(url, packageName.replace('.', '/'));
+    }
+    return url.endsWith("/") ? url : url + "/";
+  }
+
+  /**
+   * Reads all entries of a search index file.
+   *
+   * @param baseUrl The base url
+   * @param file The name of the file
+   * @return All entries in the file
+   * @throws RuntimeException if the file could not be read
+   */
+  private List<Map<String, String>> readEntries(String baseUrl, String file) {
+    String url = LinkUtil.concatLinksIgnoreDoubleSlash(baseUrl, file);
+    try {
+      byte[] bytes = settings.getPageSource().read(url).getBytes();
+      return parseEntries(new String(bytes, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      LOGGER.warn("Couldn't read the search index", e);
+      throw new RuntimeException("Error while reading the search index " + url, e);
+    }
+  }
+
+  /**
+   * Parses the JSON array in a search index file. Only flat objects are supported, all values are
+   * returned as Strings.
+   *
+   * @param script The content of the file, e.g. {@code typeSearchIndex = [{"p":"a","l":"B"}]}
+   * @return All objects in the array
+   * @throws IllegalArgumentException if the array is malformed
+   */
+  static List<Map<String, String>> parseEntries(String script) {
+    List<Map<String, String>> entries = new ArrayList<>();
+    int[] position = {script.indexOf('[')};
+    if (position[0] < 0) {
+      throw new IllegalArgumentException("No search index array found");
+    }
+    position[0]++;
+
+    while (true) {
+      char next = skipWhitespaceAndCommas(script, position);
+      if (next == ']') {
+        return entries;
+      }
+      if (next != '{') {
+        throw new IllegalArgumentException("Expected an object at " + position[0]);
+      }
+      position[0]++;
+
+      Map<String, String> entry = new HashMap<>();
+      while (skipWhitespaceAndCommas(script, position) != '}') {
+        String key = readString(script, position);
+        if (skipWhitespaceAndCommas(script, position) != ':') {
+          throw new IllegalArgumentException("Expected a ':' at " + position[0]);
+        }
+        position[0]++;
+        skipWhitespaceAndCommas(script, position);
+        entry.put(key, readValue(script, position));
+      }
+      position[0]++;
+      entries.add(entry);
+    }
+  }
+
+  private static char skipWhitespaceAndCommas(String script, int[] position) {
+    while (position[0] < script.length()) {
+      char c = script.charAt(position[0]);
+      if (!Character.isWhitespace(c) && c != ',') {
+        return c;
+      }
+      position[0]++;
+    }
+    throw new IllegalArgumentException("Unexpected end of the search index");
+  }
+
+  private static String readValue(String script, int[] position) {
+    if (script.charAt(position[0]) == '"') {
+      return readString(script, position);
+    }
+    int start = position[0];
+    while (position[0] < script.length() && ",}".indexOf(script.charAt(position[0])) < 0) {
+      position[0]++;
+    }
+    return script.substring(start, position[0]).trim();
+  }
+
+  private static String readString(String script, int[] position) {
+    if (script.charAt(position[0]) != '"') {
+      throw new IllegalArgumentException("Expected a String at " + position[0]);
+    }
+    StringBuilder result = new StringBuilder();
+    int i = position[0] + 1;
+    while (i < script.length()) {
+      char c = script.charAt(i++);
+      if (c == '"') {
+        position[0] = i;
+        return result.toString();
+      }
+      if (c != '\\') {
+        result.append(c);
+        continue;
+      }
+      char escaped = script.charAt(i++);
+      switch (escaped) {
+        case 'b':
+          result.append('\b');
+          break;
+        case 'f':
+          result.append('\f');
+          break;
+        case 'n':
+          result.append('\n');
+          break;
+        case 'r':
+          result.append('\r');
+          break;
+        case 't':
+          result.append('\t');
+          break;
+        case 'u':
+          result.append((char) Integer.parseInt(script.substring(i, i + 4), 16));
+          i += 4;
+          break;
+        default:
+          result.append(escaped);
+      }
+    }
+    throw new IllegalArgumentException("Unterminated String in the search index");
+  }
+
+  /**
+   * The content of the search index
+   */
+  public static class SearchIndex {
+
+    private final List<Package> packages;
+    private final List<JavadocClass> classes;
+    private final ImmutableListMultimap<String, JavadocMethod> methods;
+
+    private SearchIndex(List<Package> packages, List<JavadocClass> classes,
+        ImmutableListMultimap<String, JavadocMethod> methods) {
+      this.packages = packages;
+      this.classes = classes;
+      this.methods = methods;
+    }
+
+    /**
+     * @return All packages
+     */
+    public List<Package> getPackages() {
+      return packages;
+    }
+
+    /**
+     * @return All classes
+     */
+    public List<JavadocClass> getClasses() {
+      return classes;
+    }
+
+    /**
+     * @return The declared (not inherited) methods, keyed by the url of their class. Their return
+     * type, declaration and summary are loaded lazily.
+     */
+    public ImmutableListMultimap<String, JavadocMethod> getMethods() {
+      return methods;
+    }
+  }
+}
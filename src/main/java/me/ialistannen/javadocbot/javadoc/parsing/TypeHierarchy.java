@@ -0,0 +1,191 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+
+/**
+ * The graph of all supertype relations known so far.
+ * <p>
+ * It is filled incrementally, whenever the methods of a class are parsed (e.g. while crawling).
+ * The supertypes of a class are the classes it inherits members from, as listed on its page. For
+ * javadoc 8 this includes the indirect ones, up to {@code Object}. The direct supertypes are the
+ * ones named in the declaration of the class, including interfaces without any methods.
+ * <p>
+ * Classes are keyed by their URL, as they have no stable hash code. This class is thread safe.
+ */
+public class TypeHierarchy {
+
+  private final Map<String, ImmutableList<Supertype>> supertypes = new ConcurrentHashMap<>();
+  private final Map<String, Map<String, JavadocClass>> subtypes = new ConcurrentHashMap<>();
+  private final Map<String, ImmutableList<JavadocClass>> directSupertypes =
+      new ConcurrentHashMap<>();
+  private final Map<String, Map<String, JavadocClass>> directSubtypes = new ConcurrentHashMap<>();
+
+  /**
+   * @param javadocClass The class to get them for
+   * @return The known supertypes of the class or null if the class was not parsed yet
+   */
+  public List<Supertype> getSupertypeEdges(JavadocClass javadocClass) {
+    return supertypes.get(javadocClass.getUrl());
+  }
+
+  /**
+   * @param javadocClass The class to get them for
+   * @return All known supertypes of the class. Empty if the class was not parsed yet.
+   */
+  public List<JavadocClass> getSupertypes(JavadocClass javadocClass) {
+    List<Supertype> edges = supertypes.get(javadocClass.getUrl());
+    if (edges == null) {
+      return ImmutableList.of();
+    }
+    List<JavadocClass> result = new ArrayList<>(edges.size());
+    for (Supertype edge : edges) {
+      result.add(edge.getType());
+    }
+    return result;
+  }
+
+  /**
+   * Returns all classes known to inherit from the given one. Only parsed classes are known, so
+   * crawl the javadoc first if you need all of them.
+   *
+   * @param javadocClass The class to get them for
+   * @return All known subtypes of the class
+   */
+  public List<JavadocClass> getSubtypes(JavadocClass javadocClass) {
+    Map<String, JavadocClass> known = subtypes.get(javadocClass.getUrl());
+    if (known == null) {
+      return ImmutableList.of();
+    }
+    return new ArrayList<>(known.values());
+  }
+
+  /**
+   * @param javadocClass The class to get them for
+   * @return The superclass and interfaces named in the declaration of the class. Empty if the
+   * class was not parsed yet.
+   */
+  public List<JavadocClass> getDirectSupertypes(JavadocClass javadocClass) {
+    List<JavadocClass> known = directSupertypes.get(javadocClass.getUrl());
+    return known == null ? ImmutableList.of() : known;
+  }
+
+  /**
+   * Returns all classes known to directly extend or implement the given one. For an interface,
+   * these are its implementors and the interfaces extending it. Only parsed classes are known, so
+   * crawl the javadoc first if you need all of them.
+   *
+   * @param javadocClass The class to get them for
+   * @return All known direct subtypes of the class
+   */
+  public List<JavadocClass> getDirectSubtypes(JavadocClass javadocClass) {
+    Map<String, JavadocClass> known = directSubtypes.get(javadocClass.getUrl());
+    if (known == null) {
+      return ImmutableList.of();
+    }
+    return new ArrayList<>(known.values());
+  }
+
+  /**
+   * @return The amount of classes whose supertypes are known
+   */
+  public int size() {
+    return supertypes.size();
+  }
+
+  /**
+   * Records the supertypes of a class, replacing any previous ones.
+   *
+   * @param javadocClass The class
+   * @param edges Its supertypes
+   * @param direct Its direct supertypes
+   */
+  void put(JavadocClass javadocClass, Collection<Supertype> edges,
+      Collection<JavadocClass> direct) {
+    ImmutableList<Supertype> previous = supertypes.put(
+        javadocClass.getUrl(), ImmutableList.copyOf(edges)
+    );
+    if (previous != null) {
+      for (Supertype edge : previous) {
+        remove(subtypes, edge.getType(), javadocClass);
+      }
+    }
+    for (Supertype edge : edges) {
+      add(subtypes, edge.getType(), javadocClass);
+    }
+
+    ImmutableList<JavadocClass> previousDirect = directSupertypes.put(
+        javadocClass.getUrl(), ImmutableList.copyOf(direct)
+    );
+    if (previousDirect != null) {
+      for (JavadocClass supertype : previousDirect) {
+        remove(directSubtypes, supertype, javadocClass);
+      }
+    }
+    for (JavadocClass supertype : direct) {
+      add(directSubtypes, supertype, javadocClass);
+    }
+  }
+
+  private static void add(Map<String, Map<String, JavadocClass>> subtypes, JavadocClass supertype,
+      JavadocClass subtype) {
+    subtypes.computeIfAbsent(supertype.getUrl(), url -> new ConcurrentHashMap<>())
+        .put(subtype.getUrl(), subtype);
+  }
+
+  private static void remove(Map<String, Map<String, JavadocClass>> subtypes,
+      JavadocClass supertype, JavadocClass subtype) {
+    Map<String, JavadocClass> known = subtypes.get(supertype.getUrl());
+    if (known != null) {
+      known.remove(subtype.getUrl());
+    }
+  }
+
+  /**
+   * Forgets all relations, e.g. because the classes were re-indexed.
+   */
+  public void clear() {
+    supertypes.clear();
+    subtypes.clear();
+    directSupertypes.clear();
+    directSubtypes.clear();
+  }
+
+  /**
+   * An edge to a supertype, with the names of the methods inherited from it
+   */
+  public static class Supertype {
+
+    private final JavadocClass type;
+    private final Set<String> inheritedMethodNames;
+
+    /**
+     * @param type The supertype
+     * @param inheritedMethodNames The names of the methods inherited from it
+     */
+    Supertype(JavadocClass type, Set<String> inheritedMethodNames) {
+      this.type = type;
+      this.inheritedMethodNames = inheritedMethodNames;
+    }
+
+    /**
+     * @return The supertype
+     */
+    public JavadocClass getType() {
+      return type;
+    }
+
+    /**
+     * @return The names of the methods inherited from it
+     */
+    public Set<String> getInheritedMethodNames() {
+      return inheritedMethodNames;
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import java.nio.file.Path;
+
+/**
+ * Reads the pages from an exploded Javadoc directory.
+ * <p>
+ * Example: {@code new DirectoryPageSource(Paths.get("docs/api"), settings.getBaseUrl())}
+ */
+public class DirectoryPageSource extends LocalPageSource {
+
+  private final Path root;
+
+  /**
+   * @param root The directory containing the javadoc (the one with the "overview-summary.html")
+   * @param baseUrl The base url the directory is a copy of. Used to map the urls to files.
+   */
+  public DirectoryPageSource(Path root, String baseUrl) {
+    super(baseUrl);
+    this.root = root.toAbsolutePath().normalize();
+  }
+
+  @Override
+  Path getRoot() {
+    return root;
+  }
+}
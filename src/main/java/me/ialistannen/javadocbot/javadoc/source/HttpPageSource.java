@@ -0,0 +1,22 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import java.io.IOException;
+import org.jsoup.Connection.Response;
+import org.jsoup.Jsoup;
+
+/**
+ * Reads the pages from the web.
+ */
+public class HttpPageSource implements PageSource {
+
+  private static final int TIMEOUT_MILLIS = 10000;
+
+  @Override
+  public PageContent read(String url) throws IOException {
+    Response response = Jsoup.connect(url)
+        .userAgent("Mozilla/5.0")
+        .timeout(TIMEOUT_MILLIS)
+        .execute();
+    return new PageContent(response.bodyAsBytes(), response.charset());
+  }
+}
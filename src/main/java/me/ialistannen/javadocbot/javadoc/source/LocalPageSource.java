@@ -0,0 +1,80 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Reads the pages from a local copy of the Javadoc, by mapping the absolute URLs to paths relative
+ * to a root directory.
+ */
+abstract class LocalPageSource implements PageSource {
+
+  private final String baseUrl;
+
+  /**
+   * @param baseUrl The base url the local copy corresponds to
+   */
+  LocalPageSource(String baseUrl) {
+    Objects.requireNonNull(baseUrl, "baseUrl can not be null!");
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+  }
+
+  /**
+   * @return The root directory of the local copy
+   */
+  abstract Path getRoot();
+
+  @Override
+  public PageContent read(String url) throws IOException {
+    Path path = resolve(url);
+    if (!Files.isRegularFile(path)) {
+      throw new FileNotFoundException("Page not found in local copy: " + url);
+    }
+    return new PageContent(Files.readAllBytes(path), null);
+  }
+
+  /**
+   * Resolves an absolute url to its path in the local copy.
+   *
+   * @param url The absolute url
+   * @return The path of the page in the local copy
+   * @throws FileNotFoundException if the url is not part of the local copy
+   */
+  private Path resolve(String url) throws IOException {
+    if (!url.startsWith(baseUrl)) {
+      throw new FileNotFoundException("Url is not part of the local copy: " + url);
+    }
+    String relative = url.substring(baseUrl.length());
+
+    int end = relative.length();
+    int fragmentStart = relative.indexOf('#');
+    if (fragmentStart >= 0) {
+      end = fragmentStart;
+    }
+    int queryStart = relative.indexOf('?');
+    if (queryStart >= 0 && queryStart < end) {
+      end = queryStart;
+    }
+    relative = decode(relative.substring(0, end));
+
+    Path root = getRoot();
+    Path path = root.resolve(relative).normalize();
+    if (!path.startsWith(root)) {
+      throw new FileNotFoundException("Url escapes the local copy: " + url);
+    }
+    return path;
+  }
+
+  private static String decode(String path) {
+    try {
+      return URLDecoder.decode(path.replace("+", "%2B"), "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new AssertionError("UTF-8 is always supported", e);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Objects;
+
+/**
+ * The raw content of a Javadoc page
+ */
+public class PageContent {
+
+  private final byte[] bytes;
+  private final String charset;
+
+  /**
+   * @param bytes The raw bytes of the page
+   * @param charset The charset of the page or null to detect it from the page
+   */
+  public PageContent(byte[] bytes, String charset) {
+    this.bytes = Objects.requireNonNull(bytes, "bytes can not be null!");
+    this.charset = charset;
+  }
+
+  /**
+   * @return The raw bytes of the page. Do not modify them.
+   */
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @return The charset of the page or null if it should be detected from the page
+   */
+  public String getCharset() {
+    return charset;
+  }
+
+  /**
+   * Decodes the page using its charset. Falls back to UTF-8 if it is unknown, as the charset is
+   * not detected from the page here.
+   *
+   * @return The decoded page
+   */
+  public String getText() {
+    Charset decodeWith = StandardCharsets.UTF_8;
+    if (charset != null) {
+      try {
+        decodeWith = Charset.forName(charset);
+      } catch (IllegalCharsetNameException | UnsupportedCharsetException ignored) {
+        // fall back to UTF-8
+      }
+    }
+    return new String(bytes, decodeWith);
+  }
+}
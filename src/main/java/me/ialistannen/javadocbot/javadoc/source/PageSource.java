@@ -0,0 +1,21 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import java.io.IOException;
+
+/**
+ * A source for Javadoc pages.
+ * <p>
+ * Pages are always requested by their absolute URL, even if they are read from a local copy. This
+ * ensures links resolve to the same absolute URLs regardless of the source.
+ */
+public interface PageSource {
+
+  /**
+   * Reads the page with the given url.
+   *
+   * @param url The absolute url of the page. May contain a fragment.
+   * @return The content of the page
+   * @throws IOException if an error occurred while reading the page
+   */
+  PageContent read(String url) throws IOException;
+}
@@ -0,0 +1,51 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+
+/**
+ * Reads the pages straight from a {@code -javadoc.jar} or a zip file, using the NIO zip
+ * {@link FileSystem}.
+ * <p>
+ * Close it, once you no longer need it.
+ */
+public class ZipPageSource extends LocalPageSource implements Closeable {
+
+  private final FileSystem fileSystem;
+  private final Path root;
+
+  /**
+   * @param archive The jar or zip file
+   * @param baseUrl The base url the archive is a copy of. Used to map the urls to entries.
+   * @throws IOException if the archive could not be opened
+   */
+  public ZipPageSource(Path archive, String baseUrl) throws IOException {
+    this(archive, "/", baseUrl);
+  }
+
+  /**
+   * @param archive The jar or zip file
+   * @param directory The directory inside the archive that contains the javadoc, e.g.
+   * "docs/api"
+   * @param baseUrl The base url the archive is a copy of. Used to map the urls to entries.
+   * @throws IOException if the archive could not be opened
+   */
+  public ZipPageSource(Path archive, String directory, String baseUrl) throws IOException {
+    super(baseUrl);
+    this.fileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null);
+    this.root = fileSystem.getPath("/").resolve(directory).normalize();
+  }
+
+  @Override
+  Path getRoot() {
+    return root;
+  }
+
+  @Override
+  public void close() throws IOException {
+    fileSystem.close();
+  }
+}
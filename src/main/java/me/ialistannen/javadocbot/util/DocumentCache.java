@@ -0,0 +1,245 @@
+package me.ialistannen.javadocbot.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeVisitor;
+
+/**
+ * A bounded cache for parsed {@link Document}s.
+ * <p>
+ * Entries are keyed by their canonical URL (without the fragment), so all anchors on a page share
+ * the same entry. The cache is bounded by the estimated heap size of the parsed pages (see
+ * {@link #estimateWeight(Document, int)}) and evicts the least recently used ones first.
+ * <p>
+ * Every {@link me.ialistannen.javadocbot.javadoc.JavadocSettings} has its own cache, so managers
+ * reading from different page sources do not share pages.
+ * <p>
+ * <em>The cached documents are shared. Do not modify them.</em>
+ */
+public class DocumentCache {
+
+  /**
+   * The default maximum weight: 64 MiB of parsed pages
+   */
+  public static final long DEFAULT_MAXIMUM_WEIGHT = 64 * 1024 * 1024;
+
+  /**
+   * The default time to live in minutes
+   */
+  public static final long DEFAULT_TIME_TO_LIVE_MINUTES = 60;
+
+  // measured with jsoup 1.9.2: a node with its attributes and child list, without the text
+  private static final int BYTES_PER_NODE = 140;
+
+  private final Cache<String, CachedPage> cache;
+  private final SingleFlight<String, Document> inFlight = new SingleFlight<>();
+
+  /**
+   * Creates a cache with the default weight and time to live.
+   */
+  public DocumentCache() {
+    this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_TIME_TO_LIVE_MINUTES, TimeUnit.MINUTES);
+  }
+
+  /**
+   * @param maximumWeight The maximum summed up weight (estimated heap bytes) of all cached pages
+   * @param timeToLive The time an entry will be kept after it was loaded
+   * @param unit The {@link TimeUnit} of the time to live
+   */
+  public DocumentCache(long maximumWeight, long timeToLive, TimeUnit unit) {
+    cache = CacheBuilder.newBuilder()
+        .maximumWeight(maximumWeight)
+        .weigher(new PageWeigher())
+        .expireAfterWrite(timeToLive, unit)
+        .build();
+  }
+
+  /**
+   * Returns the cached document for the url or loads it using the loader.
+   * <p>
+   * Concurrent requests for the same page will wait for a single load.
+   *
+   * @param url The url of the page. May contain a fragment.
+   * @param loader The loader to use if the page is not cached
+   * @return The parsed document
+   * @throws RuntimeException if the loader failed
+   */
+  public Document get(String url, Callable<CachedPage> loader) {
+    try {
+      return cache.get(canonicalize(url), loader).getDocument();
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Error while loading the page", e.getCause());
+    }
+  }
+
+  /**
+   * Returns the cached document for the url or loads it using the loader, without blocking the
+   * calling thread.
+   * <p>
+   * The lookup runs on the executor. Concurrent requests for the same page (ignoring the fragment)
+   * share a single lookup, so a burst of requests for one page does not park an executor thread
+   * per request.
+   *
+   * @param url The url of the page. May contain a fragment.
+   * @param loader The loader to use if the page is not cached
+   * @param executor The {@link Executor} to look up and load the page on
+   * @return A future completing with the parsed document
+   */
+  public CompletableFuture<Document> getAsync(String url, Callable<CachedPage> loader,
+      Executor executor) {
+    return inFlight.execute(
+        canonicalize(url),
+        key -> CompletableFuture.supplyAsync(() -> get(url, loader), executor)
+    );
+  }
+
+  /**
+   * Returns the cached document, without loading it.
+   *
+   * @param url The url of the page. May contain a fragment.
+   * @return The cached document or null if it is not cached
+   */
+  @SuppressWarnings("unused")
+  public Document getIfPresent(String url) {
+    CachedPage page = cache.getIfPresent(canonicalize(url));
+    return page == null ? null : page.getDocument();
+  }
+
+  /**
+   * Removes a single page from the cache.
+   *
+   * @param url The url of the page. May contain a fragment.
+   */
+  @SuppressWarnings("unused")
+  public void invalidate(String url) {
+    cache.invalidate(canonicalize(url));
+  }
+
+  /**
+   * Removes all pages from the cache.
+   */
+  @SuppressWarnings("unused")
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * @return The amount of cached pages
+   */
+  @SuppressWarnings("unused")
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * @return The statistics (hit and miss count, load times, ...) of this cache
+   */
+  @SuppressWarnings("unused")
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Returns the canonical form of the url, which is used as the cache key.
+   *
+   * @param url The url to canonicalize
+   * @return The url without the fragment and normalized, if it is a valid URI
+   */
+  static String canonicalize(String url) {
+    String withoutFragment = url.trim();
+    int fragmentStart = withoutFragment.indexOf('#');
+    if (fragmentStart >= 0) {
+      withoutFragment = withoutFragment.substring(0, fragmentStart);
+    }
+    try {
+      return new URI(withoutFragment).normalize().toString();
+    } catch (URISyntaxException e) {
+      return withoutFragment;
+    }
+  }
+
+  /**
+   * Estimates the heap size of a parsed page. A parsed document takes several times the size of
+   * its source: every character is stored as a UTF-16 char and every node costs about 140
+   * bytes on top.
+   *
+   * @param document The parsed document
+   * @param sourceLength The length of the page source
+   * @return The estimated heap size of the document in bytes
+   */
+  public static int estimateWeight(Document document, int sourceLength) {
+    NodeCounter counter = new NodeCounter();
+    document.traverse(counter);
+    long weight = 2L * sourceLength + (long) BYTES_PER_NODE * counter.count;
+    return (int) Math.min(Integer.MAX_VALUE, weight);
+  }
+
+  /**
+   * A parsed page together with its estimated weight.
+   */
+  public static class CachedPage {
+
+    private final Document document;
+    private final int weight;
+
+    /**
+     * @param document The parsed document
+     * @param weight The estimated heap size in bytes, see {@link #estimateWeight(Document, int)}
+     */
+    public CachedPage(Document document, int weight) {
+      this.document = document;
+      this.weight = weight;
+    }
+
+    /**
+     * @return The parsed document
+     */
+    public Document getDocument() {
+      return document;
+    }
+
+    /**
+     * @return The estimated weight in bytes
+     */
+    public int getWeight() {
+      return weight;
+    }
+  }
+
+  private static class NodeCounter implements NodeVisitor {
+
+    private int count;
+
+    @Override
+    public void head(Node node, int depth) {
+      count++;
+    }
+
+    @Override
+    public void tail(Node node, int depth) {
+    }
+  }
+
+  private static class PageWeigher implements Weigher<String, CachedPage> {
+
+    @Override
+    public int weigh(String key, CachedPage value) {
+      return Math.max(1, value.getWeight());
+    }
+  }
+}
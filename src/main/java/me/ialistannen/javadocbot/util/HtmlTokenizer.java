@@ -0,0 +1,312 @@
+package me.ialistannen.javadocbot.util;
+
+import java.util.Locale;
+import java.util.Objects;
+import org.jsoup.helper.StringUtil;
+import org.jsoup.parser.Parser;
+
+/**
+ * A streaming HTML tokenizer, for pages where only a few elements are needed.
+ * <p>
+ * Unlike {@link org.jsoup.Jsoup#parse(String)} it does not build a tree. It just walks over the
+ * tags and texts, one token at a time, and only allocates what you ask for. Attributes are parsed
+ * on demand. Comments, doctypes and the content of {@code script} and {@code style} elements are
+ * skipped.
+ * <p>
+ * It does not fix up broken HTML, so it is only suited for well formed, generated pages like the
+ * javadoc.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * HtmlTokenizer tokenizer = new HtmlTokenizer(html);
+ * while (tokenizer.next()) {
+ *   if (tokenizer.isStartTag("a")) {
+ *     System.out.println(tokenizer.getAttribute("href"));
+ *   }
+ * }
+ * }</pre>
+ */
+public class HtmlTokenizer {
+
+  /**
+   * The type of a token
+   */
+  public enum TokenType {
+    START_TAG,
+    END_TAG,
+    TEXT
+  }
+
+  private final String html;
+  private int position;
+
+  private TokenType type;
+  private int tokenStart;
+  private int tokenEnd;
+  private String tagName;
+  private boolean selfClosing;
+
+  /**
+   * @param html The HTML to tokenize
+   */
+  public HtmlTokenizer(String html) {
+    this.html = Objects.requireNonNull(html, "html can not be null!");
+  }
+
+  /**
+   * Advances to the next token.
+   *
+   * @return False if the end was reached
+   */
+  public boolean next() {
+    while (position < html.length()) {
+      if (html.charAt(position) != '<') {
+        readText();
+        return true;
+      }
+      if (html.startsWith("<!--", position)) {
+        position = skipPast("-->", position + 4);
+      } else if (html.startsWith("<!", position) || html.startsWith("<?", position)) {
+        position = skipPast(">", position + 2);
+      } else if (html.startsWith("</", position) && isLetterAt(position + 2)) {
+        readTag(TokenType.END_TAG, position + 2);
+        return true;
+      } else if (isLetterAt(position + 1)) {
+        readTag(TokenType.START_TAG, position + 1);
+        if (tagName.equals("script") || tagName.equals("style")) {
+          skipRawText();
+        }
+        return true;
+      } else {
+        readText();
+        return true;
+      }
+    }
+    type = null;
+    return false;
+  }
+
+  /**
+   * @return The type of the current token
+   */
+  public TokenType getType() {
+    return type;
+  }
+
+  /**
+   * @param name The name of the tag, lower case
+   * @return True if the current token is a start tag with that name
+   */
+  public boolean isStartTag(String name) {
+    return type == TokenType.START_TAG && tagName.equals(name);
+  }
+
+  /**
+   * @param name The name of the tag, lower case
+   * @return True if the current token is an end tag with that name
+   */
+  public boolean isEndTag(String name) {
+    return type == TokenType.END_TAG && tagName.equals(name);
+  }
+
+  /**
+   * @return The lower case name of the current tag or null if the current token is no tag
+   */
+  public String getTagName() {
+    return type == TokenType.TEXT ? null : tagName;
+  }
+
+  /**
+   * @return True if the current start tag is self closing, like {@code <br/>}
+   */
+  public boolean isSelfClosing() {
+    return type == TokenType.START_TAG && selfClosing;
+  }
+
+  /**
+   * @return The decoded text of the current text token
+   * @throws IllegalStateException if the current token is no text
+   */
+  public String getText() {
+    if (type != TokenType.TEXT) {
+      throw new IllegalStateException("The current token is no text");
+    }
+    return Parser.unescapeEntities(html.substring(tokenStart, tokenEnd), false);
+  }
+
+  /**
+   * Appends the text of the current text token with normalized whitespace, like
+   * {@link org.jsoup.nodes.Element#text()} does.
+   *
+   * @param builder The builder to append to
+   * @throws IllegalStateException if the current token is no text
+   */
+  public void appendNormalizedText(StringBuilder builder) {
+    boolean stripLeading = builder.length() == 0
+        || StringUtil.isWhitespace(builder.charAt(builder.length() - 1));
+    StringUtil.appendNormalisedWhitespace(builder, getText(), stripLeading);
+  }
+
+  /**
+   * @param name The name of the attribute, case insensitive
+   * @return The decoded value of the attribute of the current start tag or null if it has none.
+   * An attribute without a value is returned as an empty String.
+   */
+  public String getAttribute(String name) {
+    if (type != TokenType.START_TAG) {
+      return null;
+    }
+    int index = tokenStart;
+    while (index < tokenEnd) {
+      // skip to the attribute name
+      while (index < tokenEnd && isAttributeSeparator(html.charAt(index))) {
+        index++;
+      }
+      int nameStart = index;
+      while (index < tokenEnd && !isAttributeSeparator(html.charAt(index))
+          && html.charAt(index) != '=') {
+        index++;
+      }
+      int nameEnd = index;
+      while (index < tokenEnd && Character.isWhitespace(html.charAt(index))) {
+        index++;
+      }
+
+      String value = "";
+      if (index < tokenEnd && html.charAt(index) == '=') {
+        index++;
+        while (index < tokenEnd && Character.isWhitespace(html.charAt(index))) {
+          index++;
+        }
+        int valueStart;
+        int valueEnd;
+        if (index < tokenEnd && (html.charAt(index) == '"' || html.charAt(index) == '\'')) {
+          char quote = html.charAt(index);
+          valueStart = index + 1;
+          valueEnd = html.indexOf(quote, valueStart);
+          if (valueEnd < 0 || valueEnd > tokenEnd) {
+            valueEnd = tokenEnd;
+          }
+          index = Math.min(valueEnd + 1, tokenEnd);
+        } else {
+          valueStart = index;
+          while (index < tokenEnd && !Character.isWhitespace(html.charAt(index))) {
+            index++;
+          }
+          valueEnd = index;
+        }
+        value = html.substring(valueStart, valueEnd);
+      }
+
+      if (nameEnd > nameStart
+          && html.regionMatches(true, nameStart, name, 0, name.length())
+          && nameEnd - nameStart == name.length()) {
+        return Parser.unescapeEntities(value, true);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param className The name of the class
+   * @return True if the current start tag has the given class
+   */
+  public boolean hasClass(String className) {
+    String classes = getAttribute("class");
+    if (classes == null) {
+      return false;
+    }
+    for (String name : classes.split("\\s+")) {
+      if (name.equals(className)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void readText() {
+    int end = html.indexOf('<', position + 1);
+    if (end < 0) {
+      end = html.length();
+    }
+    type = TokenType.TEXT;
+    tokenStart = position;
+    tokenEnd = end;
+    position = end;
+  }
+
+  /**
+   * Reads a tag. The token range is set to the attributes.
+   *
+   * @param tokenType The type of the tag
+   * @param nameStart The index the name starts at
+   */
+  private void readTag(TokenType tokenType, int nameStart) {
+    int index = nameStart;
+    while (index < html.length() && !isAttributeSeparator(html.charAt(index))) {
+      index++;
+    }
+    String name = html.substring(nameStart, index).toLowerCase(Locale.ROOT);
+
+    int attributesStart = index;
+    char quote = 0;
+    while (index < html.length()) {
+      char current = html.charAt(index);
+      if (quote != 0) {
+        if (current == quote) {
+          quote = 0;
+        }
+      } else if (current == '"' || current == '\'') {
+        quote = current;
+      } else if (current == '>') {
+        break;
+      }
+      index++;
+    }
+    int attributesEnd = Math.min(index, html.length());
+
+    type = tokenType;
+    tagName = name;
+    tokenStart = attributesStart;
+    tokenEnd = attributesEnd;
+    selfClosing = attributesEnd > attributesStart && html.charAt(attributesEnd - 1) == '/';
+    position = Math.min(index + 1, html.length());
+  }
+
+  /**
+   * Skips the content of a {@code script} or {@code style} element, so its end tag is next.
+   */
+  private void skipRawText() {
+    if (selfClosing) {
+      return;
+    }
+    String endTag = "</" + tagName;
+    int index = position;
+    while (index < html.length()) {
+      int candidate = html.indexOf("</", index);
+      if (candidate < 0) {
+        index = html.length();
+        break;
+      }
+      if (html.regionMatches(true, candidate, endTag, 0, endTag.length())) {
+        index = candidate;
+        break;
+      }
+      index = candidate + 2;
+    }
+    position = index;
+  }
+
+  private int skipPast(String end, int from) {
+    int index = html.indexOf(end, from);
+    return index < 0 ? html.length() : index + end.length();
+  }
+
+  private boolean isLetterAt(int index) {
+    return index < html.length() && Character.isLetter(html.charAt(index));
+  }
+
+  private static boolean isAttributeSeparator(char character) {
+    return Character.isWhitespace(character) || character == '/' || character == '>';
+  }
+}
@@ -1,11 +1,20 @@
 package me.ialistannen.javadocbot.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import me.ialistannen.javadocbot.javadoc.source.HttpPageSource;
+import me.ialistannen.javadocbot.javadoc.source.PageContent;
+import me.ialistannen.javadocbot.javadoc.source.PageSource;
+import me.ialistannen.javadocbot.util.DocumentCache.CachedPage;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -19,22 +28,135 @@ public class JsoupUtil {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(JsoupUtil.class);
 
+  private static final PageSource HTTP_PAGE_SOURCE = new HttpPageSource();
+
+  private static volatile DocumentCache documentCache = new DocumentCache();
+
   /**
-   * Parses an URL to a {@link Jsoup} {@link Document}
+   * Parses an URL to a {@link Jsoup} {@link Document}, fetching it from the web.
+   * <p>
+   * The document is served from the {@link #getDocumentCache()} if possible.
+   * <em>Do not modify the returned document, as it is shared.</em>
    *
    * @param url The url
    * @return The parsed document
    * @throws RuntimeException if an error occurred
+   * @see #parseUrl(String, PageSource, DocumentCache)
    */
   public static Document parseUrl(String url) {
+    return parseUrl(url, HTTP_PAGE_SOURCE, documentCache);
+  }
+
+  /**
+   * Parses an URL to a {@link Jsoup} {@link Document}, reading it from the given
+   * {@link PageSource}.
+   * <p>
+   * The document is served from the given cache if possible. Concurrent calls for the same page
+   * wait for a single fetch.
+   * <em>Do not modify the returned document, as it is shared.</em>
+   *
+   * @param url The url
+   * @param pageSource The {@link PageSource} to read the page from
+   * @param documentCache The {@link DocumentCache} of the page source
+   * @return The parsed document
+   * @throws RuntimeException if an error occurred
+   */
+  public static Document parseUrl(String url, PageSource pageSource,
+      DocumentCache documentCache) {
+    return documentCache.get(url, () -> fetchUrl(url, pageSource));
+  }
+
+  /**
+   * Parses an URL to a {@link Jsoup} {@link Document} without blocking the calling thread.
+   * <p>
+   * The document is served from the given cache if possible. Otherwise it is fetched on the given
+   * executor. Concurrent calls for the same page (ignoring the fragment) share a single fetch, so
+   * a burst of requests for one page only fetches it once and does not park an executor thread
+   * per request.
+   * <em>Do not modify the returned document, as it is shared.</em>
+   *
+   * @param url The url
+   * @param pageSource The {@link PageSource} to read the page from
+   * @param documentCache The {@link DocumentCache} of the page source
+   * @param executor The {@link Executor} to fetch the page on
+   * @return A future completing with the parsed document
+   */
+  public static CompletableFuture<Document> parseUrlAsync(String url, PageSource pageSource,
+      DocumentCache documentCache, Executor executor) {
+    return documentCache.getAsync(url, () -> fetchUrl(url, pageSource), executor);
+  }
+
+  /**
+   * Fetches and parses an URL, bypassing the cache.
+   *
+   * @param url The url
+   * @param pageSource The {@link PageSource} to read the page from
+   * @return The parsed page
+   * @throws RuntimeException if an error occurred
+   */
+  private static CachedPage fetchUrl(String url, PageSource pageSource) {
+    PageContent content = readUrl(url, pageSource);
+    Document document = parse(content, url);
+    return new CachedPage(
+        document, DocumentCache.estimateWeight(document, content.getBytes().length)
+    );
+  }
+
+  /**
+   * Reads the raw content of an URL, without parsing or caching it.
+   *
+   * @param url The url
+   * @param pageSource The {@link PageSource} to read the page from
+   * @return The raw page
+   * @throws RuntimeException if an error occurred
+   */
+  public static PageContent readUrl(String url, PageSource pageSource) {
     try {
-      return Jsoup.connect(url).userAgent("Mozilla/5.0").timeout(10000).get();
+      return pageSource.read(url);
     } catch (IOException e) {
       LOGGER.warn("Couldn't connect to url", e);
       throw new RuntimeException("Error while connecting", e);
     }
   }
 
+  /**
+   * Parses the raw content of a page, bypassing the cache.
+   *
+   * @param content The raw content of the page
+   * @param url The url of the page, used to resolve relative links
+   * @return The parsed document
+   * @throws UncheckedIOException if the content could not be decoded
+   */
+  public static Document parse(PageContent content, String url) {
+    try {
+      return Jsoup.parse(new ByteArrayInputStream(content.getBytes()), content.getCharset(), url);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error while parsing the page", e);
+    }
+  }
+
+  /**
+   * @return The {@link DocumentCache} used by {@link #parseUrl(String)}. The javadoc classes use
+   * the one of their {@link me.ialistannen.javadocbot.javadoc.JavadocSettings} instead.
+   */
+  @SuppressWarnings("unused")
+  public static DocumentCache getDocumentCache() {
+    return documentCache;
+  }
+
+  /**
+   * Replaces the {@link DocumentCache} used by {@link #parseUrl(String)}.
+   * <p>
+   * Use this to configure the maximum weight or the time to live.
+   *
+   * @param documentCache The new {@link DocumentCache}
+   */
+  @SuppressWarnings("unused")
+  public static void setDocumentCache(DocumentCache documentCache) {
+    JsoupUtil.documentCache = Objects
+        .requireNonNull(documentCache, "documentCache can not be null!");
+  }
+
   /**
    * Finds the first matching element
    *
@@ -0,0 +1,111 @@
+package me.ialistannen.javadocbot.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A lazily computed value, that is computed at most once at a time and then cached.
+ * <p>
+ * Reading a computed value is a single volatile read and never blocks. While the value is being
+ * computed, other readers wait for that computation instead of starting their own, but no
+ * monitor is held. If the computation fails, all waiting readers get the exception and the next
+ * read tries again.
+ *
+ * @param <T> The type of the value
+ */
+public class Memoized<T> {
+
+  private final Supplier<T> supplier;
+
+  private volatile T value;
+  private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+  /**
+   * @param supplier The supplier computing the value. Must not return null.
+   */
+  public Memoized(Supplier<T> supplier) {
+    this.supplier = Objects.requireNonNull(supplier, "supplier can not be null!");
+  }
+
+  /**
+   * Returns the value, computing it if needed.
+   *
+   * @return The value
+   * @throws RuntimeException if the computation failed. Errors are passed through as well.
+   */
+  public T get() {
+    T current = value;
+    if (current != null) {
+      return current;
+    }
+
+    CompletableFuture<T> computation = new CompletableFuture<>();
+    while (!inFlight.compareAndSet(null, computation)) {
+      CompletableFuture<T> existing = inFlight.get();
+      if (existing != null) {
+        return join(existing);
+      }
+    }
+
+    // it might have been computed between the first read and winning the race
+    current = value;
+    if (current != null) {
+      inFlight.set(null);
+      computation.complete(current);
+      return current;
+    }
+
+    try {
+      current = Objects.requireNonNull(supplier.get(), "The supplier returned null!");
+      value = current;
+      computation.complete(current);
+      return current;
+    } catch (Throwable e) {
+      // anything else would leave the waiting readers blocked forever
+      computation.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.set(null);
+    }
+  }
+
+  /**
+   * @return The value or null if it was not computed yet
+   */
+  public T getIfPresent() {
+    return value;
+  }
+
+  /**
+   * Sets the value, e.g. because it was computed elsewhere.
+   *
+   * @param value The new value
+   */
+  public void set(T value) {
+    this.value = Objects.requireNonNull(value, "value can not be null!");
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Memoized{" +
+        "value=" + value +
+        '}';
+  }
+}
@@ -0,0 +1,61 @@
+package me.ialistannen.javadocbot.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent asynchronous calls for the same key.
+ * <p>
+ * While a call for a key is in flight, every other call for the same key shares its result
+ * instead of starting a new one. Once it completes, the next call starts a fresh one.
+ *
+ * @param <K> The type of the key
+ * @param <V> The type of the result
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Starts the call for the key or joins the one already in flight.
+   *
+   * @param key The key to coalesce the calls by
+   * @param call The call to start, if none is in flight
+   * @return A future completing with the result of the shared call. Cancelling it does not
+   * affect the other callers.
+   */
+  public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> call) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      return existing.thenApply(Function.identity());
+    }
+
+    try {
+      call.apply(key).whenComplete((result, throwable) -> {
+        inFlight.remove(key, created);
+        if (throwable != null) {
+          created.completeExceptionally(throwable);
+        } else {
+          created.complete(result);
+        }
+      });
+    } catch (Throwable e) {
+      // otherwise the call stays in flight and its followers never complete
+      inFlight.remove(key, created);
+      created.completeExceptionally(e);
+    }
+
+    return created.thenApply(Function.identity());
+  }
+
+  /**
+   * @return The amount of calls currently in flight
+   */
+  @SuppressWarnings("unused")
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+}
@@ -47,6 +47,43 @@ public class StringUtil {
     return replaced;
   }
 
+  /**
+   * Finds a whole word, i.e. one surrounded by whitespace (or the start/end of the string), that is
+   * not inside angle brackets. Non breaking spaces count as whitespace.
+   * <p>
+   * Finds {@code extends} in {@code Foo<T extends Bar> extends Baz} only at its second occurrence.
+   *
+   * @param string The string to search in
+   * @param word The word to find
+   * @return The index of the first occurrence or -1 if not found
+   */
+  public static int indexOfWord(String string, String word) {
+    int depth = 0;
+    for (int i = 0; i < string.length(); i++) {
+      char current = string.charAt(i);
+      if (current == '<') {
+        depth++;
+      } else if (current == '>' && depth > 0) {
+        depth--;
+      } else if (depth == 0 && string.startsWith(word, i)) {
+        int end = i + word.length();
+        if ((i == 0 || isWhitespace(string.charAt(i - 1)))
+            && (end == string.length() || isWhitespace(string.charAt(end)))) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param character The character to check
+   * @return True if it is whitespace or a non breaking space, which javadoc uses in declarations
+   */
+  public static boolean isWhitespace(char character) {
+    return Character.isWhitespace(character) || character == '\u00A0';
+  }
+
   private static String replaceAllOccurrencesWithFirstGroup(Pattern pattern, String string) {
     Matcher matcher = pattern.matcher(string);
     return matcher.replaceAll("$1");
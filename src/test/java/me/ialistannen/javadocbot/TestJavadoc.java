@@ -0,0 +1,116 @@
+package me.ialistannen.javadocbot;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.source.DirectoryPageSource;
+import me.ialistannen.javadocbot.javadoc.source.PageContent;
+import me.ialistannen.javadocbot.javadoc.source.PageSource;
+
+/**
+ * A javadoc copy from the test resources, read through a {@link PageSource} that records which
+ * pages were read.
+ * <ul>
+ * <li>{@link #shapes()}: a small javadoc in the old layout, with an overview, three classes and a
+ * class ("Broken") whose page is missing.</li>
+ * <li>{@link #jdk17()}: the search index files and the pages of String and Object of JDK 17.</li>
+ * </ul>
+ */
+public class TestJavadoc implements PageSource {
+
+  public static final String SHAPES_BASE_URL = "https://example.com/api/";
+  public static final String JDK_17_BASE_URL
+      = "https://docs.oracle.com/en/java/javase/17/docs/api/";
+
+  private final String baseUrl;
+  private final Path root;
+  private final PageSource source;
+  private final List<String> reads = new CopyOnWriteArrayList<>();
+
+  private TestJavadoc(String resource, String baseUrl) {
+    this.baseUrl = baseUrl;
+    this.root = resource(resource);
+    this.source = new DirectoryPageSource(root, baseUrl);
+  }
+
+  /**
+   * @return The javadoc of the "demo.shapes" package
+   */
+  public static TestJavadoc shapes() {
+    return new TestJavadoc("/javadoc8", SHAPES_BASE_URL);
+  }
+
+  /**
+   * @return The parts of the JDK 17 javadoc
+   */
+  public static TestJavadoc jdk17() {
+    return new TestJavadoc("/javadoc17", JDK_17_BASE_URL);
+  }
+
+  private static Path resource(String name) {
+    URL url = TestJavadoc.class.getResource(name);
+    if (url == null) {
+      throw new IllegalStateException("Missing test resource " + name);
+    }
+    try {
+      return Paths.get(url.toURI());
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException("Invalid test resource url " + url, e);
+    }
+  }
+
+  @Override
+  public PageContent read(String url) throws IOException {
+    reads.add(relativize(url));
+    return source.read(url);
+  }
+
+  /**
+   * @return New settings reading from this javadoc, with their own document cache
+   */
+  public JavadocSettings settings() {
+    return new JavadocSettings().setBaseUrl(baseUrl).setPageSource(this);
+  }
+
+  /**
+   * @param path The path of the page, relative to the base url
+   * @return The absolute url of the page
+   */
+  public String url(String path) {
+    return baseUrl + path;
+  }
+
+  /**
+   * @return The directory of the javadoc copy
+   */
+  public Path getRoot() {
+    return root;
+  }
+
+  /**
+   * @return The paths of all pages read so far, relative to the base url, in the order they were
+   * read
+   */
+  public List<String> getReads() {
+    return new ArrayList<>(reads);
+  }
+
+  /**
+   * Forgets the pages read so far.
+   */
+  public void clearReads() {
+    reads.clear();
+  }
+
+  private String relativize(String url) {
+    String path = url.startsWith(baseUrl) ? url.substring(baseUrl.length()) : url;
+    int fragmentStart = path.indexOf('#');
+    return fragmentStart < 0 ? path : path.substring(0, fragmentStart);
+  }
+}
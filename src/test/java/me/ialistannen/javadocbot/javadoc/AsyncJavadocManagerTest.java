@@ -0,0 +1,166 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncJavadocManagerTest {
+
+  private TestJavadoc javadoc;
+  private JavadocManager manager;
+  private ExecutorService executor;
+  private AsyncJavadocManager async;
+
+  @Before
+  public void setUp() {
+    javadoc = TestJavadoc.shapes();
+    manager = new JavadocManager(javadoc.settings());
+    manager.index();
+    javadoc.clearReads();
+    executor = Executors.newFixedThreadPool(4);
+    async = new AsyncJavadocManager(manager, executor);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private JavadocClass getClass(String name) {
+    return manager.getClassesExact(name).get(0);
+  }
+
+  private List<String> sortedReads() {
+    List<String> reads = javadoc.getReads();
+    Collections.sort(reads);
+    return reads;
+  }
+
+  @Test
+  public void fetchesTheSupertypePagesToo() throws Exception {
+    List<JavadocMethod> methods = async.getAllMethods(getClass("Circle")).get();
+
+    assertEquals(3, methods.size());
+    assertEquals(
+        Arrays.asList("demo/shapes/Circle.html", "demo/shapes/Shape.html"),
+        sortedReads()
+    );
+  }
+
+  @Test
+  public void cachedClassesAreNotFetchedAgain() throws Exception {
+    JavadocClass shapes = getClass("Shapes");
+    async.getAllMethods(shapes).get();
+    javadoc.clearReads();
+
+    assertEquals(2, async.getMethodsWithName(shapes, "max").get().size());
+    assertEquals(1, async.getMethodsWithNameAndParam(shapes, "max(int, int)").get().size());
+    assertTrue(javadoc.getReads().isEmpty());
+  }
+
+  @Test
+  public void resolvesEqualQueriesOnce() throws Exception {
+    List<QueryResult> results = async
+        .resolveAll(Arrays.asList("Shapes#max", "Circle#area", "Shapes#max"))
+        .get();
+
+    assertEquals(3, results.size());
+    assertEquals(2, results.get(0).getMethods().size());
+    assertEquals(1, results.get(1).getMethods().size());
+    assertSame(results.get(0), results.get(2));
+    assertEquals(
+        Arrays.asList(
+            "demo/shapes/Circle.html", "demo/shapes/Shape.html", "demo/shapes/Shapes.html"
+        ),
+        sortedReads()
+    );
+  }
+
+  @Test
+  public void failedQueriesDoNotFailTheBatch() throws Exception {
+    List<QueryResult> results = async
+        .resolveAll(Arrays.asList("Broken#foo", "Shapes#max"))
+        .get();
+
+    assertTrue(results.get(0).getError().isPresent());
+    assertFalse(results.get(1).getError().isPresent());
+    assertEquals(2, results.get(1).getMethods().size());
+  }
+
+  @Test
+  public void loadsDescriptions() throws Exception {
+    String description = async.getDescription(getClass("Circle")).get();
+
+    assertTrue(description, description.contains("round"));
+    assertEquals(Collections.singletonList("demo/shapes/Circle.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void sharedPagesAreFetchedOnce() throws Exception {
+    List<QueryResult> results = async
+        .resolveAll(Arrays.asList("Circle#getName", "Shape#area"))
+        .get();
+
+    assertEquals("Shape", results.get(0).getMethods().get(0).getContainingClass().getName());
+    assertEquals(1, results.get(1).getMethods().size());
+    assertEquals(
+        Arrays.asList("demo/shapes/Circle.html", "demo/shapes/Shape.html"), sortedReads()
+    );
+  }
+
+  @Test
+  public void classQueriesNeedNoPage() throws Exception {
+    List<QueryResult> results = async
+        .resolveAll(Arrays.asList("demo.shapes.Circle", "Shape", "Unknown"))
+        .get();
+
+    assertEquals("demo.shapes.Circle", results.get(0).getQuery().getClassName());
+    assertEquals(1, results.get(0).getClasses().size());
+    assertTrue(results.get(0).getMethods().isEmpty());
+    assertEquals("Shape", results.get(1).getClasses().get(0).getName());
+    assertTrue(results.get(2).getClasses().isEmpty());
+    assertFalse(results.get(2).getError().isPresent());
+    assertTrue(javadoc.getReads().isEmpty());
+  }
+
+  @Test
+  public void pagesOfABatchAreFetchedConcurrently() throws Exception {
+    CountDownLatch bothReading = new CountDownLatch(2);
+    AtomicInteger concurrentReads = new AtomicInteger();
+    JavadocManager concurrent = new JavadocManager(javadoc.settings().setPageSource(url -> {
+      if (url.endsWith("/Shapes.html") || url.endsWith("/Circle.html")) {
+        bothReading.countDown();
+        if (Uninterruptibles.awaitUninterruptibly(bothReading, 5, TimeUnit.SECONDS)) {
+          concurrentReads.incrementAndGet();
+        }
+      }
+      return javadoc.read(url);
+    }));
+    concurrent.index();
+
+    List<QueryResult> results = new AsyncJavadocManager(concurrent, executor)
+        .resolveAll(Arrays.asList("Shapes#max", "Circle#scale"))
+        .get();
+
+    assertEquals(2, results.get(0).getMethods().size());
+    assertEquals(1, results.get(1).getMethods().size());
+    assertEquals(2, concurrentReads.get());
+  }
+}
@@ -0,0 +1,85 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassParser;
+import me.ialistannen.javadocbot.javadoc.parsing.PackageParser;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClassIndexTest {
+
+  private final JavadocSettings settings = new JavadocSettings();
+
+  private JavadocClass utilMap;
+  private JavadocClass utilEntry;
+  private JavadocClass awtList;
+  private JavadocClass utilList;
+  private ClassIndex classIndex;
+
+  @Before
+  public void setUp() {
+    Package util = createPackage("java.util");
+    Package awt = createPackage("java.awt");
+    utilMap = createClass("Map", util);
+    utilEntry = createClass("Map.Entry", util);
+    utilList = createClass("List", util);
+    awtList = createClass("List", awt);
+
+    classIndex = new ClassIndex(Arrays.asList(utilMap, utilEntry, utilList, awtList));
+  }
+
+  private Package createPackage(String name) {
+    return new Package(name, name.replace('.', '/'), "", new PackageParser(settings));
+  }
+
+  private JavadocClass createClass(String name, Package parent) {
+    return new JavadocClass(
+        name, parent.getUrl() + "/" + name + ".html", parent, new ClassParser(settings)
+    );
+  }
+
+  @Test
+  public void findsBySimpleName() {
+    assertEquals(Collections.singletonList(utilMap), classIndex.getClassEndingIn("Map"));
+  }
+
+  @Test
+  public void findsAllClassesWithTheSameName() {
+    List<JavadocClass> lists = classIndex.getClassEndingIn("List");
+
+    assertEquals(2, lists.size());
+    assertTrue(lists.contains(utilList));
+    assertTrue(lists.contains(awtList));
+  }
+
+  @Test
+  public void qualifiedNamesNarrowTheResult() {
+    assertEquals(Collections.singletonList(awtList), classIndex.getClassEndingIn("awt.List"));
+    assertEquals(
+        Collections.singletonList(utilList), classIndex.getClassEndingIn("java.util.List")
+    );
+  }
+
+  @Test
+  public void findsNestedClassesByTheirFullName() {
+    assertTrue(classIndex.getClassEndingIn("Entry").isEmpty());
+    assertEquals(Collections.singletonList(utilEntry), classIndex.getClassEndingIn("Map.Entry"));
+    assertEquals(
+        Collections.singletonList(utilEntry), classIndex.getClassEndingIn("util.Map.Entry")
+    );
+  }
+
+  @Test
+  public void onlyMatchesWholeClassNames() {
+    assertTrue(classIndex.getClassEndingIn("ap").isEmpty());
+    assertTrue(classIndex.getClassEndingIn("Lis").isEmpty());
+    assertTrue(classIndex.getClassEndingIn("Set").isEmpty());
+  }
+}
@@ -0,0 +1,131 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassParser;
+import me.ialistannen.javadocbot.javadoc.parsing.PackageParser;
+import org.junit.Test;
+
+public class CompletionIndexTest {
+
+  private final JavadocSettings settings = new JavadocSettings();
+  private final AtomicLongMap<String> popularity = AtomicLongMap.create();
+
+  private JavadocClass createClass(String packageName, String name) {
+    Package parent = new Package(
+        packageName, packageName + "/package-summary.html", "", new PackageParser(settings)
+    );
+    return new JavadocClass(
+        name, packageName + "/" + name + ".html", parent, new ClassParser(settings)
+    );
+  }
+
+  private CompletionIndex classes(JavadocClass... classes) {
+    return new CompletionIndex(Arrays.asList(classes), Collections.emptyList(), popularity);
+  }
+
+  private CompletionIndex members(List<String> memberNames) {
+    return new CompletionIndex(Collections.emptyList(), memberNames, popularity);
+  }
+
+  @Test
+  public void completesSimpleNestedAndQualifiedNames() {
+    CompletionIndex index = classes(
+        createClass("java.util", "Map"),
+        createClass("java.util", "Map.Entry"),
+        createClass("java.util", "List")
+    );
+
+    assertEquals(
+        Arrays.asList("java.util.Map", "java.util.Map.Entry"), index.completeClass("MAP", 10)
+    );
+    assertEquals(
+        Collections.singletonList("java.util.Map.Entry"), index.completeClass("entr", 10)
+    );
+    assertEquals(
+        Arrays.asList("java.util.Map", "java.util.Map.Entry"),
+        index.completeClass("java.util.m", 10)
+    );
+    assertTrue(index.completeClass("set", 10).isEmpty());
+  }
+
+  @Test
+  public void listsEveryClassOnce() {
+    CompletionIndex index = classes(createClass("map", "Map"));
+
+    // matches both the simple and the qualified name
+    assertEquals(Collections.singletonList("map.Map"), index.completeClass("map", 10));
+  }
+
+  @Test
+  public void popularNamesComeFirst() {
+    popularity.put("java.util.HashMap", 3);
+
+    CompletionIndex index = classes(
+        createClass("java.util", "Hashtable"),
+        createClass("java.util", "HashMap"),
+        createClass("java.util", "HashSet")
+    );
+
+    assertEquals(
+        Arrays.asList("java.util.HashMap", "java.util.HashSet", "java.util.Hashtable"),
+        index.completeClass("hash", 10)
+    );
+  }
+
+  @Test
+  public void respectsTheLimit() {
+    CompletionIndex index = members(Arrays.asList("getName", "get", "getClass", "equals"));
+
+    assertEquals(Arrays.asList("get", "getName"), index.completeMember("get", 2));
+    assertTrue(index.completeMember("get", 0).isEmpty());
+    assertTrue(CompletionIndex.EMPTY.completeMember("", 1).isEmpty());
+  }
+
+  @Test
+  public void returnsTheBestRankedEntriesOfLargeRanges() {
+    Random random = new Random(42);
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      String name = (i % 2 == 0 ? "get" : "set") + Integer.toString(i, 36);
+      names.add(name);
+      popularity.put(name, random.nextInt(50));
+    }
+    CompletionIndex index = members(names);
+
+    List<String> expected = new ArrayList<>();
+    for (String name : names) {
+      if (name.startsWith("get")) {
+        expected.add(name);
+      }
+    }
+    expected.sort(Comparator
+        .comparingLong((String name) -> -popularity.get(name))
+        .thenComparingInt(String::length)
+        .thenComparing(name -> name));
+
+    assertEquals(expected.subList(0, 25), index.completeMember("GET", 25));
+  }
+
+  @Test
+  public void theManagerCompletesIndexedClasses() {
+    JavadocManager manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+
+    assertEquals(
+        Arrays.asList("demo.shapes.Shape", "demo.shapes.Shapes"),
+        manager.completeClass("shape", 5)
+    );
+  }
+}
@@ -0,0 +1,160 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassParser;
+import me.ialistannen.javadocbot.javadoc.parsing.PackageParser;
+import org.junit.Test;
+
+public class FuzzyIndexTest {
+
+  private final JavadocSettings settings = new JavadocSettings();
+  private final AtomicLongMap<String> popularity = AtomicLongMap.create();
+
+  private JavadocClass createClass(String packageName, String name) {
+    Package parent = new Package(
+        packageName, packageName + "/package-summary.html", "", new PackageParser(settings)
+    );
+    return new JavadocClass(
+        name, packageName + "/" + name + ".html", parent, new ClassParser(settings)
+    );
+  }
+
+  private FuzzyIndex members(List<String> memberNames) {
+    return new FuzzyIndex(Collections.emptyList(), memberNames);
+  }
+
+  private static int levenshtein(String first, String second) {
+    int[][] distances = new int[first.length() + 1][second.length() + 1];
+    for (int i = 0; i <= first.length(); i++) {
+      for (int j = 0; j <= second.length(); j++) {
+        if (i == 0 || j == 0) {
+          distances[i][j] = i + j;
+        } else {
+          int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+          distances[i][j] = Math.min(
+              Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1),
+              distances[i - 1][j - 1] + cost
+          );
+        }
+      }
+    }
+    return distances[first.length()][second.length()];
+  }
+
+  @Test
+  public void suggestsClassesIgnoringCase() {
+    FuzzyIndex index = new FuzzyIndex(Arrays.asList(
+        createClass("java.util", "HashMap"),
+        createClass("java.util", "HashSet"),
+        createClass("java.util", "Hashtable"),
+        createClass("java.util", "TreeMap")
+    ), Collections.emptyList());
+
+    assertEquals(
+        Collections.singletonList("java.util.HashMap"), index.suggestClass("Hashmpa", 5, popularity)
+    );
+    assertEquals("java.util.HashMap", index.suggestClass("hashmap", 5, popularity).get(0));
+  }
+
+  @Test
+  public void suggestsNestedClassesByTheirOwnName() {
+    FuzzyIndex index = new FuzzyIndex(
+        Collections.singletonList(createClass("java.util", "Map.Entry")), Collections.emptyList()
+    );
+
+    assertEquals(
+        Collections.singletonList("java.util.Map.Entry"),
+        index.suggestClass("java.util.Map.Entyr", 5, popularity)
+    );
+  }
+
+  @Test
+  public void allowsMoreEditsForLongerNames() {
+    FuzzyIndex index = members(Arrays.asList("get", "getName", "computeIfAbsent"));
+
+    // a swap is two edits, too many for a short name
+    assertTrue(index.suggestMember("gte", 5, popularity).isEmpty());
+    assertEquals(Collections.singletonList("get"), index.suggestMember("gt", 5, popularity));
+    assertEquals(Collections.singletonList("getName"), index.suggestMember("gtNme", 5, popularity));
+    assertEquals(
+        Collections.singletonList("computeIfAbsent"),
+        index.suggestMember("compteIfAbsnet", 5, popularity)
+    );
+  }
+
+  @Test
+  public void closerAndPopularNamesComeFirst() {
+    FuzzyIndex index = members(Arrays.asList("getNone", "getName", "getNames"));
+
+    assertEquals(
+        Arrays.asList("getName", "getNone", "getNames"),
+        index.suggestMember("getNome", 5, popularity)
+    );
+    popularity.put("getNone", 1);
+    assertEquals(
+        Arrays.asList("getNone", "getName"), index.suggestMember("getNome", 2, popularity)
+    );
+  }
+
+  @Test
+  public void suggestsNothingForEmptyNamesOrLimits() {
+    FuzzyIndex index = members(Collections.singletonList("get"));
+
+    assertTrue(index.suggestMember("", 5, popularity).isEmpty());
+    assertTrue(index.suggestMember("get", 0, popularity).isEmpty());
+    assertTrue(FuzzyIndex.EMPTY.suggestMember("get", 5, popularity).isEmpty());
+  }
+
+  @Test
+  public void findsTheSameNamesAsABruteForceSearch() {
+    Random random = new Random(7);
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      names.add(randomWord(random, 2 + random.nextInt(10)));
+    }
+    FuzzyIndex index = members(names);
+
+    for (int i = 0; i < 200; i++) {
+      String query = randomWord(random, 2 + random.nextInt(10));
+      int bound = query.length() <= 4 ? 1 : query.length() <= 8 ? 2 : 3;
+      Set<String> expected = new HashSet<>();
+      for (String name : names) {
+        if (levenshtein(query, name) <= bound) {
+          expected.add(name);
+        }
+      }
+
+      assertEquals(query, expected, new HashSet<>(index.suggestMember(query, 10000, popularity)));
+    }
+  }
+
+  @Test
+  public void theManagerSuggestsIndexedClasses() {
+    JavadocManager manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+
+    assertEquals("demo.shapes.Circle", manager.suggestClasses("Circel", 5).get(0));
+  }
+
+  private static String randomWord(Random random, int length) {
+    StringBuilder word = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      // a small alphabet, so many words are close to each other
+      word.append((char) ('a' + random.nextInt(4)));
+    }
+    return word.toString();
+  }
+}
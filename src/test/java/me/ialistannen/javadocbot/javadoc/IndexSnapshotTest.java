@@ -0,0 +1,116 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.IndexSnapshot.ClassEntry;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexSnapshotTest {
+
+  private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path file;
+  private JavadocManager manager;
+
+  @Before
+  public void setUp() {
+    file = folder.getRoot().toPath().resolve("index.snapshot");
+    manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+  }
+
+  private void writeSnapshot() throws IOException {
+    IndexSnapshot.write(
+        file, TestJavadoc.SHAPES_BASE_URL, manager.getAllPackages(), manager.getAllClasses()
+    );
+  }
+
+  @Test
+  public void roundTripsPackagesAndClasses() throws IOException {
+    writeSnapshot();
+
+    IndexSnapshot snapshot = IndexSnapshot.read(file, TestJavadoc.SHAPES_BASE_URL, ONE_HOUR).get();
+
+    assertEquals(1, snapshot.getPackages().size());
+    assertEquals("demo.shapes", snapshot.getPackages().get(0).getName());
+    assertEquals(
+        "Shapes and helpers to work with them.",
+        snapshot.getPackages().get(0).getShortDescription()
+    );
+
+    List<String> classes = new ArrayList<>();
+    for (ClassEntry entry : snapshot.getClasses()) {
+      classes.add(entry.getPackageName() + "." + entry.getName() + " " + entry.getUrl());
+    }
+    List<String> expected = new ArrayList<>();
+    for (JavadocClass javadocClass : manager.getAllClasses()) {
+      expected.add("demo.shapes." + javadocClass.getName() + " " + javadocClass.getUrl());
+    }
+    Collections.sort(classes);
+    Collections.sort(expected);
+    assertEquals(expected, classes);
+  }
+
+  @Test
+  public void ignoresStaleSnapshots() throws Exception {
+    writeSnapshot();
+    Thread.sleep(5);
+
+    assertFalse(IndexSnapshot.read(file, TestJavadoc.SHAPES_BASE_URL, 1).isPresent());
+  }
+
+  @Test
+  public void ignoresSnapshotsOfOtherJavadocs() throws IOException {
+    writeSnapshot();
+
+    assertFalse(IndexSnapshot.read(file, "https://example.org/", ONE_HOUR).isPresent());
+  }
+
+  @Test
+  public void ignoresMissingAndCorruptedSnapshots() throws IOException {
+    assertFalse(IndexSnapshot.read(file, TestJavadoc.SHAPES_BASE_URL, ONE_HOUR).isPresent());
+
+    writeSnapshot();
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+    assertFalse(IndexSnapshot.read(file, TestJavadoc.SHAPES_BASE_URL, ONE_HOUR).isPresent());
+  }
+
+  @Test
+  public void managerIndexesFromTheSnapshot() {
+    TestJavadoc javadoc = TestJavadoc.shapes();
+    JavadocSettings settings = javadoc.settings().setIndexSnapshotFile(file);
+    new JavadocManager(settings).index();
+    assertTrue(Files.isRegularFile(file));
+
+    javadoc.clearReads();
+    JavadocManager fromSnapshot = new JavadocManager(settings);
+    fromSnapshot.index();
+
+    assertEquals(Collections.emptyList(), javadoc.getReads());
+    assertEquals(4, fromSnapshot.getAllClasses().size());
+    Optional<JavadocClass> circle = fromSnapshot.getClassesExact("Circle").stream().findFirst();
+    assertTrue(circle.isPresent());
+    assertEquals("demo.shapes", circle.get().getParentPackage().getName());
+  }
+}
@@ -0,0 +1,141 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocElement;
+import me.ialistannen.javadocbot.javadoc.source.PageContent;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JavadocCrawlerTest {
+
+  private TestJavadoc javadoc;
+  private JavadocManager manager;
+
+  @Before
+  public void setUp() {
+    javadoc = TestJavadoc.shapes();
+    manager = new JavadocManager(javadoc.settings());
+    manager.index();
+    javadoc.clearReads();
+  }
+
+  private JavadocClass getClass(JavadocManager manager, String name) {
+    return manager.getClassesExact(name).get(0);
+  }
+
+  @Test
+  public void countsBrokenPagesAsFailed() throws InterruptedException {
+    CrawlProgress progress = manager.crawl(2, 2, ignored -> {
+    });
+
+    assertEquals(4, progress.getTotal());
+    assertEquals(4, progress.getProcessed());
+    assertEquals(1, progress.getFailed());
+    assertTrue(progress.isDone());
+  }
+
+  @Test
+  public void readsEveryPageOnce() throws InterruptedException {
+    manager.crawl(2, 2, ignored -> {
+    });
+
+    List<String> reads = javadoc.getReads();
+    Collections.sort(reads);
+    List<String> expected = new ArrayList<>();
+    for (String name : new String[]{"Broken", "Circle", "Shape", "Shapes"}) {
+      expected.add("demo/shapes/" + name + ".html");
+    }
+    assertEquals(expected, reads);
+  }
+
+  @Test
+  public void crawledClassesNeedNoPage() throws InterruptedException {
+    manager.crawl(2, 2, ignored -> {
+    });
+    javadoc.clearReads();
+
+    JavadocClass circle = getClass(manager, "Circle");
+    assertTrue(circle.getDeclaration().contains("extends Shape"));
+    assertTrue(circle.getDescription().contains("round shape"));
+    assertEquals(3, manager.getAllMethods(circle).size());
+    assertEquals(Collections.emptyList(), javadoc.getReads());
+  }
+
+  @Test
+  public void crawledDescriptionsAreSearchable() throws InterruptedException {
+    manager.crawl(1, 1, ignored -> {
+    });
+
+    List<JavadocElement> results = manager.searchSummaries("round", 10);
+
+    assertEquals(1, results.size());
+    assertEquals("Circle", results.get(0).getName());
+  }
+
+  @Test
+  public void throwingListenersDoNotStallTheCrawl() throws InterruptedException {
+    AtomicInteger calls = new AtomicInteger();
+
+    CrawlProgress progress = manager.crawl(1, 1, ignored -> {
+      calls.incrementAndGet();
+      throw new IllegalStateException("listener");
+    });
+
+    assertEquals(4, progress.getProcessed());
+    assertEquals(4, calls.get());
+  }
+
+  @Test
+  public void pagesWithoutHeaderAreStillCrawled() throws InterruptedException {
+    // without the separator the page has no declaration and description
+    JavadocManager withoutHeader = new JavadocManager(javadoc.settings().setPageSource(url -> {
+      PageContent content = javadoc.read(url);
+      if (!url.endsWith("/Circle.html")) {
+        return content;
+      }
+      String page = content.getText().replace("<hr>", "");
+      return new PageContent(page.getBytes(StandardCharsets.UTF_8), "UTF-8");
+    }));
+    withoutHeader.index();
+
+    CrawlProgress progress = withoutHeader.crawl(1, 1, ignored -> {
+    });
+
+    assertEquals(1, progress.getFailed());
+    assertEquals(3, withoutHeader.getAllMethods(getClass(withoutHeader, "Circle")).size());
+    assertTrue(getClass(withoutHeader, "Shape").getDescription().contains("geometric shape"));
+  }
+
+  @Test
+  public void pagesAreOnlyReadOnFetchThreads() throws InterruptedException {
+    List<String> threads = new CopyOnWriteArrayList<>();
+    // evicts the supertype pages, so building the methods has to read them again
+    JavadocManager evicting = new JavadocManager(
+        javadoc.settings().setClassPageCacheSize(1).setPageSource(url -> {
+          threads.add(Thread.currentThread().getName());
+          return javadoc.read(url);
+        })
+    );
+    evicting.index();
+    threads.clear();
+
+    evicting.crawl(2, 2, ignored -> {
+    });
+
+    assertFalse(threads.isEmpty());
+    for (String thread : threads) {
+      assertTrue(thread, thread.startsWith("javadoc-crawl-fetch-"));
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.Collections;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassParser;
+import me.ialistannen.javadocbot.javadoc.parsing.MethodParser;
+import me.ialistannen.javadocbot.javadoc.parsing.PackageParser;
+import org.junit.Test;
+
+public class JavadocIndexTest {
+
+  private final JavadocSettings settings = new JavadocSettings();
+
+  private Package createPackage(String name) {
+    return new Package(name, name + "/package-summary.html", "", new PackageParser(settings));
+  }
+
+  private JavadocClass createClass(String name, Package parent) {
+    return new JavadocClass(name, name + ".html", parent, new ClassParser(settings));
+  }
+
+  @Test
+  public void emptyIndexKnowsNothing() {
+    assertTrue(JavadocIndex.EMPTY.getClasses().isEmpty());
+    assertTrue(JavadocIndex.EMPTY.getPackages().isEmpty());
+    assertNull(JavadocIndex.EMPTY.getPackage("java.lang"));
+  }
+
+  @Test
+  public void findsPackagesAndClassesByName() {
+    Package lang = createPackage("java.lang");
+    JavadocClass string = createClass("String", lang);
+
+    JavadocIndex index = new JavadocIndex.Builder()
+        .addPackage(lang)
+        .addClass(string)
+        .build();
+
+    assertSame(lang, index.getPackage("java.lang"));
+    assertEquals(Collections.singletonList(string), index.getClassesExact("String"));
+    assertEquals(
+        Collections.singletonList(string), index.getClassIndex().getClassEndingIn("String")
+    );
+    assertTrue(index.getClassesExact("Object").isEmpty());
+  }
+
+  @Test
+  public void builtIndexIsNotChangedByItsBuilder() {
+    Package lang = createPackage("java.lang");
+    JavadocIndex.Builder builder = new JavadocIndex.Builder().addPackage(lang);
+    builder.addClass(createClass("String", lang));
+    JavadocIndex index = builder.build();
+
+    builder.addClass(createClass("Object", lang));
+
+    assertEquals(1, index.getClasses().size());
+    assertTrue(index.getClassesExact("Object").isEmpty());
+  }
+
+  @Test
+  public void everyMemberMightExistIfNoneAreKnown() {
+    assertTrue(JavadocIndex.EMPTY.mightContainMember("anything"));
+  }
+
+  @Test
+  public void rejectsMembersNoClassDeclares() {
+    Package lang = createPackage("java.lang");
+    JavadocClass string = createClass("String", lang);
+    MethodParser methodParser = new MethodParser(settings, new JavadocManager(settings));
+    JavadocMethod charAt = new JavadocMethod(
+        "charAt", "String.html#charAt(int)", Collections.emptyList(), string, methodParser
+    );
+
+    JavadocIndex index = new JavadocIndex.Builder()
+        .addPackage(lang)
+        .addClass(string)
+        .setDeclaredMethods(ImmutableListMultimap.of(string.getUrl(), charAt))
+        .build();
+
+    assertTrue(index.mightContainMember("charAt"));
+    assertFalse(index.mightContainMember("notifyAll"));
+  }
+}
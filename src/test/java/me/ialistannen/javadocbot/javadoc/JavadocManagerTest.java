@@ -0,0 +1,219 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JavadocManagerTest {
+
+  private TestJavadoc javadoc;
+  private JavadocManager manager;
+
+  @Before
+  public void setUp() {
+    javadoc = TestJavadoc.shapes();
+    manager = new JavadocManager(javadoc.settings());
+    manager.index();
+    javadoc.clearReads();
+  }
+
+  private JavadocClass getClass(String name) {
+    return manager.getClassesExact(name).get(0);
+  }
+
+  private static List<String> names(List<JavadocMethod> methods) {
+    List<String> names = new ArrayList<>();
+    for (JavadocMethod method : methods) {
+      names.add(method.getName());
+    }
+    Collections.sort(names);
+    return names;
+  }
+
+  @Test
+  public void methodsAreParsedOncePerClass() {
+    JavadocClass shapes = getClass("Shapes");
+
+    List<JavadocMethod> first = manager.getAllMethods(shapes);
+    List<JavadocMethod> second = manager.getAllMethods(shapes);
+
+    assertEquals(first, second);
+    assertEquals(Collections.singletonList("demo/shapes/Shapes.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void returnedMethodsAreACopy() {
+    JavadocClass shapes = getClass("Shapes");
+
+    manager.getAllMethods(shapes).clear();
+
+    assertEquals(3, manager.getAllMethods(shapes).size());
+  }
+
+  @Test
+  public void concurrentCallsShareOneParse() throws Exception {
+    JavadocClass shapes = getClass("Shapes");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<JavadocMethod>>> futures = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        futures.add(executor.submit(() -> manager.getAllMethods(shapes)));
+      }
+      for (Future<List<JavadocMethod>> future : futures) {
+        assertEquals(3, future.get().size());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(Collections.singletonList("demo/shapes/Shapes.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void inheritedMethodsAreIncluded() {
+    List<JavadocMethod> methods = manager.getAllMethods(getClass("Circle"));
+
+    assertEquals(names(methods).toString(), 3, methods.size());
+    assertTrue(names(methods).contains("getName"));
+  }
+
+  @Test
+  public void indexDropsTheCachedMethods() {
+    manager.getAllMethods(getClass("Shapes"));
+
+    manager.index();
+    javadoc.clearReads();
+    manager.getAllMethods(getClass("Shapes"));
+
+    assertEquals(Collections.singletonList("demo/shapes/Shapes.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void indexPublishesNewClassesAtOnce() {
+    List<JavadocClass> before = manager.getAllClasses();
+
+    manager.index();
+
+    assertEquals(before.size(), manager.getAllClasses().size());
+    assertNotSame(before.get(0), manager.getClassesExact(before.get(0).getName()).get(0));
+  }
+
+  @Test
+  public void loadedMethodsAreSearchable() {
+    manager.getAllMethods(getClass("Shapes"));
+
+    assertFalse(manager.searchSummaries("greater", 10).isEmpty());
+    assertEquals(2, manager.findMethods("#max").size());
+  }
+
+  @Test
+  public void methodsLoadedDuringAReIndexAreNotPublished() throws Exception {
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    JavadocManager blocking = new JavadocManager(javadoc.settings().setPageSource(url -> {
+      if (url.endsWith("/Shapes.html")) {
+        reading.countDown();
+        Uninterruptibles.awaitUninterruptibly(release);
+      }
+      return javadoc.read(url);
+    }));
+    blocking.index();
+    JavadocClass shapes = blocking.getClassesExact("Shapes").get(0);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<List<JavadocMethod>> load = executor.submit(() -> blocking.getAllMethods(shapes));
+      reading.await();
+      blocking.index();
+      release.countDown();
+      assertEquals(3, load.get().size());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertTrue(blocking.searchSummaries("greater", 10).isEmpty());
+    assertTrue(blocking.findMethods("#max").isEmpty());
+  }
+
+  @Test
+  public void membersNoClassDeclaresNeedNoPage() {
+    TestJavadoc jdk = TestJavadoc.jdk17();
+    JavadocManager searchIndexManager = new JavadocManager(jdk.settings().setUseSearchIndex(true));
+    searchIndexManager.index();
+    jdk.clearReads();
+
+    assertTrue(searchIndexManager.findMethods("String#notifyAll").isEmpty());
+    assertTrue(jdk.getReads().isEmpty());
+  }
+
+  @Test
+  public void missingMembersAreRemembered() {
+    TestJavadoc jdk = TestJavadoc.jdk17();
+    JavadocManager searchIndexManager = new JavadocManager(
+        jdk.settings()
+            .setUseSearchIndex(true)
+            .setMethodCacheSize(0)
+            .setClassPageCacheSize(0)
+    );
+    searchIndexManager.index();
+    jdk.clearReads();
+
+    // String declares charAt, so only loading the methods of Object tells it has none
+    assertTrue(searchIndexManager.findMethods("Object#charAt").isEmpty());
+    int reads = jdk.getReads().size();
+    assertTrue(searchIndexManager.findMethods("Object#charAt").isEmpty());
+
+    assertEquals(1, reads);
+    assertEquals(reads, jdk.getReads().size());
+  }
+
+  @Test
+  public void missingMembersAreNotRememberedWithoutTtl() {
+    TestJavadoc jdk = TestJavadoc.jdk17();
+    JavadocManager searchIndexManager = new JavadocManager(
+        jdk.settings()
+            .setUseSearchIndex(true)
+            .setMethodCacheSize(0)
+            .setClassPageCacheSize(0)
+            .setNegativeCacheTtl(0, TimeUnit.MILLISECONDS)
+    );
+    searchIndexManager.index();
+    jdk.clearReads();
+
+    searchIndexManager.findMethods("Object#charAt");
+    searchIndexManager.findMethods("Object#charAt");
+
+    assertEquals(2, jdk.getReads().size());
+  }
+
+  @Test
+  public void loadedClassesAreAddedToTheTypeHierarchy() {
+    JavadocClass circle = getClass("Circle");
+    JavadocClass shape = getClass("Shape");
+
+    manager.getAllMethods(circle);
+
+    assertEquals(
+        Collections.singletonList(circle), manager.getTypeHierarchy().getDirectSubtypes(shape)
+    );
+    manager.index();
+    assertTrue(manager.getTypeHierarchy().getDirectSubtypes(getClass("Shape")).isEmpty());
+  }
+}
@@ -0,0 +1,104 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import me.ialistannen.javadocbot.TestJavadoc;
+import org.junit.Test;
+
+public class JavadocQueryTest {
+
+  @Test
+  public void parsesAClass() {
+    JavadocQuery query = JavadocQuery.parse("java.util.Map.Entry<K, V>");
+
+    assertTrue(query.hasClass());
+    assertEquals("java.util.Map.Entry", query.getClassName());
+    assertFalse(query.hasMember());
+    assertFalse(query.hasParameterList());
+  }
+
+  @Test
+  public void parsesAMemberWithParameters() {
+    JavadocQuery query = JavadocQuery.parse(
+        "List<String>#add(int index, @NonNull final E element)"
+    );
+
+    assertEquals("List", query.getClassName());
+    assertEquals("add", query.getMemberName());
+    assertTrue(query.hasParameterList());
+    assertEquals(Arrays.asList("int", "E"), query.getParameterTypes());
+    assertEquals(JavadocQuery.parse("List#add(int,E)"), query);
+  }
+
+  @Test
+  public void keepsArraysAndVarargsInTypes() {
+    JavadocQuery query = JavadocQuery.parse("String#format(String format, Object ... args)");
+
+    assertEquals(Arrays.asList("String", "Object..."), query.getParameterTypes());
+    assertEquals(
+        Collections.singletonList("int[]"),
+        JavadocQuery.parse("Arrays#sort(int [] a)").getParameterTypes()
+    );
+  }
+
+  @Test
+  public void ignoresCommasInTypeArguments() {
+    JavadocQuery query = JavadocQuery.parse("Map#putAll(Map<? extends K, ? extends V> m)");
+
+    assertEquals(Collections.singletonList("Map"), query.getParameterTypes());
+  }
+
+  @Test
+  public void readsADottedMemberWithParentheses() {
+    JavadocQuery query = JavadocQuery.parse("String.format(String, Object...)");
+
+    assertEquals("String", query.getClassName());
+    assertEquals("format", query.getMemberName());
+    assertEquals(2, query.getParameterTypes().size());
+  }
+
+  @Test
+  public void membersMayHaveNoClass() {
+    JavadocQuery hash = JavadocQuery.parse("#computeIfAbsent");
+    JavadocQuery call = JavadocQuery.parse("computeIfAbsent(K, Function)");
+
+    assertFalse(hash.hasClass());
+    assertEquals("computeIfAbsent", hash.getMemberName());
+    assertFalse(hash.hasParameterList());
+    assertFalse(call.hasClass());
+    assertEquals("computeIfAbsent", call.getMemberName());
+    assertTrue(call.hasParameterList());
+  }
+
+  @Test
+  public void emptyParameterListsDifferFromNone() {
+    JavadocQuery withList = JavadocQuery.parse("Object#hashCode()");
+    JavadocQuery withoutList = JavadocQuery.parse("Object#hashCode");
+
+    assertTrue(withList.getParameterTypes().isEmpty());
+    assertNotEquals(withList, withoutList);
+  }
+
+  @Test
+  public void toleratesUnterminatedParameterLists() {
+    JavadocQuery query = JavadocQuery.parse("Shapes#max(int a, int");
+
+    assertEquals("max", query.getMemberName());
+    assertEquals(Arrays.asList("int", "int"), query.getParameterTypes());
+  }
+
+  @Test
+  public void theManagerCachesParsedQueries() {
+    JavadocManager manager = new JavadocManager(TestJavadoc.shapes().settings());
+
+    JavadocQuery query = manager.parseQuery("Shapes#max(int, int)");
+
+    assertSame(query, manager.parseQuery("Shapes#max(int, int)"));
+  }
+}
@@ -0,0 +1,140 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemberIndexTest {
+
+  private JavadocManager manager;
+  private MemberIndex index;
+
+  @Before
+  public void setUp() {
+    manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+    index = new MemberIndex();
+  }
+
+  private List<JavadocMethod> getAllMethods(String className) {
+    return manager.getAllMethods(manager.getClassesExact(className).get(0));
+  }
+
+  private List<JavadocMethod> find(String query) {
+    return index.find(JavadocQuery.parse(query));
+  }
+
+  @Test
+  public void findsAllOverloadsByName() {
+    index.addAll(getAllMethods("Shapes"));
+
+    assertEquals(2, find("#max").size());
+    assertEquals(1, find("to_snake_case(String)").size());
+    assertTrue(find("#min").isEmpty());
+  }
+
+  @Test
+  public void narrowsOverloadsByTheirParameters() {
+    index.addAll(getAllMethods("Shapes"));
+
+    List<JavadocMethod> doubles = find("#max(double, double)");
+
+    assertEquals(1, doubles.size());
+    assertEquals("double", doubles.get(0).getSignature().getReturnType());
+    // no overload matches, so all of them are returned
+    assertEquals(2, find("#max(long)").size());
+  }
+
+  @Test
+  public void skipsInheritedMethods() {
+    index.addAll(getAllMethods("Circle"));
+
+    assertTrue(find("#getName").isEmpty());
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  public void addingMethodsAgainReplacesThem() {
+    index.addAll(getAllMethods("Shapes"));
+    index.addAll(getAllMethods("Shapes"));
+
+    assertEquals(3, index.size());
+    assertEquals(2, find("#max").size());
+  }
+
+  @Test
+  public void theSearchIndexAnswersWithoutAnyPage() {
+    TestJavadoc jdk = TestJavadoc.jdk17();
+    JavadocManager searchIndexManager = new JavadocManager(jdk.settings().setUseSearchIndex(true));
+    searchIndexManager.index();
+    jdk.clearReads();
+
+    assertEquals(1, searchIndexManager.findMethods("#substring").size());
+    assertEquals(2, searchIndexManager.findMethods("#equals").size());
+    assertTrue(jdk.getReads().isEmpty());
+
+    searchIndexManager.getAllMethods(searchIndexManager.getClassesExact("String").get(0));
+    assertEquals(1, searchIndexManager.findMethods("#substring").size());
+  }
+
+  @Test
+  public void findsMethodsByTheirReturnType() {
+    index.addAll(getAllMethods("Shapes"));
+    index.addAll(getAllMethods("Circle"));
+
+    assertEquals(1, index.findReturning("java.lang.String").size());
+    assertEquals(2, index.findReturning("double").size());
+    assertEquals("scale", index.findReturning("demo.shapes.Circle").get(0).getName());
+    assertTrue(index.findReturning("void").isEmpty());
+  }
+
+  @Test
+  public void findsMethodsByTheirParameterTypes() {
+    index.addAll(getAllMethods("Shapes"));
+    index.addAll(getAllMethods("Circle"));
+
+    // max(double, double) is listed once
+    assertEquals(2, index.findAccepting("double").size());
+    assertEquals(1, index.findAccepting("int").size());
+    assertEquals(
+        "to_snake_case", index.findAccepting("java.lang.String").get(0).getName()
+    );
+    assertTrue(index.findAccepting("long").isEmpty());
+  }
+
+  @Test
+  public void replacedMethodsLeaveTheTypeIndexes() {
+    index.addAll(getAllMethods("Shapes"));
+    index.addAll(getAllMethods("Shapes"));
+
+    assertEquals(1, index.findReturning("double").size());
+    assertEquals(1, index.findAccepting("double").size());
+  }
+
+  @Test
+  public void theManagerFindsLoadedMethodsByType() {
+    getAllMethods("Circle");
+
+    assertEquals(
+        Collections.singletonList("scale"), names(manager.findMethodsReturning("Circle"))
+    );
+    assertEquals(
+        Collections.singletonList("scale"), names(manager.findMethodsAccepting("double"))
+    );
+  }
+
+  private static List<String> names(List<JavadocMethod> methods) {
+    List<String> names = new ArrayList<>();
+    for (JavadocMethod method : methods) {
+      names.add(method.getName());
+    }
+    return names;
+  }
+}
@@ -0,0 +1,99 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MethodIndexTest {
+
+  private JavadocManager manager;
+  private JavadocClass shapes;
+  private MethodIndex index;
+
+  @Before
+  public void setUp() {
+    manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+    shapes = manager.getClassesExact("Shapes").get(0);
+    index = new MethodIndex(manager.getAllMethods(shapes));
+  }
+
+  private JavadocMethod method(String name, String... parameterTypes) {
+    List<Pair<String, String>> parameters = new ArrayList<>();
+    for (String type : parameterTypes) {
+      parameters.add(new Pair<>(type, ""));
+    }
+    return new JavadocMethod(
+        name, shapes.getUrl() + "#" + name, parameters, shapes, manager.getMethodParser()
+    );
+  }
+
+  @Test
+  public void normalizesParameterTypes() {
+    assertEquals("String", MethodIndex.normalizeType("java.lang.String"));
+    assertEquals("Entry", MethodIndex.normalizeType("java.util.Map.Entry<K, V>"));
+    assertEquals("List[]", MethodIndex.normalizeType("java.util.List<String>..."));
+    assertEquals("int[][]", MethodIndex.normalizeType("int [] []"));
+    assertEquals("Object", MethodIndex.normalizeType("@Nullable Object"));
+  }
+
+  @Test
+  public void groupsOverloadsByName() {
+    assertEquals(2, index.getMethodsWithName("max").size());
+    assertEquals(
+        new HashSet<>(Arrays.asList("max", "to_snake_case")), index.getNames()
+    );
+    assertTrue(index.getMethodsWithName("min").isEmpty());
+  }
+
+  @Test
+  public void findsTheOverloadByItsParameterTypes() {
+    JavadocMethod max = index.findExactMatch("max", Arrays.asList("double", "double")).get();
+    JavadocMethod toSnakeCase = index
+        .findExactMatch("to_snake_case", Collections.singletonList("java.lang.String")).get();
+
+    assertEquals("double", max.getSignature().getReturnType());
+    assertEquals("to_snake_case", toSnakeCase.getName());
+    assertFalse(index.findExactMatch("max", Arrays.asList("long", "long")).isPresent());
+    assertFalse(index.findExactMatch("max", Collections.singletonList("int")).isPresent());
+  }
+
+  @Test
+  public void prefersTheExactOrderOfParameterTypes() {
+    JavadocMethod intFirst = method("copy", "int", "java.lang.String");
+    JavadocMethod stringFirst = method("copy", "String", "int");
+    MethodIndex copies = new MethodIndex(Arrays.asList(intFirst, stringFirst));
+
+    assertSame(stringFirst, copies.findExactMatch("copy", Arrays.asList("String", "int")).get());
+    assertSame(intFirst, copies.findExactMatch("copy", Arrays.asList("int", "String")).get());
+  }
+
+  @Test
+  public void acceptsParameterTypesInTheWrongOrder() {
+    JavadocMethod copy = method("copy", "int", "java.lang.String...");
+    MethodIndex copies = new MethodIndex(Collections.singletonList(copy));
+
+    assertSame(copy, copies.findExactMatch("copy", Arrays.asList("String[]", "int")).get());
+  }
+
+  @Test
+  public void resolvesOverloadsThroughTheManager() {
+    List<JavadocMethod> methods = manager.findMethods("Shapes#max(double, double)");
+
+    assertEquals(1, methods.size());
+    assertEquals("double", methods.get(0).getSignature().getReturnType());
+  }
+}
@@ -0,0 +1,61 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchIndexResolutionTest {
+
+  private TestJavadoc javadoc;
+  private JavadocManager manager;
+
+  @Before
+  public void setUp() {
+    javadoc = TestJavadoc.jdk17();
+    manager = new JavadocManager(javadoc.settings().setUseSearchIndex(true));
+    manager.index();
+    javadoc.clearReads();
+  }
+
+  @Test
+  public void declaredMethodsResolveWithoutThePage() {
+    List<JavadocMethod> methods = manager.findMethods("String#substring(int, int)");
+
+    assertEquals(1, methods.size());
+    assertEquals("substring", methods.get(0).getName());
+    assertEquals(Collections.emptyList(), javadoc.getReads());
+  }
+
+  @Test
+  public void detailsAreLoadedOnlyForReturnedMethods() {
+    JavadocMethod substring = manager.findMethods("String#substring").get(0);
+
+    String declaration = substring.getDeclaration();
+
+    assertTrue(declaration, declaration.contains("substring"));
+    assertTrue(substring.getShortDescription().contains("substring of this string"));
+    assertEquals("String", substring.getReturnValue());
+    assertEquals(
+        Collections.singletonList("java.base/java/lang/String.html"), javadoc.getReads()
+    );
+  }
+
+  @Test
+  public void inheritedMethodsNeedThePages() {
+    List<JavadocMethod> methods = manager.findMethods("String#hashCode");
+
+    assertEquals(1, methods.size());
+    assertEquals("Object", methods.get(0).getContainingClass().getName());
+    assertEquals(
+        Arrays.asList("java.base/java/lang/String.html", "java.base/java/lang/Object.html"),
+        javadoc.getReads()
+    );
+  }
+}
@@ -0,0 +1,139 @@
+package me.ialistannen.javadocbot.javadoc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.javadoc.model.JavadocElement;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.PackageParser;
+import org.junit.Test;
+
+public class TextIndexTest {
+
+  private final PackageParser packageParser = new PackageParser(new JavadocSettings());
+  private final TextIndex index = new TextIndex(Long.MAX_VALUE);
+
+  private Package add(TextIndex index, String name, String summary) {
+    Package element = new Package(name, name + "/package-summary.html", summary, packageParser);
+    index.add(element, summary);
+    return element;
+  }
+
+  private Package add(String name, String summary) {
+    return add(index, name, summary);
+  }
+
+  private static List<String> names(List<JavadocElement> elements) {
+    List<String> names = new ArrayList<>();
+    for (JavadocElement element : elements) {
+      names.add(element.getName());
+    }
+    return names;
+  }
+
+  @Test
+  public void rareTermsWeighMore() {
+    add("encoder", "Encodes bytes to base64.");
+    add("writer", "Writes bytes to a stream.");
+    add("reader", "Reads bytes from a stream.");
+
+    assertEquals(
+        Arrays.asList("encoder", "writer", "reader"),
+        names(index.search("base64 bytes", 10))
+    );
+    assertEquals(Collections.singletonList("encoder"), names(index.search("BASE64", 10)));
+  }
+
+  @Test
+  public void shortAndRepeatedMatchesRankHigher() {
+    add("long", "Parses a number from text with many options and a lot of other words.");
+    add("short", "Parses a number.");
+    add("repeated", "Parses a number, or parses a fallback number.");
+
+    assertEquals(
+        Arrays.asList("repeated", "short", "long"), names(index.search("number", 10))
+    );
+  }
+
+  @Test
+  public void ignoresStopWordsAndFormatting() {
+    add("formatted", "Returns **the** `hashCode` of [an element](https://example.com/link).");
+
+    assertTrue(index.search("the of", 10).isEmpty());
+    assertEquals(1, index.search("hashcode", 10).size());
+    assertEquals(1, index.search("element", 10).size());
+    assertTrue(index.search("example", 10).isEmpty());
+  }
+
+  @Test
+  public void addsEveryElementOnce() {
+    Package element = add("encoder", "Encodes bytes.");
+    index.add(element, "Encodes bytes again.");
+
+    assertEquals(1, index.size());
+    assertEquals(1, index.search("bytes", 10).size());
+    assertTrue(index.search("again", 10).isEmpty());
+  }
+
+  @Test
+  public void ignoresElementsBeyondTheMaximum() {
+    TextIndex small = new TextIndex(2);
+    add(small, "first", "Shapes.");
+    add(small, "second", "Shapes.");
+    add(small, "third", "Shapes.");
+
+    assertEquals(2, small.size());
+    assertEquals(Arrays.asList("first", "second"), names(small.search("shapes", 10)));
+  }
+
+  @Test
+  public void respectsTheLimit() {
+    for (int i = 0; i < 20; i++) {
+      add("element" + i, "Shapes" + (i < 5 ? " shapes" : "") + " and circles.");
+    }
+
+    List<JavadocElement> result = index.search("shapes", 3);
+
+    assertEquals(Arrays.asList("element0", "element1", "element2"), names(result));
+    assertTrue(index.search("shapes", 0).isEmpty());
+    assertTrue(index.search("", 3).isEmpty());
+  }
+
+  @Test
+  public void readsLargeDocumentIdsAndFrequencies() {
+    StringBuilder repeated = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      repeated.append("rare ");
+    }
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 40000; i++) {
+      if (i == 39999) {
+        // more than two bytes for the delta and two for the frequency
+        add("element" + i, repeated.toString());
+      } else if (i < 10000 && i % 300 == 0) {
+        add("element" + i, "A rare common word.");
+        expected.add("element" + i);
+      } else {
+        add("element" + i, "A common word.");
+      }
+    }
+
+    List<String> rare = names(index.search("rare", 1000));
+
+    assertEquals("element39999", rare.get(0));
+    assertEquals(expected.size() + 1, rare.size());
+    assertTrue(rare.containsAll(expected));
+    assertEquals(39999, index.search("common word", 100000).size());
+  }
+
+  @Test
+  public void firstSentenceEndsAtThePeriodOrLine() {
+    assertEquals("Returns it.", TextIndex.firstSentence("Returns it. Then more."));
+    assertEquals("First line", TextIndex.firstSentence("First line\nSecond. line"));
+    assertEquals("java.lang.String", TextIndex.firstSentence("java.lang.String"));
+  }
+}
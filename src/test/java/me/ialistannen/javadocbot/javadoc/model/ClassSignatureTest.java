@@ -0,0 +1,73 @@
+package me.ialistannen.javadocbot.javadoc.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature.Kind;
+import org.junit.Test;
+
+public class ClassSignatureTest {
+
+  @Test
+  public void parsesAClass() {
+    ClassSignature signature = ClassSignature.parse(
+        "public class ArrayList<E>\nextends AbstractList<E>\n"
+            + "implements List<E>, RandomAccess, Cloneable, java.io.Serializable"
+    );
+
+    assertEquals(Kind.CLASS, signature.getKind());
+    assertEquals(Collections.singletonList("public"), signature.getModifiers());
+    assertEquals("ArrayList", signature.getName());
+    assertEquals("<E>", signature.getTypeParameters());
+    assertEquals(Collections.singletonList("AbstractList<E>"), signature.getSuperclasses());
+    assertEquals(
+        Arrays.asList("List<E>", "RandomAccess", "Cloneable", "java.io.Serializable"),
+        signature.getInterfaces()
+    );
+  }
+
+  @Test
+  public void reportsExtendedInterfacesAsSuperclasses() {
+    ClassSignature signature = ClassSignature.parse(
+        "public interface NavigableMap<K, V> extends SortedMap<K, V>"
+    );
+
+    assertEquals(Kind.INTERFACE, signature.getKind());
+    assertEquals("NavigableMap", signature.getName());
+    assertEquals("<K,V>", signature.getTypeParameters().replace(" ", ""));
+    assertEquals(Collections.singletonList("SortedMap<K, V>"), signature.getSuperclasses());
+    assertTrue(signature.getInterfaces().isEmpty());
+  }
+
+  @Test
+  public void parsesAnnotationTypes() {
+    ClassSignature signature = ClassSignature.parse(
+        "@Documented @Retention(RUNTIME) public @interface Deprecated"
+    );
+
+    assertEquals(Kind.ANNOTATION, signature.getKind());
+    assertEquals(Arrays.asList("@Documented", "@Retention(RUNTIME)"), signature.getAnnotations());
+    assertEquals("Deprecated", signature.getName());
+  }
+
+  @Test
+  public void parsesEnums() {
+    ClassSignature signature = ClassSignature.parse(
+        "public static final enum Kind extends Enum<Kind>"
+    );
+
+    assertEquals(Kind.ENUM, signature.getKind());
+    assertEquals(Arrays.asList("public", "static", "final"), signature.getModifiers());
+    assertTrue(signature.hasModifier("static"));
+  }
+
+  @Test
+  public void toleratesMissingKeywords() {
+    ClassSignature signature = ClassSignature.parse("something odd");
+
+    assertEquals(Kind.UNKNOWN, signature.getKind());
+    assertEquals("", signature.getName());
+  }
+}
@@ -0,0 +1,51 @@
+package me.ialistannen.javadocbot.javadoc.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.JavadocManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JavadocMethodTest {
+
+  private JavadocManager manager;
+
+  @Before
+  public void setUp() {
+    manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+  }
+
+  private JavadocMethod getMethod(String query) {
+    List<JavadocMethod> methods = manager.findMethods(query);
+    assertEquals(1, methods.size());
+    return methods.get(0);
+  }
+
+  @Test
+  public void splitsTheThrowsClause() {
+    JavadocMethod method = getMethod("Shapes#to_snake_case");
+
+    assertEquals("throws IllegalArgumentException", method.getExceptions());
+    assertEquals(
+        "public static String to_snake_case(String display_name)",
+        SignatureParser.normalizeWhitespace(method.getDeclarationWithoutExceptions())
+    );
+    assertEquals(
+        Collections.singletonList("IllegalArgumentException"),
+        method.getSignature().getExceptions()
+    );
+  }
+
+  @Test
+  public void methodsWithoutThrowsHaveNoExceptions() {
+    JavadocMethod method = getMethod("Circle#scale");
+
+    assertEquals("", method.getExceptions());
+    assertEquals(method.getDeclaration(), method.getDeclarationWithoutExceptions());
+    assertEquals("Circle", method.getSignature().getReturnType());
+  }
+}
@@ -0,0 +1,87 @@
+package me.ialistannen.javadocbot.javadoc.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.util.Pair;
+import org.junit.Test;
+
+public class MethodSignatureTest {
+
+  private static List<String> parameters(MethodSignature signature) {
+    List<String> parameters = new ArrayList<>();
+    for (Pair<String, String> parameter : signature.getParameters()) {
+      parameters.add(parameter.getKey() + " " + parameter.getValue());
+    }
+    return parameters;
+  }
+
+  @Test
+  public void parsesAllParts() {
+    MethodSignature signature = MethodSignature.parse(
+        "@SafeVarargs public static <T extends Comparable<? super T>> void sort("
+            + "T[] a, Comparator<? super T> c)\n throws IOException, FooException"
+    );
+
+    assertEquals(Collections.singletonList("@SafeVarargs"), signature.getAnnotations());
+    assertEquals(Arrays.asList("public", "static"), signature.getModifiers());
+    assertTrue(signature.hasModifier("static"));
+    assertEquals("<T extends Comparable<? super T>>", signature.getTypeParameters());
+    assertEquals("void", signature.getReturnType());
+    assertEquals("sort", signature.getName());
+    assertEquals(Arrays.asList("T[] a", "Comparator<? super T> c"), parameters(signature));
+    assertEquals(Arrays.asList("IOException", "FooException"), signature.getExceptions());
+    assertFalse(signature.isVarargs());
+  }
+
+  @Test
+  public void dropsParameterAnnotationsAndFinal() {
+    MethodSignature signature = MethodSignature.parse(
+        "public void set(@Nullable final String name, int... values)"
+    );
+
+    assertEquals(Arrays.asList("String name", "int... values"), parameters(signature));
+    assertTrue(signature.isVarargs());
+  }
+
+  @Test
+  public void keepsAnnotationArguments() {
+    MethodSignature signature = MethodSignature.parse(
+        "@Deprecated(since = \"9\", forRemoval = true) protected void finalize()"
+    );
+
+    assertEquals(
+        Collections.singletonList("@Deprecated(since = \"9\", forRemoval = true)"),
+        signature.getAnnotations()
+    );
+    assertEquals(Collections.singletonList("protected"), signature.getModifiers());
+    assertEquals("finalize", signature.getName());
+    assertTrue(signature.getParameters().isEmpty());
+  }
+
+  @Test
+  public void keepsUnderscoresInNames() {
+    MethodSignature signature = MethodSignature.parse(
+        "public static String to_snake_case(String display_name)"
+    );
+
+    assertEquals("to_snake_case", signature.getName());
+    assertEquals(Collections.singletonList("String display_name"), parameters(signature));
+  }
+
+  @Test
+  public void toleratesMalformedDeclarations() {
+    MethodSignature unclosed = MethodSignature.parse("void broken(int a");
+    MethodSignature empty = MethodSignature.parse("");
+
+    assertEquals("broken", unclosed.getName());
+    assertEquals("", empty.getName());
+    assertEquals("", empty.getReturnType());
+    assertTrue(empty.getParameters().isEmpty());
+  }
+}
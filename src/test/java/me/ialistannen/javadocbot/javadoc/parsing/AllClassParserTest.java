@@ -0,0 +1,66 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.source.PageContent;
+import me.ialistannen.javadocbot.javadoc.source.PageSource;
+import org.junit.Test;
+
+public class AllClassParserTest {
+
+  private static TreeMap<String, Collection<String>> parse(PageSource pageSource,
+      String baseUrl) {
+    TreeMap<String, Collection<String>> classes = new TreeMap<>();
+    for (Entry<String, Collection<String>> entry : new AllClassParser(pageSource).parse(baseUrl)) {
+      classes.put(entry.getKey(), entry.getValue());
+    }
+    return classes;
+  }
+
+  private static PageSource page(String html) {
+    return url -> new PageContent(html.getBytes(StandardCharsets.UTF_8), "UTF-8");
+  }
+
+  @Test
+  public void readsAllClasses() {
+    TestJavadoc javadoc = TestJavadoc.shapes();
+
+    TreeMap<String, Collection<String>> classes = parse(javadoc, TestJavadoc.SHAPES_BASE_URL);
+
+    assertEquals("[Broken, Circle, Shape, Shapes]", classes.keySet().toString());
+    assertEquals(
+        Collections.singleton(javadoc.url("demo/shapes/Circle.html")),
+        classes.get("Circle")
+    );
+    assertEquals(Collections.singletonList("allclasses-noframe.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void onlyReadsLinksStartingAListItem() {
+    TreeMap<String, Collection<String>> classes = parse(page(
+        "<ul><li><a href=\"a/Map.html\"><span>Map</span></a></li>"
+            + "<li><i>Deprecated</i> <a href=\"a/Old.html\">Old</a></li></ul>"
+            + "<a href=\"index.html\">Frames</a>"
+    ), "https://example.com/api");
+
+    assertEquals("[Map]", classes.keySet().toString());
+    assertEquals(
+        Collections.singleton("https://example.com/api/a/Map.html"), classes.get("Map")
+    );
+  }
+
+  @Test
+  public void keepsAllLinksOfEqualNames() {
+    TreeMap<String, Collection<String>> classes = parse(page(
+        "<li><a href=\"a/List.html\">List</a></li><li><a href=\"b/List.html\">List</a></li>"
+    ), "https://example.com/api/");
+
+    assertEquals(2, classes.get("List").size());
+  }
+}
@@ -0,0 +1,65 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.source.PageContent;
+import org.junit.Test;
+
+public class AllPackageParserTest {
+
+  private static List<Package> parse(TestJavadoc javadoc) {
+    PackageParser packageParser = new PackageParser(javadoc.settings());
+    return new AllPackageParser(packageParser, javadoc).parse(TestJavadoc.SHAPES_BASE_URL);
+  }
+
+  private static List<Package> parse(String html) {
+    PackageParser packageParser = new PackageParser(TestJavadoc.shapes().settings());
+    return new AllPackageParser(
+        packageParser,
+        url -> new PageContent(html.getBytes(StandardCharsets.UTF_8), "UTF-8")
+    ).parse("https://example.com/api/");
+  }
+
+  @Test
+  public void readsAllPackages() {
+    TestJavadoc javadoc = TestJavadoc.shapes();
+
+    List<Package> packages = parse(javadoc);
+
+    assertEquals(1, packages.size());
+    assertEquals("demo.shapes", packages.get(0).getName());
+    assertEquals(javadoc.url("demo/shapes/package-summary.html"), packages.get(0).getUrl());
+    assertEquals("Shapes and helpers to work with them.", packages.get(0).getShortDescription());
+    assertEquals(Collections.singletonList("overview-summary.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void separatesTheBlocksOfADescription() {
+    List<Package> packages = parse(
+        "<table class=\"overviewSummary\"><tr>"
+            + "<td><a href=\"a/package-summary.html\">a</a></td>"
+            + "<td><div>First.</div><div>Second.</div></td>"
+            + "</tr></table>"
+    );
+
+    assertEquals("First. Second.", packages.get(0).getShortDescription());
+  }
+
+  @Test
+  public void skipsOtherTablesAndHeaders() {
+    List<Package> packages = parse(
+        "<table><tr><td><a href=\"x/package-summary.html\">x</a></td></tr></table>"
+            + "<table class=\"overviewSummary\"><tr><th>Package</th></tr>"
+            + "<tr><td><a href=\"a/package-summary.html\">a</a></td><td>A.</td></tr></table>"
+    );
+
+    assertEquals(1, packages.size());
+    assertEquals("a", packages.get(0).getName());
+    assertEquals("https://example.com/api/a/package-summary.html", packages.get(0).getUrl());
+  }
+}
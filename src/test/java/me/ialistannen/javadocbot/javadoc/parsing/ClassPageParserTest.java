@@ -0,0 +1,138 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.JavadocManager;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature;
+import me.ialistannen.javadocbot.javadoc.model.ClassSignature.Kind;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
+import org.junit.Test;
+
+public class ClassPageParserTest {
+
+  private static ClassPage getPage(TestJavadoc javadoc, String className, boolean searchIndex) {
+    JavadocManager manager = new JavadocManager(
+        javadoc.settings().setUseSearchIndex(searchIndex)
+    );
+    manager.index();
+    JavadocClass javadocClass = manager.getClassesExact(className).get(0);
+    return new ClassPageParser(manager.getSettings()).getPage(javadocClass);
+  }
+
+  private static MethodRow getRow(ClassPage page, String anchor) {
+    for (MethodRow row : page.getMethodRows()) {
+      if (row.getUrl().endsWith("#" + anchor)) {
+        return row;
+      }
+    }
+    throw new AssertionError("No row for " + anchor);
+  }
+
+  @Test
+  public void readsTheHeaderOfAModernPage() {
+    ClassPage page = getPage(TestJavadoc.jdk17(), "String", true);
+
+    assertTrue(page.getDeclaration(), page.getDeclaration().contains("public final class"));
+    assertTrue(page.getDescription(), page.getDescription().contains("represents character"));
+
+    ClassSignature signature = page.getSignature();
+    assertEquals(Kind.CLASS, signature.getKind());
+    assertEquals("String", signature.getName());
+    assertEquals(Arrays.asList("public", "final"), signature.getModifiers());
+    assertEquals(Collections.singletonList("Object"), signature.getSuperclasses());
+    assertEquals(Collections.singletonList("CharSequence"), signature.getInterfaces());
+  }
+
+  @Test
+  public void readsTheMethodSummaryOfAModernPage() {
+    ClassPage page = getPage(TestJavadoc.jdk17(), "String", true);
+
+    List<String> names = new ArrayList<>();
+    for (MethodRow row : page.getMethodRows()) {
+      names.add(row.getName());
+    }
+    assertEquals(Arrays.asList("charAt", "equals", "format", "substring"), names);
+
+    MethodRow format = getRow(page, "format(java.lang.String,java.lang.Object...)");
+    assertTrue(format.getShortDescription().contains("formatted string"));
+    assertEquals("String", format.getSignature().getReturnType());
+    assertEquals(2, format.getSignature().getParameters().size());
+    assertTrue(format.getSignature().hasModifier("static"));
+    assertTrue(format.getSignature().isVarargs());
+  }
+
+  @Test
+  public void readsTheInheritedMethodsOfAModernPage() {
+    ClassPage page = getPage(TestJavadoc.jdk17(), "String", true);
+
+    assertEquals(1, page.getInheritedFrom().size());
+    assertTrue(page.getInheritedFrom().get(0).endsWith("Object"));
+    assertEquals(
+        Arrays.asList("hashCode", "toString"),
+        page.getInheritedMethodNames(page.getInheritedFrom().get(0))
+    );
+  }
+
+  @Test
+  public void readsTheMethodDetailsOfAModernPage() {
+    ClassPage page = getPage(TestJavadoc.jdk17(), "String", true);
+
+    String detail = page.getMethodDetail("substring(int,int)");
+    assertNotNull(detail);
+    assertTrue(detail, detail.contains("substring of this string"));
+  }
+
+  @Test
+  public void readsTheHeaderOfAnOldPage() {
+    ClassPage page = getPage(TestJavadoc.shapes(), "Circle", false);
+
+    assertTrue(page.getDeclaration(), page.getDeclaration().contains("public class Circle"));
+    assertTrue(page.getDescription(), page.getDescription().contains("round shape"));
+    assertEquals(Kind.CLASS, page.getSignature().getKind());
+    assertEquals(Collections.singletonList("Shape"), page.getSignature().getSuperclasses());
+  }
+
+  @Test
+  public void readsTheMethodsOfAnOldPage() {
+    ClassPage page = getPage(TestJavadoc.shapes(), "Circle", false);
+
+    MethodRow scale = getRow(page, "scale-double-");
+    assertEquals("scale", scale.getName());
+    assertEquals("Circle", scale.getReturnType());
+    assertTrue(scale.getShortDescription().contains("by a factor"));
+    assertEquals(
+        Collections.singletonList("getName"),
+        page.getInheritedMethodNames("demo.shapes.Shape")
+    );
+    assertTrue(page.getMethodDetail("scale-double-").contains("keeping its center"));
+  }
+
+  @Test
+  public void parsesEachPageOnceAndDropsTheDocument() {
+    TestJavadoc javadoc = TestJavadoc.shapes();
+    JavadocSettings settings = javadoc.settings();
+    JavadocManager manager = new JavadocManager(settings);
+    manager.index();
+    JavadocClass circle = manager.getClassesExact("Circle").get(0);
+    ClassPageParser parser = new ClassPageParser(settings);
+    javadoc.clearReads();
+
+    ClassPage page = parser.getPage(circle);
+
+    assertSame(page, parser.getPage(circle));
+    assertSame(page, parser.getPageIfPresent(circle));
+    assertNull(settings.getDocumentCache().getIfPresent(circle.getUrl()));
+    assertEquals(Collections.singletonList("demo/shapes/Circle.html"), javadoc.getReads());
+  }
+}
@@ -0,0 +1,165 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.JavadocManager;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.MethodSignature;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassPageStoreTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private TestJavadoc javadoc;
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    javadoc = TestJavadoc.shapes();
+    directory = folder.newFolder("classes").toPath();
+  }
+
+  private JavadocSettings settings() {
+    return javadoc.settings().setClassCacheDirectory(directory);
+  }
+
+  private static JavadocClass getClass(JavadocSettings settings, String name) {
+    JavadocManager manager = new JavadocManager(settings);
+    manager.index();
+    return manager.getClassesExact(name).get(0);
+  }
+
+  private ClassPage parse(String name) {
+    JavadocSettings settings = settings();
+    return new ClassPageParser(settings).getPage(getClass(settings, name));
+  }
+
+  private static MethodRow getRow(ClassPage page, String name) {
+    for (MethodRow row : page.getMethodRows()) {
+      if (row.getName().equals(name)) {
+        return row;
+      }
+    }
+    throw new AssertionError("No row for " + name);
+  }
+
+  private List<Path> storedFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  public void storedPagesAreReadInsteadOfFetched() {
+    ClassPage parsed = parse("Shapes");
+    JavadocSettings settings = settings();
+    JavadocClass shapes = getClass(settings, "Shapes");
+    javadoc.clearReads();
+
+    ClassPage stored = new ClassPageParser(settings).getStoredPage(shapes).get();
+
+    assertTrue(javadoc.getReads().isEmpty());
+    assertEquals(parsed.getDeclaration(), stored.getDeclaration());
+    assertEquals(parsed.getDescription(), stored.getDescription());
+    assertEquals(parsed.getSignature().toString(), stored.getSignature().toString());
+    assertEquals(parsed.getMethodRows().size(), stored.getMethodRows().size());
+    assertEquals(
+        parsed.getMethodDetail("max-int-int-"), stored.getMethodDetail("max-int-int-")
+    );
+  }
+
+  @Test
+  public void signaturesKeepTheirParts() {
+    parse("Shapes");
+    JavadocSettings settings = settings();
+
+    ClassPage stored = new ClassPageStore(settings).read(getClass(settings, "Shapes")).get();
+
+    MethodSignature signature = getRow(stored, "to_snake_case").getSignature();
+    assertEquals("to_snake_case", signature.getName());
+    assertEquals("String", signature.getReturnType());
+    assertEquals(Arrays.asList("public", "static"), signature.getModifiers());
+    assertEquals("String", signature.getParameters().get(0).getKey());
+    assertEquals("display_name", signature.getParameters().get(0).getValue());
+    assertEquals(
+        Collections.singletonList("IllegalArgumentException"), signature.getExceptions()
+    );
+    assertEquals("final", stored.getSignature().getModifiers().get(1));
+  }
+
+  @Test
+  public void inheritedMethodsAreStored() {
+    parse("Circle");
+    JavadocSettings settings = settings();
+
+    ClassPage stored = new ClassPageStore(settings).read(getClass(settings, "Circle")).get();
+
+    assertEquals(
+        Collections.singletonList("getName"),
+        stored.getInheritedMethodNames("demo.shapes.Shape")
+    );
+  }
+
+  @Test
+  public void stalePagesAreIgnored() {
+    parse("Shapes");
+    JavadocSettings settings = settings().setClassCacheMaxAge(-1, TimeUnit.MILLISECONDS);
+
+    assertFalse(new ClassPageStore(settings).read(getClass(settings, "Shapes")).isPresent());
+  }
+
+  @Test
+  public void pagesOfAnotherJavadocAreIgnored() {
+    parse("Shapes");
+    JavadocClass shapes = getClass(settings(), "Shapes");
+    JavadocSettings other = settings().setBaseUrl("https://example.com/other/");
+
+    assertFalse(new ClassPageStore(other).read(shapes).isPresent());
+  }
+
+  @Test
+  public void corruptedPagesAreIgnoredAndFetchedAgain() throws IOException {
+    parse("Shapes");
+    for (Path file : storedFiles()) {
+      byte[] content = Files.readAllBytes(file);
+      Files.write(file, Arrays.copyOf(content, content.length / 2));
+    }
+    JavadocSettings settings = settings();
+    JavadocClass shapes = getClass(settings, "Shapes");
+    javadoc.clearReads();
+
+    assertFalse(new ClassPageStore(settings).read(shapes).isPresent());
+    assertEquals(3, new ClassPageParser(settings).getPage(shapes).getMethodRows().size());
+    assertEquals(Collections.singletonList("demo/shapes/Shapes.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void nothingIsStoredWithoutADirectory() throws IOException {
+    JavadocSettings settings = javadoc.settings();
+    JavadocClass shapes = getClass(settings, "Shapes");
+
+    new ClassPageParser(settings).getPage(shapes);
+
+    assertFalse(new ClassPageStore(settings).read(shapes).isPresent());
+    assertTrue(storedFiles().isEmpty());
+  }
+}
@@ -0,0 +1,153 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.JavadocManager;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.parsing.ClassPage.MethodRow;
+import org.junit.Test;
+
+public class MethodParserTest {
+
+  private TestJavadoc javadoc;
+  private JavadocManager manager;
+  private MethodParser methodParser;
+
+  private void setUp(TestJavadoc javadoc, boolean searchIndex) {
+    this.javadoc = javadoc;
+    JavadocSettings settings = javadoc.settings().setUseSearchIndex(searchIndex);
+    manager = new JavadocManager(settings);
+    manager.index();
+    methodParser = new MethodParser(settings, manager, new ClassPageParser(settings));
+    javadoc.clearReads();
+  }
+
+  private JavadocClass getClass(String name) {
+    return manager.getClassesExact(name).get(0);
+  }
+
+  private static JavadocMethod getMethod(List<JavadocMethod> methods, String name) {
+    for (JavadocMethod method : methods) {
+      if (method.getName().equals(name)) {
+        return method;
+      }
+    }
+    throw new AssertionError("No method " + name + " in " + methods);
+  }
+
+  @Test
+  public void modernPagesIncludeTheInheritedMethods() {
+    setUp(TestJavadoc.jdk17(), true);
+
+    List<JavadocMethod> methods = methodParser.getMethods(getClass("String"));
+
+    List<String> names = new ArrayList<>();
+    for (JavadocMethod method : methods) {
+      names.add(method.getName());
+    }
+    assertEquals(
+        Arrays.asList("charAt", "equals", "format", "substring", "hashCode", "toString"), names
+    );
+    JavadocMethod hashCode = getMethod(methods, "hashCode");
+    assertEquals("Object", hashCode.getContainingClass().getName());
+    assertEquals(
+        Arrays.asList("java.base/java/lang/String.html", "java.base/java/lang/Object.html"),
+        javadoc.getReads()
+    );
+  }
+
+  @Test
+  public void modernMethodDetailsAreConverted() {
+    setUp(TestJavadoc.jdk17(), true);
+
+    JavadocMethod substring = getMethod(methodParser.getMethods(getClass("String")), "substring");
+
+    assertTrue(substring.getDeclaration(), substring.getDeclaration().contains("substring"));
+    assertEquals("String", substring.getSignature().getReturnType());
+    assertTrue(
+        substring.getDescription(), substring.getDescription().contains("substring of this")
+    );
+  }
+
+  @Test
+  public void findMethodRowMatchesSearchIndexMethodsByAnchor() {
+    setUp(TestJavadoc.jdk17(), true);
+    JavadocMethod format = getMethod(manager.findMethods("String#format"), "format");
+
+    MethodRow row = methodParser.findMethodRow(format);
+
+    assertNotNull(row);
+    assertEquals(format.getUrl(), row.getUrl());
+    assertTrue(row.getShortDescription().contains("formatted string"));
+  }
+
+  @Test
+  public void inheritedMethodsComeFromTheSupertype() {
+    setUp(TestJavadoc.shapes(), false);
+
+    List<JavadocMethod> methods = methodParser.getMethods(getClass("Circle"));
+
+    JavadocMethod getName = getMethod(methods, "getName");
+    assertTrue(getName.isInherited());
+    assertEquals("Shape", getName.getContainingClass().getName());
+    // area is overridden, so only the one of Circle is listed
+    JavadocMethod area = getMethod(methods, "area");
+    assertFalse(area.isInherited());
+    assertEquals("Circle", area.getContainingClass().getName());
+    assertEquals(3, methods.size());
+  }
+
+  @Test
+  public void inheritedMethodTablesAreShared() {
+    setUp(TestJavadoc.shapes(), false);
+
+    JavadocMethod first = getMethod(methodParser.getMethods(getClass("Circle")), "getName");
+    JavadocMethod second = getMethod(methodParser.getMethods(getClass("Circle")), "getName");
+
+    assertSame(first, second);
+    assertEquals(
+        Arrays.asList("demo/shapes/Circle.html", "demo/shapes/Shape.html"), javadoc.getReads()
+    );
+  }
+
+  @Test
+  public void parsedClassesAreAddedToTheTypeHierarchy() {
+    setUp(TestJavadoc.shapes(), false);
+    JavadocClass circle = getClass("Circle");
+    JavadocClass shape = getClass("Shape");
+
+    methodParser.getMethods(circle);
+
+    TypeHierarchy hierarchy = methodParser.getTypeHierarchy();
+    assertEquals(Collections.singletonList(shape), hierarchy.getSupertypes(circle));
+    assertEquals(Collections.singletonList(circle), hierarchy.getSubtypes(shape));
+    assertEquals(Collections.singletonList(shape), hierarchy.getDirectSupertypes(circle));
+    assertEquals(Collections.singletonList(circle), hierarchy.getDirectSubtypes(shape));
+    assertEquals(
+        Collections.singleton("getName"),
+        hierarchy.getSupertypeEdges(circle).get(0).getInheritedMethodNames()
+    );
+  }
+
+  @Test
+  public void invalidateAllForgetsTheTypeHierarchy() {
+    setUp(TestJavadoc.shapes(), false);
+    methodParser.getMethods(getClass("Circle"));
+
+    methodParser.invalidateAll();
+
+    assertEquals(0, methodParser.getTypeHierarchy().size());
+    assertTrue(methodParser.getTypeHierarchy().getSubtypes(getClass("Shape")).isEmpty());
+  }
+}
@@ -0,0 +1,131 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.JavadocManager;
+import me.ialistannen.javadocbot.javadoc.JavadocSettings;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.model.JavadocMethod;
+import me.ialistannen.javadocbot.javadoc.model.Package;
+import me.ialistannen.javadocbot.javadoc.parsing.SearchIndexParser.SearchIndex;
+import me.ialistannen.javadocbot.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchIndexParserTest {
+
+  private TestJavadoc javadoc;
+  private SearchIndex searchIndex;
+
+  @Before
+  public void setUp() {
+    javadoc = TestJavadoc.jdk17();
+    JavadocSettings settings = javadoc.settings();
+    JavadocManager manager = new JavadocManager(settings);
+    ClassPageParser classPageParser = new ClassPageParser(settings);
+
+    SearchIndexParser parser = new SearchIndexParser(
+        settings, new PackageParser(settings), new ClassParser(classPageParser),
+        new MethodParser(settings, manager, classPageParser)
+    );
+    searchIndex = parser.parse(settings.getBaseUrl());
+  }
+
+  private JavadocClass getClass(String name) {
+    for (JavadocClass javadocClass : searchIndex.getClasses()) {
+      if (javadocClass.getName().equals(name)) {
+        return javadocClass;
+      }
+    }
+    throw new AssertionError("Class not found: " + name);
+  }
+
+  private List<JavadocMethod> getMethods(String className) {
+    return searchIndex.getMethods().get(getClass(className).getUrl());
+  }
+
+  @Test
+  public void readsOnlyTheIndexFiles() {
+    assertEquals(
+        Arrays.asList(
+            "package-search-index.js", "type-search-index.js", "member-search-index.js"
+        ),
+        javadoc.getReads()
+    );
+  }
+
+  @Test
+  public void packagesAreResolvedInTheirModule() {
+    assertEquals(1, searchIndex.getPackages().size());
+    Package javaLang = searchIndex.getPackages().get(0);
+
+    assertEquals("java.lang", javaLang.getName());
+    assertEquals(javadoc.url("java.base/java/lang/package-summary.html"), javaLang.getUrl());
+  }
+
+  @Test
+  public void classesSkipTheSummaryLinks() {
+    List<String> names = new ArrayList<>();
+    for (JavadocClass javadocClass : searchIndex.getClasses()) {
+      names.add(javadocClass.getName());
+    }
+    Collections.sort(names);
+
+    assertEquals(Arrays.asList("Object", "String"), names);
+    assertEquals(javadoc.url("java.base/java/lang/String.html"), getClass("String").getUrl());
+    assertEquals("java.lang", getClass("String").getParentPackage().getName());
+  }
+
+  @Test
+  public void methodsSkipFieldsAndConstructors() {
+    List<String> names = new ArrayList<>();
+    for (JavadocMethod method : getMethods("String")) {
+      names.add(method.getName());
+    }
+    Collections.sort(names);
+
+    assertEquals(Arrays.asList("charAt", "equals", "format", "substring"), names);
+  }
+
+  @Test
+  public void methodsKnowTheirAnchorAndParameterTypes() {
+    JavadocMethod format = null;
+    for (JavadocMethod method : getMethods("String")) {
+      if (method.getName().equals("format")) {
+        format = method;
+      }
+    }
+
+    assertEquals(
+        javadoc.url("java.base/java/lang/String.html#format(java.lang.String,java.lang.Object...)"),
+        format.getUrl()
+    );
+    List<String> types = new ArrayList<>();
+    for (Pair<String, String> parameter : format.getParameters()) {
+      types.add(parameter.getKey());
+    }
+    assertEquals(Arrays.asList("String", "Object..."), types);
+    assertTrue(format.getSignature().isVarargs());
+  }
+
+  @Test
+  public void parseEntriesReadsTheScript() {
+    List<Map<String, String>> entries = SearchIndexParser.parseEntries(
+        "typeSearchIndex = [{\"p\":\"a.b\",\"l\":\"C\"},"
+            + "{\"l\":\"Quote \\\"q\\\" and \\\\\",\"u\":\"x.html\"}];updateSearchResults();"
+    );
+
+    assertEquals(2, entries.size());
+    assertEquals("a.b", entries.get(0).get("p"));
+    assertEquals("C", entries.get(0).get("l"));
+    assertEquals("Quote \"q\" and \\", entries.get(1).get("l"));
+    assertEquals("x.html", entries.get(1).get("u"));
+  }
+}
@@ -0,0 +1,79 @@
+package me.ialistannen.javadocbot.javadoc.parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Collections;
+import me.ialistannen.javadocbot.TestJavadoc;
+import me.ialistannen.javadocbot.javadoc.JavadocManager;
+import me.ialistannen.javadocbot.javadoc.model.JavadocClass;
+import me.ialistannen.javadocbot.javadoc.parsing.TypeHierarchy.Supertype;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeHierarchyTest {
+
+  private TypeHierarchy hierarchy;
+  private JavadocClass shape;
+  private JavadocClass circle;
+  private JavadocClass shapes;
+
+  @Before
+  public void setUp() {
+    JavadocManager manager = new JavadocManager(TestJavadoc.shapes().settings());
+    manager.index();
+    shape = manager.getClassesExact("Shape").get(0);
+    circle = manager.getClassesExact("Circle").get(0);
+    shapes = manager.getClassesExact("Shapes").get(0);
+    hierarchy = new TypeHierarchy();
+  }
+
+  private static Supertype edge(JavadocClass type) {
+    return new Supertype(type, ImmutableSet.of("getName"));
+  }
+
+  @Test
+  public void unknownClassesHaveNoRelations() {
+    assertNull(hierarchy.getSupertypeEdges(circle));
+    assertTrue(hierarchy.getSupertypes(circle).isEmpty());
+    assertTrue(hierarchy.getSubtypes(shape).isEmpty());
+    assertTrue(hierarchy.getDirectSupertypes(circle).isEmpty());
+    assertTrue(hierarchy.getDirectSubtypes(shape).isEmpty());
+  }
+
+  @Test
+  public void recordsBothDirections() {
+    hierarchy.put(circle, Collections.singletonList(edge(shape)), Collections.singleton(shape));
+
+    assertEquals(Collections.singletonList(shape), hierarchy.getSupertypes(circle));
+    assertEquals(Collections.singletonList(circle), hierarchy.getSubtypes(shape));
+    assertEquals(Collections.singletonList(shape), hierarchy.getDirectSupertypes(circle));
+    assertEquals(Collections.singletonList(circle), hierarchy.getDirectSubtypes(shape));
+    assertEquals(1, hierarchy.size());
+  }
+
+  @Test
+  public void replacedSupertypesLoseTheirSubtype() {
+    hierarchy.put(circle, Collections.singletonList(edge(shape)), Collections.singleton(shape));
+
+    hierarchy.put(circle, Collections.singletonList(edge(shapes)), Collections.singleton(shapes));
+
+    assertTrue(hierarchy.getSubtypes(shape).isEmpty());
+    assertTrue(hierarchy.getDirectSubtypes(shape).isEmpty());
+    assertEquals(Collections.singletonList(circle), hierarchy.getSubtypes(shapes));
+    assertEquals(Collections.singletonList(shapes), hierarchy.getDirectSupertypes(circle));
+  }
+
+  @Test
+  public void clearForgetsEverything() {
+    hierarchy.put(circle, Collections.singletonList(edge(shape)), Collections.singleton(shape));
+
+    hierarchy.clear();
+
+    assertEquals(0, hierarchy.size());
+    assertTrue(hierarchy.getSubtypes(shape).isEmpty());
+    assertTrue(hierarchy.getDirectSupertypes(circle).isEmpty());
+  }
+}
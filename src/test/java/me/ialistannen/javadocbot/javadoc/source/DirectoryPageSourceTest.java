@@ -0,0 +1,73 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DirectoryPageSourceTest {
+
+  private static final String BASE_URL = "https://example.com/api/";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path root;
+  private DirectoryPageSource source;
+
+  @Before
+  public void setUp() throws IOException {
+    root = folder.newFolder("api").toPath();
+    Files.createDirectories(root.resolve("a"));
+    Files.write(root.resolve("a/B.html"), "<b>B</b>".getBytes(StandardCharsets.UTF_8));
+    Files.write(root.resolve("a/With Space.html"), "space".getBytes(StandardCharsets.UTF_8));
+    Files.write(folder.getRoot().toPath().resolve("secret.html"), new byte[]{1});
+
+    source = new DirectoryPageSource(root, BASE_URL);
+  }
+
+  @Test
+  public void readsPagesRelativeToTheBaseUrl() throws IOException {
+    assertEquals("<b>B</b>", source.read(BASE_URL + "a/B.html").getText());
+  }
+
+  @Test
+  public void ignoresFragmentsAndQueries() throws IOException {
+    assertEquals("<b>B</b>", source.read(BASE_URL + "a/B.html#foo-int-").getText());
+    assertEquals("<b>B</b>", source.read(BASE_URL + "a/B.html?is-external=true").getText());
+  }
+
+  @Test
+  public void decodesEscapedPaths() throws IOException {
+    assertEquals("space", source.read(BASE_URL + "a/With%20Space.html").getText());
+  }
+
+  @Test
+  public void acceptsABaseUrlWithoutTrailingSlash() throws IOException {
+    DirectoryPageSource withoutSlash = new DirectoryPageSource(root, "https://example.com/api");
+
+    assertEquals("<b>B</b>", withoutSlash.read(BASE_URL + "a/B.html").getText());
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void rejectsMissingPages() throws IOException {
+    source.read(BASE_URL + "a/Missing.html");
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void rejectsUrlsOfOtherSites() throws IOException {
+    source.read("https://example.org/api/a/B.html");
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void rejectsUrlsEscapingTheRoot() throws IOException {
+    source.read(BASE_URL + "../secret.html");
+  }
+}
@@ -0,0 +1,60 @@
+package me.ialistannen.javadocbot.javadoc.source;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ZipPageSourceTest {
+
+  private static final String BASE_URL = "https://example.com/api/";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path archive;
+
+  @Before
+  public void setUp() throws IOException {
+    archive = folder.getRoot().toPath().resolve("javadoc.jar");
+    try (OutputStream file = Files.newOutputStream(archive);
+        ZipOutputStream zip = new ZipOutputStream(file)) {
+      zip.putNextEntry(new ZipEntry("a/B.html"));
+      zip.write("root".getBytes(StandardCharsets.UTF_8));
+      zip.putNextEntry(new ZipEntry("docs/api/a/B.html"));
+      zip.write("nested".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+  }
+
+  @Test
+  public void readsEntriesFromTheRoot() throws IOException {
+    try (ZipPageSource source = new ZipPageSource(archive, BASE_URL)) {
+      assertEquals("root", source.read(BASE_URL + "a/B.html#foo--").getText());
+    }
+  }
+
+  @Test
+  public void readsEntriesFromADirectory() throws IOException {
+    try (ZipPageSource source = new ZipPageSource(archive, "docs/api", BASE_URL)) {
+      assertEquals("nested", source.read(BASE_URL + "a/B.html").getText());
+    }
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void rejectsMissingEntries() throws IOException {
+    try (ZipPageSource source = new ZipPageSource(archive, BASE_URL)) {
+      source.read(BASE_URL + "a/C.html");
+    }
+  }
+}
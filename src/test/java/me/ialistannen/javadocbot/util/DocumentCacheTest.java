@@ -0,0 +1,105 @@
+package me.ialistannen.javadocbot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import me.ialistannen.javadocbot.TestJavadoc;
+import org.jsoup.nodes.Document;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DocumentCacheTest {
+
+  private TestJavadoc javadoc;
+  private DocumentCache cache;
+
+  @Before
+  public void setUp() {
+    javadoc = TestJavadoc.shapes();
+    cache = new DocumentCache();
+  }
+
+  @Test
+  public void parsesEachPageOnce() {
+    String url = javadoc.url("demo/shapes/Shape.html");
+
+    Document first = JsoupUtil.parseUrl(url, javadoc, cache);
+    Document second = JsoupUtil.parseUrl(url, javadoc, cache);
+
+    assertSame(first, second);
+    assertEquals(Collections.singletonList("demo/shapes/Shape.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void anchorsShareTheirPage() {
+    Document page = JsoupUtil.parseUrl(javadoc.url("demo/shapes/Shape.html"), javadoc, cache);
+    Document anchor = JsoupUtil.parseUrl(
+        javadoc.url("demo/shapes/Shape.html#area--"), javadoc, cache
+    );
+
+    assertSame(page, anchor);
+    assertEquals(1, javadoc.getReads().size());
+  }
+
+  @Test
+  public void invalidatedPagesAreReadAgain() {
+    String url = javadoc.url("demo/shapes/Shape.html");
+    JsoupUtil.parseUrl(url, javadoc, cache);
+    assertNotNull(cache.getIfPresent(url + "#getName--"));
+
+    cache.invalidate(url);
+
+    assertNull(cache.getIfPresent(url));
+    JsoupUtil.parseUrl(url, javadoc, cache);
+    assertEquals(2, javadoc.getReads().size());
+  }
+
+  @Test
+  public void failedReadsAreNotCached() {
+    String url = javadoc.url("demo/shapes/Broken.html");
+    for (int i = 0; i < 2; i++) {
+      try {
+        JsoupUtil.parseUrl(url, javadoc, cache);
+        fail("The page does not exist");
+      } catch (RuntimeException expected) {
+        // the next call tries again
+      }
+    }
+
+    assertEquals(
+        Arrays.asList("demo/shapes/Broken.html", "demo/shapes/Broken.html"), javadoc.getReads()
+    );
+  }
+
+  @Test
+  public void concurrentAsyncReadsShareOneLookup() throws Exception {
+    List<Runnable> tasks = new ArrayList<>();
+    String url = javadoc.url("demo/shapes/Shape.html");
+
+    CompletableFuture<Document> page = JsoupUtil.parseUrlAsync(url, javadoc, cache, tasks::add);
+    CompletableFuture<Document> anchor = JsoupUtil.parseUrlAsync(
+        url + "#area--", javadoc, cache, tasks::add
+    );
+    assertEquals(1, tasks.size());
+    tasks.get(0).run();
+
+    assertSame(page.get(), anchor.get());
+    assertEquals(Collections.singletonList("demo/shapes/Shape.html"), javadoc.getReads());
+  }
+
+  @Test
+  public void canonicalizeDropsTheFragment() {
+    assertEquals(
+        "https://example.com/api/a/B.html",
+        DocumentCache.canonicalize(" https://example.com/api/a/./B.html#foo-int- ")
+    );
+  }
+}
@@ -0,0 +1,107 @@
+package me.ialistannen.javadocbot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class HtmlTokenizerTest {
+
+  private static List<String> tokens(String html) {
+    HtmlTokenizer tokenizer = new HtmlTokenizer(html);
+    List<String> tokens = new ArrayList<>();
+    while (tokenizer.next()) {
+      switch (tokenizer.getType()) {
+        case START_TAG:
+          tokens.add("<" + tokenizer.getTagName() + ">");
+          break;
+        case END_TAG:
+          tokens.add("</" + tokenizer.getTagName() + ">");
+          break;
+        case TEXT:
+          tokens.add(tokenizer.getText());
+          break;
+      }
+    }
+    return tokens;
+  }
+
+  private static HtmlTokenizer firstTag(String html) {
+    HtmlTokenizer tokenizer = new HtmlTokenizer(html);
+    assertTrue(tokenizer.next());
+    return tokenizer;
+  }
+
+  @Test
+  public void readsTagsAndTexts() {
+    assertEquals(
+        Arrays.asList("<li>", "<a>", "Map & Entry", "</a>", "</li>"),
+        tokens("<LI><a href=\"x\">Map &amp; Entry</a></li>")
+    );
+  }
+
+  @Test
+  public void skipsCommentsDoctypesAndScripts() {
+    assertEquals(
+        Arrays.asList("<p>", "<script>", "</script>", "text", "</p>"),
+        tokens("<!DOCTYPE html><p><!-- <b>not</b> --><script>if (a < b) {}</script>text</p>")
+    );
+  }
+
+  @Test
+  public void treatsStrayBracketsAsText() {
+    assertEquals(Arrays.asList("a ", "< b"), tokens("a < b"));
+  }
+
+  @Test
+  public void readsAttributes() {
+    HtmlTokenizer tokenizer = firstTag(
+        "<a HREF='Map.Entry.html#a&amp;b' class=\"memberNameLink external\" hidden data-x=1>"
+    );
+
+    assertEquals("Map.Entry.html#a&b", tokenizer.getAttribute("href"));
+    assertEquals("", tokenizer.getAttribute("hidden"));
+    assertEquals("1", tokenizer.getAttribute("data-x"));
+    assertNull(tokenizer.getAttribute("title"));
+    assertTrue(tokenizer.hasClass("external"));
+    assertFalse(tokenizer.hasClass("member"));
+  }
+
+  @Test
+  public void quotedAttributesMayContainBrackets() {
+    HtmlTokenizer tokenizer = firstTag("<a title=\"a > b\">text");
+
+    assertEquals("a > b", tokenizer.getAttribute("title"));
+    assertTrue(tokenizer.next());
+    assertEquals("text", tokenizer.getText());
+  }
+
+  @Test
+  public void detectsSelfClosingTags() {
+    assertTrue(firstTag("<br/>").isSelfClosing());
+    assertFalse(firstTag("<br>").isSelfClosing());
+  }
+
+  @Test
+  public void normalizesWhitespaceAcrossTexts() {
+    HtmlTokenizer tokenizer = new HtmlTokenizer("  Shapes\n and <b>  helpers</b> ");
+    StringBuilder text = new StringBuilder();
+    while (tokenizer.next()) {
+      if (tokenizer.getType() == HtmlTokenizer.TokenType.TEXT) {
+        tokenizer.appendNormalizedText(text);
+      }
+    }
+
+    assertEquals("Shapes and helpers ", text.toString());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void tagsHaveNoText() {
+    firstTag("<p>").getText();
+  }
+}
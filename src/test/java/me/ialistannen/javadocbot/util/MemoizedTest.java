@@ -0,0 +1,142 @@
+package me.ialistannen.javadocbot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class MemoizedTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Test
+  public void computesTheValueOnce() {
+    Memoized<String> memoized = new Memoized<>(() -> "value" + calls.incrementAndGet());
+
+    assertNull(memoized.getIfPresent());
+    assertEquals("value1", memoized.get());
+    assertEquals("value1", memoized.get());
+    assertEquals("value1", memoized.getIfPresent());
+  }
+
+  @Test
+  public void setValuesAreNotComputed() {
+    Memoized<String> memoized = new Memoized<>(() -> "value" + calls.incrementAndGet());
+
+    memoized.set("set");
+
+    assertEquals("set", memoized.get());
+    assertEquals(0, calls.get());
+  }
+
+  @Test
+  public void failuresAreNotCached() {
+    Memoized<String> memoized = new Memoized<>(() -> {
+      if (calls.incrementAndGet() == 1) {
+        throw new IllegalStateException("failed");
+      }
+      return "value";
+    });
+
+    try {
+      memoized.get();
+      fail("The first computation fails");
+    } catch (IllegalStateException expected) {
+      // the next read tries again
+    }
+
+    assertNull(memoized.getIfPresent());
+    assertEquals("value", memoized.get());
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void nullValuesAreRejected() {
+    Memoized<String> memoized = new Memoized<>(() -> null);
+
+    try {
+      memoized.get();
+      fail("The supplier returned null");
+    } catch (NullPointerException expected) {
+      assertNull(memoized.getIfPresent());
+    }
+  }
+
+  @Test
+  public void concurrentReadersShareOneComputation() throws Exception {
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Memoized<String> memoized = new Memoized<>(() -> {
+      calls.incrementAndGet();
+      computing.countDown();
+      Uninterruptibles.awaitUninterruptibly(release);
+      return "value";
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      futures.add(executor.submit(memoized::get));
+      computing.await();
+      for (int i = 0; i < 3; i++) {
+        futures.add(executor.submit(memoized::get));
+      }
+      release.countDown();
+      for (Future<String> future : futures) {
+        assertEquals("value", future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void waitingReadersGetTheFailure() throws Exception {
+    CountDownLatch computing = new CountDownLatch(1);
+    CountDownLatch waiting = new CountDownLatch(1);
+    IllegalStateException error = new IllegalStateException("failed");
+    Memoized<String> memoized = new Memoized<>(() -> {
+      computing.countDown();
+      Uninterruptibles.awaitUninterruptibly(waiting);
+      throw error;
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<String> first = executor.submit(memoized::get);
+      computing.await();
+      Future<String> second = executor.submit(memoized::get);
+      // give the second reader time to join the computation
+      Thread.sleep(100);
+      waiting.countDown();
+
+      assertSame(error, causeOf(first));
+      assertSame(error, causeOf(second));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Throwable causeOf(Future<?> future) throws InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+    fail("The future completed normally");
+    return null;
+  }
+}
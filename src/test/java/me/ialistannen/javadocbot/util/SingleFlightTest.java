@@ -0,0 +1,108 @@
+package me.ialistannen.javadocbot.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private CompletableFuture<String> execute(String key, CompletableFuture<String> result) {
+    return singleFlight.execute(key, ignored -> {
+      calls.incrementAndGet();
+      return result;
+    });
+  }
+
+  @Test
+  public void concurrentCallsShareOneCall() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+
+    CompletableFuture<String> first = execute("a", result);
+    CompletableFuture<String> second = execute("a", new CompletableFuture<>());
+    assertEquals(1, singleFlight.getInFlightCount());
+    result.complete("value");
+
+    assertEquals("value", first.get());
+    assertEquals("value", second.get());
+    assertEquals(1, calls.get());
+    assertEquals(0, singleFlight.getInFlightCount());
+  }
+
+  @Test
+  public void differentKeysDoNotShareACall() {
+    execute("a", new CompletableFuture<>());
+    execute("b", new CompletableFuture<>());
+
+    assertEquals(2, calls.get());
+    assertEquals(2, singleFlight.getInFlightCount());
+  }
+
+  @Test
+  public void completedCallsAreNotShared() throws Exception {
+    execute("a", CompletableFuture.completedFuture("first")).get();
+
+    assertEquals("second", execute("a", CompletableFuture.completedFuture("second")).get());
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void failuresReachAllCallersAndAreNotShared() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    CompletableFuture<String> first = execute("a", result);
+    CompletableFuture<String> second = execute("a", result);
+    IllegalStateException error = new IllegalStateException("failed");
+
+    result.completeExceptionally(error);
+
+    assertSame(error, causeOf(first));
+    assertSame(error, causeOf(second));
+    assertEquals("retried", execute("a", CompletableFuture.completedFuture("retried")).get());
+  }
+
+  @Test
+  public void throwingCallsDoNotStayInFlight() throws Exception {
+    IllegalStateException error = new IllegalStateException("failed");
+
+    CompletableFuture<String> failed = singleFlight.execute("a", ignored -> {
+      throw error;
+    });
+
+    assertSame(error, causeOf(failed));
+    assertEquals(0, singleFlight.getInFlightCount());
+    assertEquals("retried", execute("a", CompletableFuture.completedFuture("retried")).get());
+  }
+
+  @Test
+  public void cancellingOneCallerDoesNotAffectTheOthers() throws Exception {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    CompletableFuture<String> first = execute("a", result);
+    CompletableFuture<String> second = execute("a", result);
+
+    first.cancel(true);
+    result.complete("value");
+
+    assertTrue(first.isCancelled());
+    assertFalse(result.isCancelled());
+    assertEquals("value", second.get());
+  }
+
+  private static Throwable causeOf(CompletableFuture<?> future) throws InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+    fail("The future completed normally");
+    return null;
+  }
+}
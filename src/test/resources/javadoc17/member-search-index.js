@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"java.lang","c":"String","l":"CASE_INSENSITIVE_ORDER"},{"p":"java.lang","c":"String","l":"charAt(int)"},{"p":"java.lang","c":"Object","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"java.lang","c":"String","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"java.lang","c":"String","l":"format(String, Object...)","u":"format(java.lang.String,java.lang.Object...)"},{"p":"java.lang","c":"Object","l":"hashCode()"},{"p":"java.lang","c":"String","l":"String()","u":"%3Cinit%3E()"},{"p":"java.lang","c":"String","l":"substring(int, int)","u":"substring(int,int)"},{"p":"java.lang","c":"Object","l":"toString()"}];updateSearchResults();
@@ -0,0 +1 @@
+typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"java.lang","l":"Object"},{"p":"java.lang","l":"String"}];updateSearchResults();